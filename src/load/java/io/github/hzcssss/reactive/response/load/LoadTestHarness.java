@@ -0,0 +1,265 @@
+package io.github.hzcssss.reactive.response.load;
+
+import io.github.hzcssss.reactive.response.core.LongArray;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 端到端压测入口
+ * 在独立JVM进程中启动本地服务器，按场景以固定并发闭环请求，输出吞吐量、延迟分位数，
+ * 以及服务端和压测端各自的GC次数，两者的分配互不混入。
+ * 通过系统属性配置：load.duration（秒）、load.warmup（秒）、load.concurrency、load.scenarios（逗号分隔的场景名，为空时全部执行）、
+ * load.server.heap（服务端堆大小）
+ */
+public final class LoadTestHarness {
+
+    private static final String[] JSON_PATHS = {
+            "/util/mono", "/util/flux", "/util/longs",
+            "/builder/mono", "/builder/flux",
+            "/spring/mono", "/spring/error"
+    };
+
+    private static final String NDJSON_PATH = "/stream/ndjson";
+
+    private LoadTestHarness() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 10));
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 3));
+        int concurrency = Integer.getInteger("load.concurrency", 64);
+        Set<String> filter = parseScenarios(System.getProperty("load.scenarios", ""));
+
+        Process server = startServer(System.getProperty("load.server.heap", "512m"));
+        ConnectionProvider provider = ConnectionProvider.builder("load-test")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + awaitPort(server))
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                    .build();
+            System.out.printf("并发 %d，预热 %ds，测量 %ds，服务端运行在独立进程（reactor-core %s）%n", concurrency,
+                    warmup.getSeconds(), duration.getSeconds(), Flux.class.getPackage().getImplementationVersion());
+            System.out.printf("%-30s %10s %8s %10s %9s %9s %9s %9s %11s %9s%n",
+                    "场景", "请求数", "错误数", "req/s", "p50(ms)", "p99(ms)", "p999(ms)",
+                    "服务端GC", "服务端GC(ms)", "压测端GC");
+            for (Scenario scenario : scenarios()) {
+                if (!filter.isEmpty() && !filter.contains(scenario.name)) {
+                    continue;
+                }
+                run(client, scenario, concurrency, warmup);
+                System.out.println(run(client, scenario, concurrency, duration).format(scenario.name));
+            }
+        } finally {
+            provider.disposeLater().block();
+            server.destroy();
+        }
+    }
+
+    /**
+     * 以相同的类路径启动服务端进程，关闭其标准输入时服务端退出
+     */
+    private static Process startServer(String heap) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-Xms" + heap, "-Xmx" + heap, "-Dfile.encoding=UTF-8",
+                "-classpath", System.getProperty("java.class.path"), LoadTestServer.class.getName())
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    /**
+     * 读取服务端输出的端口行，其余输出转发到标准错误
+     */
+    private static int awaitPort(Process server) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(server.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(LoadTestServer.PORT_LINE_PREFIX)) {
+                Thread forwarder = new Thread(() -> forward(reader), "load-test-server-output");
+                forwarder.setDaemon(true);
+                forwarder.start();
+                return Integer.parseInt(line.substring(LoadTestServer.PORT_LINE_PREFIX.length()).trim());
+            }
+            System.err.println(line);
+        }
+        throw new IllegalStateException("Load test server exited with code " + server.exitValue());
+    }
+
+    private static void forward(BufferedReader reader) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                System.err.println(line);
+            }
+        } catch (IOException ignored) {
+            // 服务端进程已结束
+        }
+    }
+
+    private static List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String path : JSON_PATHS) {
+            scenarios.add(new Scenario("json" + path, path, MediaType.APPLICATION_JSON));
+            scenarios.add(new Scenario("pre-encoded" + path, LoadTestServer.PRE_ENCODED_PREFIX + path,
+                    MediaType.APPLICATION_JSON));
+        }
+        scenarios.add(new Scenario(NDJSON_PATH.substring(1), NDJSON_PATH, MediaType.APPLICATION_NDJSON));
+        return scenarios;
+    }
+
+    private static Set<String> parseScenarios(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            if (!name.trim().isEmpty()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 以固定数量的工作者闭环请求，每个工作者收到完整响应后才发下一个请求
+     */
+    private static Result run(WebClient client, Scenario scenario, int concurrency, Duration duration) {
+        long[] serverGcBefore = serverGcTotals(client);
+        long[] gcBefore = gcTotals();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<LongArray> latencies = Flux.range(0, concurrency)
+                .flatMap(worker -> worker(client, scenario, deadline, errors).subscribeOn(Schedulers.parallel()),
+                        concurrency)
+                .collectList()
+                .block();
+
+        long elapsed = System.nanoTime() - start;
+        long[] gcAfter = gcTotals();
+        long[] serverGcAfter = serverGcTotals(client);
+        LongArray merged = new LongArray();
+        for (LongArray latency : latencies) {
+            merged.addAll(latency);
+        }
+        long[] sorted = merged.toArray();
+        Arrays.sort(sorted);
+        return new Result(sorted, errors.get(), elapsed, serverGcAfter[0] - serverGcBefore[0],
+                serverGcAfter[1] - serverGcBefore[1], gcAfter[0] - gcBefore[0]);
+    }
+
+    private static Mono<LongArray> worker(WebClient client, Scenario scenario, long deadline, AtomicLong errors) {
+        LongArray latencies = new LongArray(4096);
+        Mono<Void> request = Mono.defer(() -> {
+            long begin = System.nanoTime();
+            return client.get()
+                    .uri(scenario.path)
+                    .accept(scenario.accept)
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .doOnSuccess(body -> latencies.add(System.nanoTime() - begin))
+                    .onErrorResume(e -> {
+                        errors.incrementAndGet();
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+        return request
+                .repeat(() -> System.nanoTime() < deadline)
+                .then(Mono.fromSupplier(() -> latencies));
+    }
+
+    /**
+     * 服务端进程所有收集器的累计次数和耗时
+     */
+    private static long[] serverGcTotals(WebClient client) {
+        String[] totals = client.get().uri(LoadTestServer.GC_PATH).retrieve().bodyToMono(String.class)
+                .block().split(",");
+        return new long[]{Long.parseLong(totals[0].trim()), Long.parseLong(totals[1].trim())};
+    }
+
+    /**
+     * 压测进程所有收集器的累计次数和耗时
+     */
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+
+    private static final class Scenario {
+
+        private final String name;
+        private final String path;
+        private final MediaType accept;
+
+        private Scenario(String name, String path, MediaType accept) {
+            this.name = name;
+            this.path = path;
+            this.accept = accept;
+        }
+    }
+
+    private static final class Result {
+
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final long elapsedNanos;
+        private final long serverGcCount;
+        private final long serverGcMillis;
+        private final long clientGcCount;
+
+        private Result(long[] sortedLatencies, long errors, long elapsedNanos, long serverGcCount,
+                       long serverGcMillis, long clientGcCount) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.serverGcCount = serverGcCount;
+            this.serverGcMillis = serverGcMillis;
+            this.clientGcCount = clientGcCount;
+        }
+
+        private String format(String name) {
+            long requests = sortedLatencies.length;
+            double throughput = requests * 1_000_000_000.0 / elapsedNanos;
+            return String.format("%-30s %10d %8d %10.0f %9.3f %9.3f %9.3f %9d %11d %9d",
+                    name, requests, errors, throughput, percentile(0.50), percentile(0.99), percentile(0.999),
+                    serverGcCount, serverGcMillis, clientGcCount);
+        }
+
+        private double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.hzcssss.reactive.response.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
+import io.github.hzcssss.reactive.response.web.ReactiveResponseEncoder;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 压测用的本地WebFlux应用
+ * 每个端点使用一种包装方式，/pre-encoded下的端点使用预编码响应头部的编码器。
+ * 由LoadTestHarness在独立进程中启动，GC统计只包含服务端
+ */
+public class LoadTestServer {
+
+    /**
+     * 使用预编码编码器的端点前缀
+     */
+    public static final String PRE_ENCODED_PREFIX = "/pre-encoded";
+
+    /**
+     * 返回本进程GC累计次数和耗时的端点，格式为"次数,毫秒"
+     */
+    public static final String GC_PATH = "/_gc";
+
+    /**
+     * 启动后输出到标准输出的端口行前缀
+     */
+    public static final String PORT_LINE_PREFIX = "load-test-server-port=";
+
+    private static final int LIST_SIZE = 20;
+
+    private final SpringReactiveResponseBuilder springBuilder = new SpringReactiveResponseBuilder();
+
+    /**
+     * 独立进程入口，输出端口后运行到标准输入关闭（压测进程退出）为止
+     *
+     * @param args 未使用
+     * @throws IOException 读取标准输入失败
+     */
+    public static void main(String[] args) throws IOException {
+        DisposableServer server = new LoadTestServer().start();
+        System.out.println(PORT_LINE_PREFIX + server.port());
+        System.out.flush();
+        try {
+            while (System.in.read() >= 0) {
+                // 等待父进程关闭管道
+            }
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    /**
+     * 启动服务器，监听本地随机端口
+     *
+     * @return 服务器
+     */
+    public DisposableServer start() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new ReactiveResponseModule());
+        HandlerStrategies jackson = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HandlerStrategies preEncoded = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.customCodecs().registerWithDefaultConfig(
+                            new EncoderHttpMessageWriter<>(new ReactiveResponseEncoder(objectMapper)));
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                })
+                .build();
+
+        HttpHandler jacksonHandler = RouterFunctions.toHttpHandler(routes(""), jackson);
+        HttpHandler preEncodedHandler = RouterFunctions.toHttpHandler(routes(PRE_ENCODED_PREFIX), preEncoded);
+        HttpHandler gcHandler = RouterFunctions.toHttpHandler(RouterFunctions.route()
+                .GET(GC_PATH, request -> ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(gcTotals()))
+                .build());
+        HttpHandler handler = (request, response) -> {
+            String path = request.getURI().getPath();
+            if (path.equals(GC_PATH)) {
+                return gcHandler.handle(request, response);
+            }
+            return path.startsWith(PRE_ENCODED_PREFIX + "/")
+                    ? preEncodedHandler.handle(request, response)
+                    : jacksonHandler.handle(request, response);
+        };
+
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+    }
+
+    private RouterFunction<ServerResponse> routes(String prefix) {
+        return RouterFunctions.route()
+                .GET(prefix + "/util/mono", request -> json(ReactiveResponseUtil.wrapMono(user(1))))
+                .GET(prefix + "/util/flux", request -> json(ReactiveResponseUtil.wrapFlux(users())))
+                .GET(prefix + "/util/longs", request -> json(ReactiveResponseUtil.wrapLongs(Flux.range(0, 1000).map(Integer::longValue))))
+                .GET(prefix + "/builder/mono", request -> json(ReactiveResponseBuilder.from(user(2)).build()))
+                .GET(prefix + "/builder/flux", request -> json(ReactiveResponseBuilder.from(users()).build()))
+                .GET(prefix + "/spring/mono", request -> json(springBuilder.from(user(3)).build()))
+                .GET(prefix + "/spring/error", request -> json(springBuilder.from(Mono.<User>error(new IllegalStateException("失败"))).build()))
+                .GET(prefix + "/stream/ndjson", request -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(users().map(ReactiveResponse::success), ReactiveResponse.class))
+                .build();
+    }
+
+    private static String gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return count + "," + time;
+    }
+
+    private static Mono<ServerResponse> json(Mono<? extends ReactiveResponse<?>> body) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(body, ReactiveResponse.class);
+    }
+
+    private static Mono<User> user(long id) {
+        return Mono.fromSupplier(() -> new User(id, "用户" + id, "user" + id + "@example.com"));
+    }
+
+    private static Flux<User> users() {
+        return Flux.range(0, LIST_SIZE).map(i -> new User(i, "用户" + i, "user" + i + "@example.com"));
+    }
+
+    /**
+     * 压测数据
+     */
+    public static class User {
+
+        private final long id;
+        private final String name;
+        private final String email;
+
+        public User(long id, String name, String email) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+    }
+}
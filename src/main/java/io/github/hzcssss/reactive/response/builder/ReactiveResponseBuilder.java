@@ -1,12 +1,32 @@
 package io.github.hzcssss.reactive.response.builder;
 
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.FieldProjection;
+import io.github.hzcssss.reactive.response.core.ImmutableReactiveResponse;
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.jackson.SpillingCollector;
+import io.github.hzcssss.reactive.response.util.BatchCollectors;
+import io.github.hzcssss.reactive.response.util.DeltaSnapshots;
+import io.github.hzcssss.reactive.response.util.FanOut;
+import io.github.hzcssss.reactive.response.util.HedgingPolicy;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import io.github.hzcssss.reactive.response.util.StreamingCollectors;
+import reactor.core.Fuseable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 /**
  * 响应式响应构建器
@@ -176,12 +196,16 @@ public class ReactiveResponseBuilder<T> {
      * @return 响应对象
      */
     public ReactiveResponse<T> build() {
-        ReactiveResponse<T> response = new ReactiveResponse<>();
-        response.setErrorCode(errorCode);
-        response.setMessage(message);
-        response.setData(data);
-        response.setSuccess(success);
-        return response;
+        return new ReactiveResponse<>(errorCode, message, success, System.currentTimeMillis(), data);
+    }
+
+    /**
+     * 构建不可修改的响应对象，直接写入final字段，不经过可修改的中间对象
+     *
+     * @return 不可修改的响应对象
+     */
+    public ImmutableReactiveResponse<T> buildImmutable() {
+        return new ImmutableReactiveResponse<>(errorCode, message, success, System.currentTimeMillis(), data);
     }
 
     /**
@@ -192,12 +216,13 @@ public class ReactiveResponseBuilder<T> {
      * @return 包装后的Mono
      */
     public static <R> Mono<ReactiveResponse<R>> wrapMono(Mono<R> mono) {
+        if (mono instanceof Fuseable.ScalarCallable) {
+            return ReactiveResponseUtil.resolveScalar(mono, data -> ReactiveResponseBuilder.<R>success(data).build(),
+                    e -> ExceptionMappingRegistry.getDefault().toResponse(e));
+        }
         return mono
                 .map(data -> ReactiveResponseBuilder.<R>success(data).build())
-                .onErrorResume(BusinessException.class, e -> 
-                    Mono.just(ReactiveResponseBuilder.<R>failure(e).build()))
-                .onErrorResume(e -> 
-                    Mono.just(ReactiveResponseBuilder.<R>failure(e).build()));
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
     }
 
     /**
@@ -211,10 +236,38 @@ public class ReactiveResponseBuilder<T> {
         return flux
                 .collectList()
                 .map(data -> ReactiveResponseBuilder.<List<R>>success(data).build())
-                .onErrorResume(BusinessException.class, e -> 
-                    Mono.just(ReactiveResponseBuilder.<List<R>>failure(e).build()))
-                .onErrorResume(e -> 
-                    Mono.just(ReactiveResponseBuilder.<List<R>>failure(e).build()));
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
+    }
+
+    /**
+     * 用收集器增量聚合Flux并包装为响应，不物化元素列表
+     *
+     * @param flux      原始Flux
+     * @param collector 收集器
+     * @param <R>       元素类型
+     * @param <U>       结果类型
+     * @return 包装后的Mono
+     */
+    public static <R, U> Mono<ReactiveResponse<U>> wrapCollect(Flux<R> flux, Collector<? super R, ?, U> collector) {
+        return StreamingCollectors.collect(flux, collector)
+                .map(result -> ReactiveResponseBuilder.<U>success(result.orElse(null)).build())
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
+    }
+
+    /**
+     * 用归约函数增量聚合Flux并包装为响应，不物化元素列表
+     *
+     * @param flux        原始Flux
+     * @param initial     初始值提供者
+     * @param accumulator 归约函数
+     * @param <R>         元素类型
+     * @param <U>         结果类型
+     * @return 包装后的Mono
+     */
+    public static <R, U> Mono<ReactiveResponse<U>> wrapReduce(Flux<R> flux,
+                                                             Supplier<U> initial,
+                                                             BiFunction<U, ? super R, U> accumulator) {
+        return wrapMono(flux.reduceWith(initial, accumulator));
     }
 
     /**
@@ -274,6 +327,11 @@ public class ReactiveResponseBuilder<T> {
         private String successMessage = "操作成功";
         private Function<BusinessException, ReactiveResponse<T>> businessExceptionHandler;
         private Function<Throwable, ReactiveResponse<T>> errorHandler;
+        private HedgingPolicy hedgingPolicy;
+        private SpanRecorder spanRecorder;
+        private String spanLabel;
+        private FieldProjection projection;
+        private BusinessException projectionError;
 
         private MonoResponseBuilder(Mono<T> mono) {
             this.mono = mono;
@@ -323,35 +381,102 @@ public class ReactiveResponseBuilder<T> {
             return this;
         }
 
+        /**
+         * 设置对冲策略，原始请求超过延迟未结束时重新订阅一次源Mono
+         * 源Mono必须是冷的（如WebClient调用、Mono.defer），每次订阅都会重新执行
+         *
+         * @param policy 对冲策略，应在请求之间共享
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> hedge(HedgingPolicy policy) {
+            this.hedgingPolicy = policy;
+            return this;
+        }
+
+        /**
+         * 按标签记录本次包装的耗时
+         *
+         * @param recorder 耗时记录器，应在请求之间共享
+         * @param label    标签，如接口路径
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> span(SpanRecorder recorder, String label) {
+            this.spanRecorder = recorder;
+            this.spanLabel = label;
+            return this;
+        }
+
+        /**
+         * 设置字段投影，序列化data时只输出选中的字段，需要ObjectMapper注册ReactiveResponseModule
+         * 表达式无效时不执行源，直接构建失败响应
+         *
+         * @param fields 逗号分隔的字段路径，如"id,name,address.city"，通常取自查询参数fields，为null时不投影
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> fields(String fields) {
+            try {
+                this.projection = FieldProjection.parse(fields);
+                this.projectionError = null;
+            } catch (IllegalArgumentException e) {
+                this.projection = null;
+                this.projectionError = new BusinessException(ResponseCode.FAILURE.getErrorCode(),
+                        "无效的字段投影: " + e.getMessage());
+            }
+            return this;
+        }
+
         /**
          * 构建响应Mono
          *
          * @return 响应Mono
          */
         public Mono<ReactiveResponse<T>> build() {
-            return mono
-                    .map(data -> {
-                        ReactiveResponse<T> response = new ReactiveResponse<>();
-                        response.setErrorCode(successCode);
-                        response.setMessage(successMessage);
-                        response.setData(data);
-                        response.setSuccess(true);
-                        return response;
-                    })
-                    .onErrorResume(BusinessException.class, e -> {
-                        if (businessExceptionHandler != null) {
-                            return Mono.just(businessExceptionHandler.apply(e));
-                        } else {
-                            return Mono.just(ReactiveResponseBuilder.<T>failure(e).build());
-                        }
-                    })
-                    .onErrorResume(e -> {
-                        if (errorHandler != null) {
-                            return Mono.just(errorHandler.apply(e));
-                        } else {
-                            return Mono.just(ReactiveResponseBuilder.<T>failure(e).build());
-                        }
-                    });
+            Mono<T> source = input();
+            if (spanRecorder != null) {
+                return spanRecorder.record(spanLabel, source, this::pipeline);
+            }
+            if (source instanceof Fuseable.ScalarCallable) {
+                // 标量源不会变慢，对冲没有意义
+                return ReactiveResponseUtil.resolveScalar(source, this::success, this::handleError);
+            }
+            return pipeline(source);
+        }
+
+        private Mono<ReactiveResponse<T>> pipeline(Mono<T> source) {
+            return source(source)
+                    .map(this::success)
+                    .onErrorResume(e -> Mono.just(handleError(e)));
+        }
+
+        private ReactiveResponse<T> success(T data) {
+            ReactiveResponse<T> response = ReactiveResponse.success(successCode, successMessage, data);
+            return projection == null ? response : projection.apply(response);
+        }
+
+        /**
+         * 字段投影无效时以失败代替源
+         */
+        private Mono<T> input() {
+            return projectionError == null ? mono : Mono.error(projectionError);
+        }
+
+        private Mono<T> source(Mono<T> source) {
+            return hedgingPolicy == null ? source : hedgingPolicy.apply(() -> source);
+        }
+
+        /**
+         * 处理错误，未设置处理器时按异常映射注册表转换，两种方式都记录失败日志
+         */
+        private ReactiveResponse<T> handleError(Throwable e) {
+            if (e instanceof BusinessException) {
+                if (businessExceptionHandler != null) {
+                    return ExceptionMappingRegistry.getDefault()
+                            .recordFailure(businessExceptionHandler.apply((BusinessException) e), e);
+                }
+            } else if (errorHandler != null) {
+                return ExceptionMappingRegistry.getDefault().recordFailure(errorHandler.apply(e), e);
+            }
+            return ExceptionMappingRegistry.getDefault().toResponse(e);
         }
     }
 
@@ -367,6 +492,10 @@ public class ReactiveResponseBuilder<T> {
         private String successMessage = "操作成功";
         private Function<BusinessException, ReactiveResponse<List<T>>> businessExceptionHandler;
         private Function<Throwable, ReactiveResponse<List<T>>> errorHandler;
+        private SpanRecorder spanRecorder;
+        private String spanLabel;
+        private FieldProjection projection;
+        private BusinessException projectionError;
 
         private FluxResponseBuilder(Flux<T> flux) {
             this.flux = flux;
@@ -416,36 +545,217 @@ public class ReactiveResponseBuilder<T> {
             return this;
         }
 
+        /**
+         * 按标签记录本次包装的耗时
+         *
+         * @param recorder 耗时记录器，应在请求之间共享
+         * @param label    标签，如接口路径
+         * @return 构建器
+         */
+        public FluxResponseBuilder<T> span(SpanRecorder recorder, String label) {
+            this.spanRecorder = recorder;
+            this.spanLabel = label;
+            return this;
+        }
+
+        /**
+         * 以有界并发对每个元素执行映射，返回基于映射结果的构建器，任一调用失败时构建失败响应
+         * 已设置的成功码和成功消息、耗时记录会保留，错误处理器需要在映射之后设置
+         *
+         * @param mapper      元素映射
+         * @param concurrency 最大并发调用数
+         * @param ordered     是否按输入顺序输出
+         * @param <R>         结果类型
+         * @return 构建器
+         */
+        public <R> FluxResponseBuilder<R> fanOut(Function<? super T, ? extends Mono<? extends R>> mapper,
+                                                 int concurrency,
+                                                 boolean ordered) {
+            return fanOut(mapper, concurrency, ordered, null, FanOut.ItemErrorMode.FAIL);
+        }
+
+        /**
+         * 以有界并发对每个元素执行映射，返回基于映射结果的构建器
+         *
+         * @param mapper      元素映射
+         * @param concurrency 最大并发调用数
+         * @param ordered     是否按输入顺序输出
+         * @param itemTimeout 单个调用的超时时间，为null时不限制
+         * @param errorMode   单个调用失败时跳过该元素还是构建失败响应
+         * @param <R>         结果类型
+         * @return 构建器
+         */
+        public <R> FluxResponseBuilder<R> fanOut(Function<? super T, ? extends Mono<? extends R>> mapper,
+                                                 int concurrency,
+                                                 boolean ordered,
+                                                 Duration itemTimeout,
+                                                 FanOut.ItemErrorMode errorMode) {
+            FluxResponseBuilder<R> builder = new FluxResponseBuilder<>(
+                    FanOut.apply(flux, mapper, concurrency, ordered, itemTimeout, errorMode));
+            builder.successCode = successCode;
+            builder.successMessage = successMessage;
+            builder.projection = projection;
+            builder.projectionError = projectionError;
+            builder.spanRecorder = spanRecorder;
+            builder.spanLabel = spanLabel;
+            return builder;
+        }
+
+        /**
+         * 设置字段投影，序列化时每个元素只输出选中的字段，需要ObjectMapper注册ReactiveResponseModule
+         * buildBatch/buildDelta投影结果中的元素列表，其余字段原样输出；buildCollect/buildReduce的聚合结果不投影
+         * 表达式无效时不执行源，直接构建失败响应；溢出到磁盘的响应不支持投影
+         *
+         * @param fields 逗号分隔的字段路径，如"id,name,address.city"，通常取自查询参数fields，为null时不投影
+         * @return 构建器
+         */
+        public FluxResponseBuilder<T> fields(String fields) {
+            try {
+                this.projection = FieldProjection.parse(fields);
+                this.projectionError = null;
+            } catch (IllegalArgumentException e) {
+                this.projection = null;
+                this.projectionError = new BusinessException(ResponseCode.FAILURE.getErrorCode(),
+                        "无效的字段投影: " + e.getMessage());
+            }
+            return this;
+        }
+
         /**
          * 构建响应Mono
          *
          * @return 响应Mono
          */
         public Mono<ReactiveResponse<List<T>>> build() {
-            return flux
+            return traced(source -> source
                     .collectList()
-                    .map(data -> {
-                        ReactiveResponse<List<T>> response = new ReactiveResponse<>();
-                        response.setErrorCode(successCode);
-                        response.setMessage(successMessage);
-                        response.setData(data);
-                        response.setSuccess(true);
-                        return response;
-                    })
-                    .onErrorResume(BusinessException.class, e -> {
-                        if (businessExceptionHandler != null) {
-                            return Mono.just(businessExceptionHandler.apply(e));
-                        } else {
-                            return Mono.just(ReactiveResponseBuilder.<List<T>>failure(e).build());
-                        }
-                    })
-                    .onErrorResume(e -> {
-                        if (errorHandler != null) {
-                            return Mono.just(errorHandler.apply(e));
-                        } else {
-                            return Mono.just(ReactiveResponseBuilder.<List<T>>failure(e).build());
-                        }
-                    });
+                    .map(this::listResponse)
+                    .onErrorResume(e -> Mono.just(handleError(e))));
+        }
+
+        /**
+         * 用收集器增量聚合元素并构建响应，不物化元素列表
+         *
+         * @param collector 收集器
+         * @param <R>       结果类型
+         * @return 响应Mono
+         */
+        public <R> Mono<ReactiveResponse<R>> buildCollect(Collector<? super T, ?, R> collector) {
+            return traced(source -> StreamingCollectors.collect(source, collector)
+                    .map(result -> successResponse(result.orElse(null)))
+                    .onErrorResume(e -> Mono.just(handleAggregateError(e))));
+        }
+
+        /**
+         * 用归约函数增量聚合元素并构建响应，不物化元素列表
+         *
+         * @param initial     初始值提供者
+         * @param accumulator 归约函数
+         * @param <R>         结果类型
+         * @return 响应Mono
+         */
+        public <R> Mono<ReactiveResponse<R>> buildReduce(Supplier<R> initial, BiFunction<R, ? super T, R> accumulator) {
+            return traced(source -> source.reduceWith(initial, accumulator)
+                    .map(this::successResponse)
+                    .onErrorResume(e -> Mono.just(handleAggregateError(e))));
+        }
+
+        /**
+         * 构建可溢出到磁盘的列表响应，元素超过收集器阈值后写入临时文件，堆内存占用有界
+         * 响应发送后必须关闭以删除临时文件，WebFlux中可使用SpillableResponseWriter发送；
+         * 交给下游之前被取消或被操作符丢弃时自动删除
+         *
+         * @param collector 溢出收集器
+         * @return 响应Mono
+         */
+        public Mono<SpillableResponse<T>> buildSpilling(SpillingCollector collector) {
+            return traced(source -> collector.collect(source, successCode, successMessage)
+                    .onErrorResume(e -> Mono.just(SpillableResponse.inMemory(handleError(e)))))
+                    .doOnDiscard(SpillableResponse.class, response -> response.discard());
+        }
+
+        /**
+         * 构建部分成功的批量响应
+         * 元素在map等支持错误继续的操作符中失败时只记录在该元素上，不中断其余元素
+         *
+         * @return 批量响应Mono
+         */
+        public Mono<ReactiveResponse<BatchResult<T>>> buildBatch() {
+            return traced(source -> BatchCollectors.collect(source, ExceptionMappingRegistry.getDefault())
+                    .map(result -> resultResponse(result, "items"))
+                    .onErrorResume(e -> Mono.just(handleAggregateError(e))));
+        }
+
+        /**
+         * 构建增量列表响应，客户端版本的快照存在时只返回新增、变化和删除的元素
+         *
+         * @param snapshots 快照存储，应在请求之间共享
+         * @param key       列表的键
+         * @param version   客户端上次收到的版本号，首次请求为null
+         * @return 增量响应Mono
+         */
+        public Mono<ReactiveResponse<DeltaResult<T>>> buildDelta(DeltaSnapshots<T, ?> snapshots, String key,
+                                                                 String version) {
+            return traced(source -> snapshots.diff(key, version, source)
+                    .map(result -> resultResponse(result, "items", "added", "changed"))
+                    .onErrorResume(e -> Mono.just(handleAggregateError(e))));
+        }
+
+        private <R> ReactiveResponse<R> successResponse(R data) {
+            return ReactiveResponse.success(successCode, successMessage, data);
+        }
+
+        /**
+         * 元素列表的响应，按投影过滤每个元素
+         */
+        private ReactiveResponse<List<T>> listResponse(List<T> items) {
+            ReactiveResponse<List<T>> response = successResponse(items);
+            return projection == null ? response : projection.apply(response);
+        }
+
+        /**
+         * 批量、增量等结果对象的响应，投影下推到结果中包含元素的字段，结果对象的其余字段原样输出
+         */
+        private <R> ReactiveResponse<R> resultResponse(R result, String... itemFields) {
+            ReactiveResponse<R> response = successResponse(result);
+            return projection == null ? response : projection.within(itemFields).apply(response);
+        }
+
+        /**
+         * 字段投影无效时以失败代替源
+         */
+        private Flux<T> input() {
+            return projectionError == null ? flux : Flux.error(projectionError);
+        }
+
+        /**
+         * 设置了耗时记录时在记录下执行响应管道
+         */
+        private <R> Mono<R> traced(Function<Flux<T>, Mono<R>> pipeline) {
+            Flux<T> source = input();
+            return spanRecorder == null ? pipeline.apply(source) : spanRecorder.record(spanLabel, source, pipeline);
+        }
+
+        /**
+         * 处理错误，未设置处理器时按异常映射注册表转换，两种方式都记录失败日志
+         */
+        private ReactiveResponse<List<T>> handleError(Throwable e) {
+            if (e instanceof BusinessException) {
+                if (businessExceptionHandler != null) {
+                    return ExceptionMappingRegistry.getDefault()
+                            .recordFailure(businessExceptionHandler.apply((BusinessException) e), e);
+                }
+            } else if (errorHandler != null) {
+                return ExceptionMappingRegistry.getDefault().recordFailure(errorHandler.apply(e), e);
+            }
+            return ExceptionMappingRegistry.getDefault().toResponse(e);
+        }
+
+        /**
+         * 处理批量、聚合等构建方式的错误，与build()使用同样的处理器；处理器结果的data类型不同，不保留
+         */
+        private <R> ReactiveResponse<R> handleAggregateError(Throwable e) {
+            return ReactiveResponseUtil.withoutData(handleError(e));
         }
     }
 }
\ No newline at end of file
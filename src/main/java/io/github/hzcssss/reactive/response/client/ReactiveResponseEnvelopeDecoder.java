@@ -0,0 +1,359 @@
+package io.github.hzcssss.reactive.response.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ReactiveResponse信封流式解码器
+ * 以非阻塞方式逐个读取信封字段，只输出data字段的原始字节：
+ * success为false时在读取data之前抛出BusinessException，
+ * success为true时data字节边读边输出，交给下游解码器按元素流式解析
+ */
+public class ReactiveResponseEnvelopeDecoder {
+
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+    /**
+     * 信封的顶层字段
+     */
+    private static final Set<String> ENVELOPE_FIELDS = new HashSet<>(
+            Arrays.asList("errorCode", "message", "success", "timestamp", "data"));
+
+    private final JsonFactory jsonFactory;
+
+    public ReactiveResponseEnvelopeDecoder() {
+        this(new JsonFactory());
+    }
+
+    public ReactiveResponseEnvelopeDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * 从信封字节流中提取data字段的字节流
+     *
+     * @param body 信封字节流
+     * @return data字段字节流，失败响应时以BusinessException结束
+     */
+    public Flux<DataBuffer> decodeData(Flux<DataBuffer> body) {
+        return decode(body, false);
+    }
+
+    /**
+     * 响应体是ReactiveResponse信封时提取data字段的字节流，否则原样输出
+     * 在读到success字段之前出现信封以外的顶层字段、顶层不是对象或不是合法JSON时视为普通响应体，
+     * 用于同一客户端既会收到信封也会收到其他JSON（如网关错误体）的场景
+     *
+     * @param body 响应字节流
+     * @return data字段字节流或原始字节流，失败响应时以BusinessException结束
+     */
+    public Flux<DataBuffer> decodeDataIfEnvelope(Flux<DataBuffer> body) {
+        return decode(body, true);
+    }
+
+    private Flux<DataBuffer> decode(Flux<DataBuffer> body, boolean passThroughOthers) {
+        return Flux.defer(() -> {
+            EnvelopeState state;
+            try {
+                state = new EnvelopeState(jsonFactory.createNonBlockingByteArrayParser(), passThroughOthers);
+            } catch (IOException e) {
+                return Flux.error(new DecodingException("创建JSON解析器失败", e));
+            }
+            return body.concatMapIterable(state::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.endOfInput())));
+        });
+    }
+
+    /**
+     * 单次解码的解析状态
+     */
+    private static final class EnvelopeState {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        /**
+         * data字段之后尚未输出的数据块
+         */
+        private final Deque<Chunk> captured = new ArrayDeque<>();
+
+        private long consumed;
+        private int depth;
+        private String field;
+
+        private Boolean success;
+        private Integer errorCode;
+        private String message;
+        private boolean messageSeen;
+
+        /**
+         * 确认是信封之前收到的全部输入，判定为普通响应体时原样输出；为null表示已确认或不允许原样输出
+         */
+        private List<byte[]> undetermined;
+
+        private boolean passThrough;
+
+        private int dataDepth;
+        private long captureFrom = -1;
+        private long dataStart = -1;
+        private long dataEnd = -1;
+        private long emittedUpTo = -1;
+
+        private EnvelopeState(JsonParser parser, boolean passThroughOthers) {
+            this.parser = parser;
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.undetermined = passThroughOthers ? new ArrayList<>() : null;
+        }
+
+        List<DataBuffer> feed(DataBuffer buffer) {
+            if (passThrough) {
+                return Collections.singletonList(buffer);
+            }
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            DataBufferUtils.release(buffer);
+            if (undetermined != null) {
+                undetermined.add(bytes);
+            }
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                if (captureFrom >= 0 && dataEnd < 0) {
+                    captured.addLast(new Chunk(bytes, consumed));
+                }
+                long base = consumed;
+                consumed += bytes.length;
+                readTokens(bytes, base);
+            } catch (IOException | DecodingException e) {
+                if (undetermined != null) {
+                    return passThrough();
+                }
+                throw e instanceof DecodingException ? (DecodingException) e
+                        : new DecodingException("JSON解析失败: " + e.getMessage(), e);
+            }
+            if (passThrough) {
+                return passThrough();
+            }
+            checkFailure(false);
+            return drain();
+        }
+
+        List<DataBuffer> endOfInput() {
+            if (passThrough) {
+                return Collections.emptyList();
+            }
+            feeder.endOfInput();
+            try {
+                readTokens(null, consumed);
+            } catch (IOException | DecodingException e) {
+                if (undetermined != null) {
+                    return passThrough();
+                }
+                throw e instanceof DecodingException ? (DecodingException) e
+                        : new DecodingException("JSON解析失败: " + e.getMessage(), e);
+            }
+            if (passThrough || (success == null && undetermined != null)) {
+                return passThrough();
+            }
+            checkFailure(true);
+            if (success == null) {
+                throw new DecodingException("响应缺少success字段，不是ReactiveResponse格式");
+            }
+            return drain();
+        }
+
+        /**
+         * 判定为普通响应体，输出已收到的全部字节，之后的输入直接输出
+         */
+        private List<DataBuffer> passThrough() {
+            passThrough = true;
+            captured.clear();
+            List<DataBuffer> out = new ArrayList<>(undetermined.size());
+            for (byte[] bytes : undetermined) {
+                out.add(BUFFER_FACTORY.wrap(bytes));
+            }
+            undetermined = null;
+            return out;
+        }
+
+        /**
+         * 在确认是信封之前出现非信封的结构时，按配置改为原样输出
+         */
+        private boolean notEnvelope() {
+            if (undetermined != null) {
+                passThrough = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void readTokens(byte[] bytes, long base) throws IOException {
+            JsonToken token;
+            while (!passThrough && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (dataStart >= 0 && dataEnd < 0) {
+                    readDataToken(token);
+                    continue;
+                }
+                switch (token) {
+                    case START_OBJECT:
+                    case START_ARRAY:
+                        if (depth == 0 && token != JsonToken.START_OBJECT) {
+                            if (notEnvelope()) {
+                                return;
+                            }
+                            throw new DecodingException("响应不是ReactiveResponse格式");
+                        }
+                        if (depth == 1 && "data".equals(field)) {
+                            startData(token);
+                        } else {
+                            depth++;
+                        }
+                        break;
+                    case END_OBJECT:
+                    case END_ARRAY:
+                        depth--;
+                        break;
+                    case FIELD_NAME:
+                        if (depth == 1) {
+                            field = parser.getCurrentName();
+                            if (success == null && !ENVELOPE_FIELDS.contains(field) && notEnvelope()) {
+                                return;
+                            }
+                            if ("data".equals(field)) {
+                                captureData(bytes, base);
+                            }
+                        }
+                        break;
+                    default:
+                        if (depth == 1) {
+                            readField(token);
+                        }
+                        break;
+                }
+            }
+        }
+
+        private void readField(JsonToken token) throws IOException {
+            if ("success".equals(field)) {
+                success = token == JsonToken.VALUE_TRUE;
+                // 确认是信封，不再保留原始输入
+                undetermined = null;
+            } else if ("errorCode".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                errorCode = parser.getIntValue();
+            } else if ("message".equals(field)) {
+                message = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                messageSeen = true;
+            } else if ("data".equals(field)) {
+                startData(token);
+            }
+        }
+
+        private void captureData(byte[] bytes, long base) {
+            captureFrom = parser.getCurrentLocation().getByteOffset();
+            if (bytes != null && captured.isEmpty()) {
+                captured.addLast(new Chunk(bytes, base));
+            }
+        }
+
+        private void startData(JsonToken token) {
+            dataStart = locateDataStart();
+            readDataToken(token);
+        }
+
+        private void readDataToken(JsonToken token) {
+            if (token.isStructStart()) {
+                dataDepth++;
+            } else if (token.isStructEnd()) {
+                dataDepth--;
+            }
+            if (dataDepth == 0) {
+                dataEnd = parser.getCurrentLocation().getByteOffset();
+            }
+        }
+
+        /**
+         * 跳过字段名之后的冒号和空白，定位data值的第一个字节
+         */
+        private long locateDataStart() {
+            long offset = captureFrom;
+            for (Chunk chunk : captured) {
+                long end = chunk.base + chunk.bytes.length;
+                while (offset < end) {
+                    if (offset >= chunk.base) {
+                        byte b = chunk.bytes[(int) (offset - chunk.base)];
+                        if (b != ':' && b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                            return offset;
+                        }
+                    }
+                    offset++;
+                }
+            }
+            return offset;
+        }
+
+        private void checkFailure(boolean complete) {
+            if (Boolean.FALSE.equals(success) && (complete || (errorCode != null && messageSeen))) {
+                captured.clear();
+                throw new BusinessException(errorCode != null ? errorCode : ResponseCode.FAILURE.getErrorCode(), message);
+            }
+        }
+
+        /**
+         * success为true后输出已确定属于data的字节
+         */
+        private List<DataBuffer> drain() {
+            if (!Boolean.TRUE.equals(success) || dataStart < 0 || captured.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<DataBuffer> out = new ArrayList<>(captured.size());
+            long from = Math.max(dataStart, emittedUpTo);
+            long limit = dataEnd >= 0 ? dataEnd : Long.MAX_VALUE;
+            while (!captured.isEmpty()) {
+                Chunk chunk = captured.peekFirst();
+                long chunkEnd = chunk.base + chunk.bytes.length;
+                long start = Math.max(from, chunk.base);
+                long end = Math.min(limit, chunkEnd);
+                if (end > start) {
+                    ByteBuffer slice = ByteBuffer.wrap(chunk.bytes, (int) (start - chunk.base), (int) (end - start));
+                    out.add(BUFFER_FACTORY.wrap(slice.slice()));
+                    emittedUpTo = end;
+                }
+                captured.pollFirst();
+            }
+            return out;
+        }
+    }
+
+    /**
+     * 带绝对偏移量的输入块
+     */
+    private static final class Chunk {
+
+        private final byte[] bytes;
+        private final long base;
+
+        private Chunk(byte[] bytes, long base) {
+            this.bytes = bytes;
+            this.base = base;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.hzcssss.reactive.response.client;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebClient信封解包过滤器
+ * 把JSON响应体替换为信封中data字段的原始字节，失败响应在读取data之前以BusinessException结束，
+ * 调用方直接使用bodyToMono/bodyToFlux解码数据，data为数组时bodyToFlux按元素流式输出。
+ * 只解包信封格式的响应体，其他JSON（如网关或框架的错误体）原样交给调用方
+ *
+ * <pre>
+ * WebClient client = WebClient.builder()
+ *         .filter(ReactiveResponseExchangeFilter.unwrapping())
+ *         .build();
+ * Flux&lt;User&gt; users = client.get().uri("/users").retrieve().bodyToFlux(User.class);
+ * </pre>
+ */
+public class ReactiveResponseExchangeFilter implements ExchangeFilterFunction {
+
+    private final ReactiveResponseEnvelopeDecoder decoder;
+
+    public ReactiveResponseExchangeFilter() {
+        this(new ReactiveResponseEnvelopeDecoder());
+    }
+
+    public ReactiveResponseExchangeFilter(ReactiveResponseEnvelopeDecoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * 创建信封解包过滤器
+     *
+     * @return 过滤器
+     */
+    public static ReactiveResponseExchangeFilter unwrapping() {
+        return new ReactiveResponseExchangeFilter();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request).map(response -> {
+            MediaType contentType = response.headers().contentType().orElse(null);
+            if (contentType == null || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+                return response;
+            }
+            return response.mutate()
+                    .body(decoder::decodeDataIfEnvelope)
+                    .build();
+        });
+    }
+}
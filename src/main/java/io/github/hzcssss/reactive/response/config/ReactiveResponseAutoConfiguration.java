@@ -1,19 +1,46 @@
 package io.github.hzcssss.reactive.response.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.exception.FailureLogger;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
 import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.AdaptiveConcurrencyLimiter;
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import io.github.hzcssss.reactive.response.web.ConcurrencyLimitWebFilter;
+import io.github.hzcssss.reactive.response.web.ReactiveResponseEncoder;
+import io.github.hzcssss.reactive.response.web.ReactiveResponseWebExceptionHandler;
+import io.github.hzcssss.reactive.response.web.SpanEndpoint;
+import io.github.hzcssss.reactive.response.web.SpanTimingWebFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.boot.web.codec.CodecCustomizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
 
 /**
  * Spring Boot自动配置类
  * 用于自动注册SpringReactiveResponseBuilder服务
+ * 不做包扫描，Bean方法不经过CGLIB代理，减少应用启动开销并便于构建原生镜像
  */
-@Configuration
 @AutoConfiguration
-@ComponentScan("io.github.hzcssss.reactive.response")
+@ConditionalOnClass(Mono.class)
 public class ReactiveResponseAutoConfiguration {
 
 
@@ -23,7 +50,188 @@ public class ReactiveResponseAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public SpringReactiveResponseBuilder springReactiveResponseBuilder() {
-        return new SpringReactiveResponseBuilder();
+    public SpringReactiveResponseBuilder springReactiveResponseBuilder(ExceptionMappingRegistry exceptionMappingRegistry,
+                                                                       ObjectProvider<SpanRecorder> spanRecorder) {
+        return new SpringReactiveResponseBuilder(exceptionMappingRegistry, spanRecorder.getIfAvailable());
+    }
+
+    /**
+     * 注册异常映射注册表
+     * 应用可以注入后注册自定义异常映射，或自行声明该Bean覆盖默认配置
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionMappingRegistry exceptionMappingRegistry(ObjectProvider<FailureLogger> failureLogger) {
+        return new ExceptionMappingRegistry(SpringReactiveResponseBuilder.DEFAULT_ERROR_MAPPING)
+                .failureLogger(failureLogger.getIfAvailable());
+    }
+
+    /**
+     * 注册失败日志，包装的失败按(错误码, 异常类型)采样后由后台线程写出
+     * 设置reactive.response.failure-log.enabled=true后启用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "reactive.response.failure-log", name = "enabled", havingValue = "true")
+    public FailureLogger failureLogger() {
+        return new FailureLogger();
+    }
+
+    /**
+     * 注册耗时记录器，构建器设置span(label)后记录该次包装的耗时
+     * 设置reactive.response.spans.enabled=true后启用
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "reactive.response.spans", name = "enabled", havingValue = "true")
+    public SpanRecorder spanRecorder() {
+        return new SpanRecorder();
+    }
+
+    /**
+     * Jackson集成配置
+     * 类路径存在Jackson时注册ReactiveResponseModule，Spring Boot会把它加入ObjectMapper
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ObjectMapper.class)
+    static class JacksonConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveResponseModule reactiveResponseModule() {
+            return new ReactiveResponseModule();
+        }
+    }
+
+    /**
+     * 并发限制配置
+     * 应用声明AdaptiveConcurrencyLimiter Bean并设置reactive.response.concurrency-limit.filter.enabled=true后，
+     * 在响应式Web应用中注册全局的并发限制过滤器。只需限制部分接口时不开启过滤器，改用构建器的limit(limiter)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ObjectMapper.class, WebFilter.class})
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(prefix = "reactive.response.concurrency-limit.filter", name = "enabled",
+            havingValue = "true")
+    static class ConcurrencyLimitConfiguration {
+
+        @Bean
+        @ConditionalOnBean(AdaptiveConcurrencyLimiter.class)
+        @ConditionalOnMissingBean
+        public ConcurrencyLimitWebFilter concurrencyLimitWebFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                   ObjectProvider<ObjectMapper> objectMapper) {
+            ObjectMapper mapper = objectMapper.getIfAvailable(
+                    () -> new ObjectMapper().registerModule(new ReactiveResponseModule()));
+            return new ConcurrencyLimitWebFilter(limiter, mapper);
+        }
+    }
+
+    /**
+     * 全局异常处理配置
+     * 设置reactive.response.error-handler.enabled=true后，处理链中未被包装的异常转换为失败响应，
+     * HTTP状态码取自ExceptionMappingRegistry中的映射
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ObjectMapper.class, WebFilter.class})
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(prefix = "reactive.response.error-handler", name = "enabled", havingValue = "true")
+    static class ErrorHandlerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveResponseWebExceptionHandler reactiveResponseWebExceptionHandler(
+                ObjectProvider<ObjectMapper> objectMapper, ExceptionMappingRegistry exceptionMappingRegistry) {
+            ObjectMapper mapper = objectMapper.getIfAvailable(
+                    () -> new ObjectMapper().registerModule(new ReactiveResponseModule()));
+            return new ReactiveResponseWebExceptionHandler(mapper, exceptionMappingRegistry);
+        }
+    }
+
+    /**
+     * 预编码响应头部的编码器配置
+     * 设置reactive.response.codec.pre-encoded=true后启用，ReactiveResponse由ReactiveResponseEncoder编码，
+     * 其余类型仍由默认的Jackson编码器处理
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ObjectMapper.class, CodecCustomizer.class})
+    @ConditionalOnProperty(prefix = "reactive.response.codec", name = "pre-encoded", havingValue = "true")
+    static class PreEncodedCodecConfiguration {
+
+        @Bean
+        public CodecCustomizer reactiveResponseCodecCustomizer(ObjectProvider<ObjectMapper> objectMapper) {
+            return configurer -> {
+                ObjectMapper mapper = objectMapper.getIfAvailable(
+                        () -> new ObjectMapper().registerModule(new ReactiveResponseModule()));
+                configurer.customCodecs().registerWithDefaultConfig(
+                        new EncoderHttpMessageWriter<>(new ReactiveResponseEncoder(mapper)));
+            };
+        }
+    }
+
+    /**
+     * 耗时记录的Web配置
+     * 注册补充序列化写出耗时的过滤器；没有Actuator时，设置reactive.response.spans.path后以该路径提供耗时报告
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(WebFilter.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnProperty(prefix = "reactive.response.spans", name = "enabled", havingValue = "true")
+    static class SpanWebConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SpanTimingWebFilter spanTimingWebFilter() {
+            return new SpanTimingWebFilter();
+        }
+
+        @Bean
+        @ConditionalOnMissingClass("org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+        @ConditionalOnProperty(prefix = "reactive.response.spans", name = "path")
+        public RouterFunction<ServerResponse> spanRouterFunction(SpanRecorder spanRecorder,
+                                                                 @Value("${reactive.response.spans.path}") String path) {
+            return RouterFunctions.route(RequestPredicates.GET(path), request -> ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(spanRecorder.report(SpanEndpoint.SLOWEST)));
+        }
+    }
+
+    /**
+     * 耗时记录的Actuator端点配置
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(prefix = "reactive.response.spans", name = "enabled", havingValue = "true")
+    static class SpanEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SpanEndpoint spanEndpoint(SpanRecorder spanRecorder) {
+            return new SpanEndpoint(spanRecorder);
+        }
+    }
+
+    /**
+     * 启动预热配置
+     * 设置reactive.response.warm-up.enabled=true后启用，在应用就绪前预热包装路径和响应序列化；
+     * iterations和max-duration控制预热量，先达到者结束
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(ObjectMapper.class)
+    @ConditionalOnProperty(prefix = "reactive.response.warm-up", name = "enabled", havingValue = "true")
+    static class WarmUpConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public ReactiveResponseWarmUpRunner reactiveResponseWarmUpRunner(
+                ObjectProvider<ObjectMapper> objectMapper,
+                @Value("${reactive.response.codec.pre-encoded:false}") boolean preEncoded,
+                @Value("${reactive.response.warm-up.iterations:" + ReactiveResponseWarmUpRunner.DEFAULT_ITERATIONS
+                        + "}") int iterations,
+                @Value("${reactive.response.warm-up.max-duration:10s}") String maxDuration) {
+            ObjectMapper mapper = objectMapper.getIfAvailable(
+                    () -> new ObjectMapper().registerModule(new ReactiveResponseModule()));
+            return new ReactiveResponseWarmUpRunner(mapper, preEncoded, iterations,
+                    DurationStyle.detectAndParse(maxDuration));
+        }
     }
 }
@@ -0,0 +1,222 @@
+package io.github.hzcssss.reactive.response.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.DeltaSnapshots;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
+import io.github.hzcssss.reactive.response.web.ReactiveResponseEncoder;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 启动预热
+ * 在应用就绪前反复用合成的成功、失败响应执行各个包装路径并按配置的编码方式序列化，
+ * 标量源和非标量源都会经过，使这些代码在接收流量前完成JIT编译。达到迭代次数或最长时间后结束，并记录实际耗时。
+ * 失败响应只由使用独立异常映射注册表的构建器生成，ReactiveResponseUtil和静态构建器只处理成功的输入，
+ * 因此即使全局注册表开启了失败日志，预热也不会写入失败日志或耗时记录
+ */
+public class ReactiveResponseWarmUpRunner implements ApplicationRunner {
+
+    /**
+     * 默认迭代次数，足以让热点方法达到C2编译阈值
+     */
+    public static final int DEFAULT_ITERATIONS = 20_000;
+
+    /**
+     * 默认最长时间
+     */
+    public static final Duration DEFAULT_MAX_DURATION = Duration.ofSeconds(10);
+
+    private static final Logger log = Loggers.getLogger(ReactiveResponseWarmUpRunner.class);
+
+    private static final BusinessException BUSINESS_FAILURE = new BusinessException(
+            ResponseCode.FAILURE.getErrorCode(), "warm-up");
+    private static final IllegalStateException UNEXPECTED_FAILURE = new IllegalStateException("warm-up");
+    private static final Comparator<Item> BY_ID = Comparator.comparingLong(Item::getId);
+
+    private final ObjectMapper objectMapper;
+    private final ReactiveResponseEncoder encoder;
+    private final int iterations;
+    private final long maxDurationNanos;
+    private final SpringReactiveResponseBuilder builder = new SpringReactiveResponseBuilder(
+            new ExceptionMappingRegistry(SpringReactiveResponseBuilder.DEFAULT_ERROR_MAPPING));
+    private final DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+    private final DeltaSnapshots<Item, Long> snapshots = new DeltaSnapshots<>(Item::getId, 16,
+            DeltaSnapshots.DEFAULT_MAX_ITEMS);
+
+    /**
+     * 上一次增量响应的版本号，使下一次迭代走增量比较路径
+     */
+    private String deltaVersion;
+
+    /**
+     * 防止序列化结果被当作无用代码消除
+     */
+    private long written;
+
+    private volatile int completedIterations;
+    private volatile Duration elapsed = Duration.ZERO;
+
+    /**
+     * 构造函数
+     *
+     * @param objectMapper 序列化响应使用的ObjectMapper
+     * @param preEncoded   是否同时预热ReactiveResponseEncoder
+     * @param iterations   迭代次数
+     * @param maxDuration  最长时间
+     */
+    public ReactiveResponseWarmUpRunner(ObjectMapper objectMapper, boolean preEncoded, int iterations,
+                                        Duration maxDuration) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("iterations must not be negative: " + iterations);
+        }
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.encoder = preEncoded ? new ReactiveResponseEncoder(objectMapper) : null;
+        this.iterations = iterations;
+        this.maxDurationNanos = maxDuration.toNanos();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int completed = 0;
+        try {
+            while (completed < iterations && System.nanoTime() - start - maxDurationNanos < 0) {
+                iteration(completed);
+                completed++;
+            }
+        } catch (Exception e) {
+            // 预热失败不影响启动
+            log.warn("Reactive response warm-up aborted after {} iterations", completed, e);
+        }
+        completedIterations = completed;
+        elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("Reactive response warm-up finished: {} iterations in {} ms", completed, elapsed.toMillis());
+    }
+
+    /**
+     * 获取完成的迭代次数
+     *
+     * @return 迭代次数
+     */
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    /**
+     * 获取预热耗时
+     *
+     * @return 耗时
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    private void iteration(int i) throws IOException {
+        Item item = new Item(i, "item-" + i, i * 0.5);
+        Item next = new Item(i + 1, "item-" + (i + 1), i * 0.25);
+        List<Item> items = Arrays.asList(item, next);
+
+        // 全局注册表可能开启了失败日志，静态路径只使用成功的输入
+        consume(ReactiveResponseUtil.wrapMono(Mono.just(item)).block());
+        consume(ReactiveResponseUtil.wrapMono(Mono.fromCallable(() -> item)).block());
+        consume(ReactiveResponseUtil.wrapFlux(Flux.fromIterable(items)).block());
+        consume(ReactiveResponseUtil.wrapCollect(Flux.fromIterable(items), Collectors.toList()).block());
+        consume(ReactiveResponseUtil.wrapReduce(Flux.fromIterable(items), () -> 0.0,
+                (sum, each) -> sum + each.getAmount()).block());
+        consume(ReactiveResponseUtil.wrapLongs(Flux.just((long) i, i + 1L, i + 2L)).block());
+        consume(ReactiveResponseUtil.wrapLongChunks(Flux.just(new long[]{i, i + 1L}, new long[]{i + 2L})).block());
+        consume(ReactiveResponseUtil.wrapIntChunks(Flux.just(new int[]{i, i + 1}, new int[]{i + 2})).block());
+        consume(ReactiveResponseUtil.wrapDoubleChunks(Flux.just(new double[]{i * 0.5, i * 0.25})).block());
+        consume(ReactiveResponseUtil.wrapBatch(Flux.fromIterable(items), Mono::just, 2).block());
+        consume(ReactiveResponseUtil.wrapFanOut(Flux.fromIterable(items), Mono::just, 2, true).block());
+        consume(ReactiveResponseUtil.wrapMergeSorted(Arrays.asList(Flux.just(item), Flux.just(next)),
+                BY_ID).block());
+        ReactiveResponse<DeltaResult<Item>> delta = ReactiveResponseUtil.wrapDelta(snapshots, "warm-up",
+                deltaVersion, Flux.fromIterable(items)).block();
+        deltaVersion = delta.getData().getVersion();
+        consume(delta);
+
+        consume(ReactiveResponseBuilder.from(Mono.just(item)).build().block());
+        consume(ReactiveResponseBuilder.from(Mono.just(item).hide()).build().block());
+        consume(ReactiveResponseBuilder.from(Flux.fromIterable(items)).build().block());
+
+        // 失败路径只经过使用独立注册表的构建器
+        consume(builder.from(Mono.just(item)).build().block());
+        consume(builder.from(Mono.fromCallable(() -> item)).build().block());
+        consume(builder.from(Flux.fromIterable(items)).fields("id,name").build().block());
+        consume(builder.from(Flux.fromIterable(items)).fields("id,name").buildBatch().block());
+        consume(builder.from(Flux.fromIterable(items).map(each -> {
+            if (each == next) {
+                throw BUSINESS_FAILURE;
+            }
+            return each;
+        })).buildBatch().block());
+        consume(builder.from(Mono.<Item>error(BUSINESS_FAILURE)).build().block());
+        consume(builder.from(Mono.<Item>error(UNEXPECTED_FAILURE).hide()).build().block());
+        consume(builder.from(Flux.<Item>error(UNEXPECTED_FAILURE)).build().block());
+        consume(builder.from(Flux.<Item>error(BUSINESS_FAILURE)).buildCollect(Collectors.toList()).block());
+    }
+
+    private void consume(ReactiveResponse<?> response) throws IOException {
+        written += objectMapper.writeValueAsBytes(response).length;
+        if (encoder != null) {
+            DataBuffer buffer = encoder.encodeValue(response, bufferFactory,
+                    ResolvableType.forInstance(response), MediaType.APPLICATION_JSON, Collections.emptyMap());
+            written += buffer.readableByteCount();
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * 合成的数据对象
+     */
+    static final class Item {
+
+        private final long id;
+        private final String name;
+        private final double amount;
+
+        Item(long id, String name, double amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+    }
+}
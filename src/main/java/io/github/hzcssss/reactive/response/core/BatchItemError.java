@@ -0,0 +1,62 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.io.Serializable;
+
+/**
+ * 批量结果中单个元素的错误信息
+ */
+public class BatchItemError implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务错误码
+     */
+    private int errorCode;
+
+    /**
+     * 错误消息
+     */
+    private String message;
+
+    /**
+     * 构造函数
+     */
+    public BatchItemError() {
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param errorCode 业务错误码
+     * @param message   错误消息
+     */
+    public BatchItemError(int errorCode, String message) {
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(int errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchItemError{" +
+                "errorCode=" + errorCode +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.hzcssss.reactive.response.core;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 部分成功的批量结果
+ * 每个元素有独立的成功状态：失败位置记录在BitSet中，错误信息只为失败元素保存，
+ * 失败元素在items中占位为null。total、failureCount、successCount由items和errors计算，只序列化不反序列化
+ *
+ * @param <T> 元素类型
+ */
+@JsonIgnoreProperties(value = {"total", "failureCount", "successCount"}, allowGetters = true)
+public class BatchResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> items;
+
+    private BitSet failures = new BitSet();
+
+    private TreeMap<Integer, BatchItemError> errors = new TreeMap<>();
+
+    /**
+     * 构造函数
+     */
+    public BatchResult() {
+        this.items = new ArrayList<>();
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param expectedSize 预计元素数量
+     */
+    public BatchResult(int expectedSize) {
+        this.items = new ArrayList<>(expectedSize);
+    }
+
+    /**
+     * 追加成功元素
+     *
+     * @param item 元素
+     */
+    public void addSuccess(T item) {
+        items.add(item);
+    }
+
+    /**
+     * 追加失败元素
+     *
+     * @param errorCode 业务错误码
+     * @param message   错误消息
+     */
+    public void addFailure(int errorCode, String message) {
+        int index = items.size();
+        items.add(null);
+        failures.set(index);
+        errors.put(index, new BatchItemError(errorCode, message));
+    }
+
+    /**
+     * 指定位置的元素是否成功
+     *
+     * @param index 元素位置
+     * @return 是否成功
+     */
+    public boolean isItemSuccess(int index) {
+        if (index < 0 || index >= items.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + items.size());
+        }
+        return !failures.get(index);
+    }
+
+    /**
+     * 获取指定位置元素的错误信息
+     *
+     * @param index 元素位置
+     * @return 错误信息，成功元素返回null
+     */
+    public BatchItemError getItemError(int index) {
+        return errors.get(index);
+    }
+
+    public List<T> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public void setItems(List<T> items) {
+        this.items = new ArrayList<>(items);
+    }
+
+    public Map<Integer, BatchItemError> getErrors() {
+        return Collections.unmodifiableMap(errors);
+    }
+
+    public void setErrors(Map<Integer, BatchItemError> errors) {
+        this.errors = new TreeMap<>(errors);
+        this.failures = new BitSet();
+        for (Integer index : errors.keySet()) {
+            failures.set(index);
+        }
+    }
+
+    public int getTotal() {
+        return items.size();
+    }
+
+    public int getFailureCount() {
+        return failures.cardinality();
+    }
+
+    public int getSuccessCount() {
+        return items.size() - failures.cardinality();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "total=" + getTotal() +
+                ", failureCount=" + getFailureCount() +
+                ", errors=" + errors +
+                '}';
+    }
+}
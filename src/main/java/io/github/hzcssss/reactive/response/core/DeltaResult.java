@@ -0,0 +1,145 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 增量列表结果
+ * 客户端携带上次收到的版本号轮询时，只返回新增、变化的元素和被删除元素的标识；
+ * 服务端没有该版本的快照时返回全量列表。客户端保存version用于下一次请求
+ *
+ * @param <T> 元素类型
+ */
+public class DeltaResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String version;
+
+    private boolean full;
+
+    private List<T> items = Collections.emptyList();
+
+    private List<T> added = Collections.emptyList();
+
+    private List<T> changed = Collections.emptyList();
+
+    private List<Object> removed = Collections.emptyList();
+
+    /**
+     * 构造函数
+     */
+    public DeltaResult() {
+    }
+
+    /**
+     * 创建全量结果
+     *
+     * @param version 新版本号
+     * @param items   全部元素
+     * @param <T>     元素类型
+     * @return 全量结果
+     */
+    public static <T> DeltaResult<T> full(String version, List<T> items) {
+        DeltaResult<T> result = new DeltaResult<>();
+        result.version = version;
+        result.full = true;
+        result.items = Collections.unmodifiableList(items);
+        return result;
+    }
+
+    /**
+     * 创建增量结果
+     *
+     * @param version 新版本号
+     * @param added   新增的元素
+     * @param changed 变化的元素
+     * @param removed 被删除元素的标识
+     * @param <T>     元素类型
+     * @return 增量结果
+     */
+    public static <T> DeltaResult<T> delta(String version, List<T> added, List<T> changed, List<Object> removed) {
+        DeltaResult<T> result = new DeltaResult<>();
+        result.version = version;
+        result.added = Collections.unmodifiableList(added);
+        result.changed = Collections.unmodifiableList(changed);
+        result.removed = Collections.unmodifiableList(removed);
+        return result;
+    }
+
+    /**
+     * 是否需要客户端更新本地数据
+     *
+     * @return 全量结果，或增量结果中有新增、变化或删除时为true
+     */
+    public boolean hasChanges() {
+        return full || !added.isEmpty() || !changed.isEmpty() || !removed.isEmpty();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    /**
+     * 获取全部元素，只在全量结果中有内容
+     *
+     * @return 全部元素
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = new ArrayList<>(items);
+    }
+
+    public List<T> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<T> added) {
+        this.added = new ArrayList<>(added);
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<T> changed) {
+        this.changed = new ArrayList<>(changed);
+    }
+
+    public List<Object> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<Object> removed) {
+        this.removed = new ArrayList<>(removed);
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaResult{" +
+                "version='" + version + '\'' +
+                ", full=" + full +
+                ", items=" + items.size() +
+                ", added=" + added.size() +
+                ", changed=" + changed.size() +
+                ", removed=" + removed.size() +
+                '}';
+    }
+}
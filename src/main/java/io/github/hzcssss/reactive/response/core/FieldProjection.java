@@ -0,0 +1,228 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字段投影
+ * 由逗号分隔的字段路径（如"id,name,address.city"）编译成前缀树，序列化data时只输出树中的字段，
+ * 某个路径本身被选中时其下的所有字段都会输出；不存在的字段忽略。表达式的编译结果有上限地缓存，
+ * 选中字段相同的投影相等，与表达式的写法无关
+ */
+public final class FieldProjection {
+
+    /**
+     * 约定的查询参数名
+     */
+    public static final String QUERY_PARAMETER = "fields";
+
+    /**
+     * 表达式最大长度，表达式通常来自查询参数
+     */
+    public static final int MAX_LENGTH = 1024;
+
+    /**
+     * 路径最大深度
+     */
+    public static final int MAX_DEPTH = 16;
+
+    /**
+     * 缓存的表达式数量上限，达到后清空重新缓存
+     */
+    static final int MAX_CACHED = 1024;
+
+    /**
+     * 选中全部字段的节点
+     */
+    private static final FieldProjection ALL = new FieldProjection(null, null, null);
+
+    /**
+     * 表达式来自查询参数，取值由客户端决定；读取不加锁，达到上限后清空而不是停止缓存
+     */
+    private static final Map<String, FieldProjection> CACHE = new ConcurrentHashMap<>();
+
+    private final String expression;
+
+    /**
+     * 子节点，为null表示选中全部字段
+     */
+    private final Map<String, FieldProjection> children;
+
+    /**
+     * 子节点中没有列出的字段使用的投影，为null表示不输出
+     */
+    private final FieldProjection others;
+
+    private final int hash;
+
+    private FieldProjection(String expression, Map<String, FieldProjection> children, FieldProjection others) {
+        this.expression = expression;
+        this.children = children;
+        this.others = others;
+        this.hash = children == null ? 0 : 31 * children.hashCode() + Objects.hashCode(others);
+    }
+
+    /**
+     * 解析投影表达式
+     *
+     * @param expression 逗号分隔的字段路径，路径各级以点分隔
+     * @return 字段投影，表达式为null或不含任何路径时返回null表示不投影
+     * @throws IllegalArgumentException 表达式过长、路径过深或含有空的路径段
+     */
+    public static FieldProjection parse(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+        FieldProjection projection = CACHE.get(expression);
+        if (projection != null) {
+            return projection;
+        }
+        projection = compile(expression);
+        if (projection != null) {
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            FieldProjection existing = CACHE.putIfAbsent(expression, projection);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * 是否选中当前节点下的全部字段
+     *
+     * @return 是否选中全部字段
+     */
+    public boolean includesAll() {
+        return children == null;
+    }
+
+    /**
+     * 获取字段对应的子投影
+     *
+     * @param field 字段名
+     * @return 子投影，字段未被选中时返回null
+     */
+    public FieldProjection child(String field) {
+        return children == null ? ALL : children.getOrDefault(field, others);
+    }
+
+    /**
+     * 把投影下推到外层对象的字段上：列出的字段按当前投影过滤，外层对象的其余字段全部输出。
+     * 用于data是批量、增量等结果对象而投影针对其中元素的情况
+     *
+     * @param fields 包含元素的字段名，如"items"
+     * @return 作用于外层对象的投影
+     */
+    public FieldProjection within(String... fields) {
+        Map<String, FieldProjection> nested = new LinkedHashMap<>();
+        for (String field : fields) {
+            nested.put(field, this);
+        }
+        return new FieldProjection(null, Collections.unmodifiableMap(nested), ALL);
+    }
+
+    /**
+     * 获取当前节点选中的字段名，选中全部字段时为空集合
+     *
+     * @return 字段名
+     */
+    public Set<String> fields() {
+        return children == null ? Collections.emptySet() : children.keySet();
+    }
+
+    /**
+     * 为响应附加投影，序列化时只输出data中选中的字段
+     *
+     * @param response 响应
+     * @param <T>      数据类型
+     * @return 附加了投影的响应
+     */
+    public <T> ReactiveResponse<T> apply(ReactiveResponse<T> response) {
+        return new ProjectedReactiveResponse<>(response, this);
+    }
+
+    private static FieldProjection compile(String expression) {
+        if (expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("fields expression too long: " + expression.length());
+        }
+        Node root = new Node();
+        for (String path : expression.split(",")) {
+            path = path.trim();
+            if (path.isEmpty()) {
+                continue;
+            }
+            String[] segments = path.split("\\.", -1);
+            if (segments.length > MAX_DEPTH) {
+                throw new IllegalArgumentException("fields path too deep: " + path);
+            }
+            Node node = root;
+            for (String segment : segments) {
+                if (segment.isEmpty()) {
+                    throw new IllegalArgumentException("empty segment in fields path: " + path);
+                }
+                if (node.all) {
+                    break;
+                }
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            // 路径本身被选中，其下的更长路径不再需要
+            node.all = true;
+            node.children.clear();
+        }
+        return root.children.isEmpty() ? null : root.freeze(expression);
+    }
+
+    /**
+     * 按选中的字段比较，不比较表达式
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FieldProjection)) {
+            return false;
+        }
+        FieldProjection other = (FieldProjection) o;
+        return hash == other.hash && Objects.equals(children, other.children)
+                && Objects.equals(others, other.others);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        if (expression != null) {
+            return expression;
+        }
+        return children == null ? "*" : children.keySet().toString();
+    }
+
+    /**
+     * 编译时使用的可变节点
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private boolean all;
+
+        private FieldProjection freeze(String expression) {
+            if (all) {
+                return ALL;
+            }
+            Map<String, FieldProjection> frozen = new LinkedHashMap<>();
+            children.forEach((name, child) -> frozen.put(name, child.freeze(null)));
+            return new FieldProjection(expression, Collections.unmodifiableMap(frozen), null);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.hzcssss.reactive.response.core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+
+import java.io.Serializable;
+
+/**
+ * 不可修改的响应值
+ * 全部字段为final，由构造函数一次写入，实例可以跨线程共享和缓存（如缓存固定的失败响应）。
+ * 与ReactiveResponse序列化为相同的JSON。直接使用本类的success/failure工厂方法或构建器的buildImmutable()创建，
+ * 不经过可修改的中间对象；ReactiveResponse的工厂方法为兼容仍返回可修改的实例
+ *
+ * @param <T> 响应数据类型
+ */
+@JsonPropertyOrder({"errorCode", "message", "success", "timestamp", "data"})
+public final class ImmutableReactiveResponse<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int errorCode;
+    private final String message;
+    private final boolean success;
+    private final long timestamp;
+    private final T data;
+
+    /**
+     * 构造函数
+     *
+     * @param errorCode 业务错误码
+     * @param message   响应消息
+     * @param success   是否成功
+     * @param timestamp 时间戳
+     * @param data      响应数据
+     */
+    @JsonCreator
+    public ImmutableReactiveResponse(@JsonProperty("errorCode") int errorCode,
+                                     @JsonProperty("message") String message,
+                                     @JsonProperty("success") boolean success,
+                                     @JsonProperty("timestamp") long timestamp,
+                                     @JsonProperty("data") T data) {
+        this.errorCode = errorCode;
+        this.message = message;
+        this.success = success;
+        this.timestamp = timestamp;
+        this.data = data;
+    }
+
+    /**
+     * 创建成功响应
+     *
+     * @param <T> 数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> success() {
+        return success(null);
+    }
+
+    /**
+     * 创建成功响应
+     *
+     * @param data 响应数据
+     * @param <T>  数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> success(T data) {
+        return success(ResponseCode.SUCCESS.getErrorCode(), ResponseCode.SUCCESS.getMessage(), data);
+    }
+
+    /**
+     * 创建成功响应
+     *
+     * @param errorCode 业务错误码
+     * @param message   响应消息
+     * @param data      响应数据
+     * @param <T>       数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> success(int errorCode, String message, T data) {
+        return new ImmutableReactiveResponse<>(errorCode, message, true, System.currentTimeMillis(), data);
+    }
+
+    /**
+     * 创建失败响应
+     *
+     * @param <T> 数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> failure() {
+        return failure(ResponseCode.FAILURE.getErrorCode(), ResponseCode.FAILURE.getMessage());
+    }
+
+    /**
+     * 创建失败响应
+     *
+     * @param errorCode 业务错误码
+     * @param message   响应消息
+     * @param <T>       数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> failure(int errorCode, String message) {
+        return new ImmutableReactiveResponse<>(errorCode, message, false, System.currentTimeMillis(), null);
+    }
+
+    /**
+     * 从业务异常创建失败响应
+     *
+     * @param e   业务异常
+     * @param <T> 数据类型
+     * @return 响应对象
+     */
+    public static <T> ImmutableReactiveResponse<T> failure(BusinessException e) {
+        return failure(e.getErrorCode(), e.getMessage());
+    }
+
+    /**
+     * 复制响应的当前字段
+     *
+     * @param response 响应
+     * @param <T>      数据类型
+     * @return 不可修改的响应
+     */
+    public static <T> ImmutableReactiveResponse<T> of(ReactiveResponse<T> response) {
+        return new ImmutableReactiveResponse<>(response.getErrorCode(), response.getMessage(), response.isSuccess(),
+                response.getTimestamp(), response.getData());
+    }
+
+    /**
+     * 转换为可修改的响应
+     *
+     * @return 新的ReactiveResponse
+     */
+    public ReactiveResponse<T> toResponse() {
+        return new ReactiveResponse<>(errorCode, message, success, timestamp, data);
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableReactiveResponse{" +
+                "errorCode=" + errorCode +
+                ", message='" + message + '\'' +
+                ", data=" + data +
+                ", success=" + success +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 可增长的int数组
+ * 数值序列直接存为基本类型，作为响应数据时逐个写出数字，不对每个元素装箱
+ */
+public final class IntArray implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+
+    private int size;
+
+    /**
+     * 构造函数
+     */
+    public IntArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param initialCapacity 初始容量
+     */
+    public IntArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        this.elements = new int[initialCapacity];
+    }
+
+    private IntArray(int[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * 包装已有数组，不复制
+     *
+     * @param values 数值
+     * @return 数组
+     */
+    public static IntArray of(int... values) {
+        return new IntArray(values, values.length);
+    }
+
+    /**
+     * 追加数值
+     *
+     * @param value 数值
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * 追加一批数值
+     *
+     * @param values 数值
+     */
+    public void addAll(int[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * 追加一批数值
+     *
+     * @param values 数值
+     * @param offset 起始位置
+     * @param length 数量
+     */
+    public void addAll(int[] values, int offset, int length) {
+        if (size + length > elements.length) {
+            grow(size + length);
+        }
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+    }
+
+    /**
+     * 追加另一个数组的全部数值
+     *
+     * @param other 另一个数组
+     * @return 当前数组
+     */
+    public IntArray addAll(IntArray other) {
+        addAll(other.elements, 0, other.size);
+        return this;
+    }
+
+    /**
+     * 获取数值
+     *
+     * @param index 位置
+     * @return 数值
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elements[index];
+    }
+
+    /**
+     * 获取数量
+     *
+     * @return 数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 是否为空
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取内部数组，前size个元素有效，仅供只读访问
+     *
+     * @return 内部数组
+     */
+    public int[] array() {
+        return elements;
+    }
+
+    /**
+     * 复制为新数组
+     *
+     * @return 数组副本
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length + (elements.length >> 1) + 1);
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntArray)) {
+            return false;
+        }
+        IntArray other = (IntArray) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Integer.hashCode(elements[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
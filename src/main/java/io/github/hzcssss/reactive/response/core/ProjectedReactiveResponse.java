@@ -0,0 +1,38 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.util.Objects;
+
+/**
+ * 附加了字段投影的响应
+ * 注册ReactiveResponseModule的ObjectMapper（及ReactiveResponseEncoder）序列化data时只输出投影选中的字段，
+ * 不复制data对象；未注册模块时按普通响应输出全部字段。与其他响应一样可以修改，投影作用于序列化时的data
+ *
+ * @param <T> 响应数据类型
+ */
+public final class ProjectedReactiveResponse<T> extends ReactiveResponse<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient FieldProjection projection;
+
+    /**
+     * 构造函数
+     *
+     * @param response   原始响应
+     * @param projection 字段投影
+     */
+    public ProjectedReactiveResponse(ReactiveResponse<T> response, FieldProjection projection) {
+        super(response.getErrorCode(), response.getMessage(), response.isSuccess(), response.getTimestamp(),
+                response.getData());
+        this.projection = Objects.requireNonNull(projection, "projection");
+    }
+
+    /**
+     * 获取字段投影，不作为JSON属性输出
+     *
+     * @return 字段投影，Java反序列化后为null
+     */
+    public FieldProjection projection() {
+        return projection;
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * 预序列化的JSON数据
+ * 作为响应数据时，序列化器直接把字节写入data字段，不再解析和重新编码
+ * 包装时不复制字节，调用方需保证内容是合法的UTF-8 JSON且之后不再修改
+ */
+public final class RawJson {
+
+    private final ByteBuffer buffer;
+
+    private RawJson(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * 包装JSON字节
+     *
+     * @param bytes UTF-8编码的JSON
+     * @return 原始JSON
+     */
+    public static RawJson of(byte[] bytes) {
+        return new RawJson(ByteBuffer.wrap(Objects.requireNonNull(bytes, "bytes")));
+    }
+
+    /**
+     * 包装JSON字节片段
+     *
+     * @param bytes  UTF-8编码的JSON
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 原始JSON
+     */
+    public static RawJson of(byte[] bytes, int offset, int length) {
+        return new RawJson(ByteBuffer.wrap(Objects.requireNonNull(bytes, "bytes"), offset, length).slice());
+    }
+
+    /**
+     * 包装JSON字节缓冲区，读取position到limit之间的内容
+     * Spring的DataBuffer可以通过asByteBuffer()得到不复制的视图
+     *
+     * @param buffer UTF-8编码的JSON
+     * @return 原始JSON
+     */
+    public static RawJson of(ByteBuffer buffer) {
+        return new RawJson(Objects.requireNonNull(buffer, "buffer").slice());
+    }
+
+    /**
+     * 包装JSON字符串
+     *
+     * @param json JSON字符串
+     * @return 原始JSON
+     */
+    public static RawJson of(String json) {
+        return of(Objects.requireNonNull(json, "json").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取字节长度
+     *
+     * @return 字节长度
+     */
+    public int length() {
+        return buffer.remaining();
+    }
+
+    /**
+     * 是否由堆内数组支撑，此时可以不复制地访问字节
+     *
+     * @return 是否由数组支撑
+     */
+    public boolean hasArray() {
+        return buffer.hasArray();
+    }
+
+    /**
+     * 获取支撑数组，仅在hasArray()为true时可用
+     *
+     * @return 支撑数组
+     */
+    public byte[] array() {
+        return buffer.array();
+    }
+
+    /**
+     * 获取内容在支撑数组中的起始位置，仅在hasArray()为true时可用
+     *
+     * @return 起始位置
+     */
+    public int arrayOffset() {
+        return buffer.arrayOffset() + buffer.position();
+    }
+
+    /**
+     * 获取只读视图
+     *
+     * @return 只读缓冲区
+     */
+    public ByteBuffer asByteBuffer() {
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * 复制内容到指定数组
+     *
+     * @param target 目标数组
+     * @param offset 目标起始位置
+     */
+    public void copyTo(byte[] target, int offset) {
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), arrayOffset(), target, offset, length());
+        } else {
+            buffer.duplicate().get(target, offset, length());
+        }
+    }
+
+    /**
+     * 复制内容为新数组
+     *
+     * @return 字节数组
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[length()];
+        copyTo(bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * 写入输出流
+     *
+     * @param out 输出流
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), arrayOffset(), length());
+        } else {
+            out.write(toByteArray());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RawJson)) {
+            return false;
+        }
+        return buffer.equals(((RawJson) o).buffer);
+    }
+
+    @Override
+    public int hashCode() {
+        return buffer.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), arrayOffset(), length(), StandardCharsets.UTF_8);
+        }
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+}
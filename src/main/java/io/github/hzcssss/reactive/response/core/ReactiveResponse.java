@@ -1,14 +1,17 @@
 package io.github.hzcssss.reactive.response.core;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
 
 import java.io.Serializable;
 
 /**
  * 响应式编程场景下的通用响应包装类
+ * 需要跨线程共享或缓存时，用{@link #toImmutable()}得到字段为final的{@link ImmutableReactiveResponse}
  *
  * @param <T> 响应数据类型
  */
+@JsonPropertyOrder({"errorCode", "message", "success", "timestamp", "data"})
 public class ReactiveResponse<T> implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -23,11 +26,6 @@ public class ReactiveResponse<T> implements Serializable {
      */
     private String message;
 
-    /**
-     * 响应数据
-     */
-    private T data;
-
     /**
      * 是否成功
      */
@@ -38,6 +36,12 @@ public class ReactiveResponse<T> implements Serializable {
      */
     private long timestamp;
 
+    /**
+     * 响应数据
+     * 由类上的@JsonPropertyOrder固定在最后序列化，客户端可以在读取数据之前得知响应是否成功
+     */
+    private T data;
+
     /**
      * 构造函数
      */
@@ -46,6 +50,23 @@ public class ReactiveResponse<T> implements Serializable {
         this.timestamp = System.currentTimeMillis();
     }
 
+    /**
+     * 一次写入全部字段，供工厂方法、构建器和子类使用
+     *
+     * @param errorCode 业务错误码
+     * @param message   响应消息
+     * @param success   是否成功
+     * @param timestamp 时间戳
+     * @param data      响应数据
+     */
+    public ReactiveResponse(int errorCode, String message, boolean success, long timestamp, T data) {
+        this.errorCode = errorCode;
+        this.message = message;
+        this.success = success;
+        this.timestamp = timestamp;
+        this.data = data;
+    }
+
     /**
      * 创建成功响应
      *
@@ -89,12 +110,7 @@ public class ReactiveResponse<T> implements Serializable {
      * @return 响应对象
      */
     public static <T> ReactiveResponse<T> success(int errorCode, String message, T data) {
-        ReactiveResponse<T> response = new ReactiveResponse<>();
-        response.setErrorCode(errorCode);
-        response.setMessage(message);
-        response.setData(data);
-        response.setSuccess(true);
-        return response;
+        return new ReactiveResponse<>(errorCode, message, true, System.currentTimeMillis(), data);
     }
 
     /**
@@ -127,12 +143,7 @@ public class ReactiveResponse<T> implements Serializable {
      * @return 响应对象
      */
     public static <T> ReactiveResponse<T> failure(int errorCode, String message) {
-        ReactiveResponse<T> response = new ReactiveResponse<>();
-        response.setErrorCode(errorCode);
-        response.setMessage(message);
-        response.setData(null);
-        response.setSuccess(false);
-        return response;
+        return new ReactiveResponse<>(errorCode, message, false, System.currentTimeMillis(), null);
     }
 
     /**
@@ -157,6 +168,15 @@ public class ReactiveResponse<T> implements Serializable {
         return failure(ResponseCode.ERROR.getErrorCode(), e.getMessage());
     }
 
+    /**
+     * 复制当前字段为不可修改的响应，之后对本实例的修改不影响副本
+     *
+     * @return 不可修改的响应
+     */
+    public ImmutableReactiveResponse<T> toImmutable() {
+        return ImmutableReactiveResponse.of(this);
+    }
+
     public int getErrorCode() {
         return errorCode;
     }
@@ -30,6 +30,11 @@ public enum ResponseCode {
      */
     NOT_FOUND(1004, "资源不存在"),
 
+    /**
+     * 服务过载
+     */
+    OVERLOADED(1005, "服务繁忙，请稍后重试"),
+
     /**
      * 服务器错误
      */
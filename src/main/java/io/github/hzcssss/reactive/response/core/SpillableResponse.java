@@ -0,0 +1,152 @@
+package io.github.hzcssss.reactive.response.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 可能溢出到磁盘的列表响应
+ * 元素较少时持有内存中的响应对象；超过阈值时完整的响应JSON保存在临时文件的指定区间，
+ * 发送后必须调用close删除临时文件
+ *
+ * @param <T> 元素类型
+ */
+public final class SpillableResponse<T> implements Closeable {
+
+    private final ReactiveResponse<List<T>> response;
+    private final Path file;
+    private final long position;
+    private final long count;
+
+    private SpillableResponse(ReactiveResponse<List<T>> response, Path file, long position, long count) {
+        this.response = response;
+        this.file = file;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * 内存中的响应
+     *
+     * @param response 响应对象
+     * @param <T>      元素类型
+     * @return 响应
+     */
+    public static <T> SpillableResponse<T> inMemory(ReactiveResponse<List<T>> response) {
+        return new SpillableResponse<>(Objects.requireNonNull(response, "response"), null, 0, 0);
+    }
+
+    /**
+     * 已溢出到文件的响应
+     *
+     * @param file     临时文件
+     * @param position 响应JSON在文件中的起始位置
+     * @param count    响应JSON的字节数
+     * @param <T>      元素类型
+     * @return 响应
+     */
+    public static <T> SpillableResponse<T> spilled(Path file, long position, long count) {
+        return new SpillableResponse<>(null, Objects.requireNonNull(file, "file"), position, count);
+    }
+
+    /**
+     * 是否已溢出到文件
+     *
+     * @return 是否已溢出
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * 获取内存中的响应
+     *
+     * @return 响应对象，已溢出时为null
+     */
+    public ReactiveResponse<List<T>> getResponse() {
+        return response;
+    }
+
+    /**
+     * 获取临时文件
+     *
+     * @return 临时文件，未溢出时为null
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 获取响应JSON在文件中的起始位置
+     *
+     * @return 起始位置
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * 获取响应JSON的字节数
+     *
+     * @return 字节数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 把溢出文件中的响应JSON传输到通道，使用FileChannel.transferTo，
+     * 操作系统支持时不经过用户态缓冲区
+     *
+     * @param target 目标通道
+     * @throws IOException 读写失败
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("Response is not spilled");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long offset = position;
+            long end = position + count;
+            while (offset < end) {
+                offset += channel.transferTo(offset, end - offset, target);
+            }
+        }
+    }
+
+    /**
+     * 删除临时文件
+     *
+     * @throws IOException 删除失败
+     */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * 删除临时文件并忽略失败，用于取消或丢弃响应时的清理
+     */
+    public void discard() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // 临时目录中的残留文件由系统清理
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file == null
+                ? "SpillableResponse{response=" + response + '}'
+                : "SpillableResponse{file=" + file + ", position=" + position + ", count=" + count + '}';
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.hzcssss.reactive.response.exception;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+
+/**
+ * 异常到响应的映射规则
+ * 固定消息的规则不会调用异常的getMessage()，也不做字符串拼接
+ */
+public final class ExceptionMapping {
+
+    private enum Kind {
+        FIXED_MESSAGE,
+        EXCEPTION_MESSAGE,
+        BUSINESS_EXCEPTION
+    }
+
+    private final Kind kind;
+    private final int errorCode;
+    private final String message;
+    private final int httpStatus;
+
+    private ExceptionMapping(Kind kind, int errorCode, String message, int httpStatus) {
+        this.kind = kind;
+        this.errorCode = errorCode;
+        this.message = message;
+        this.httpStatus = httpStatus;
+    }
+
+    /**
+     * 使用固定错误码和固定消息
+     *
+     * @param errorCode  错误码
+     * @param message    消息
+     * @param httpStatus HTTP状态码
+     * @return 映射规则
+     */
+    public static ExceptionMapping of(int errorCode, String message, int httpStatus) {
+        return new ExceptionMapping(Kind.FIXED_MESSAGE, errorCode, message, httpStatus);
+    }
+
+    /**
+     * 使用固定错误码，消息取异常消息
+     *
+     * @param errorCode  错误码
+     * @param httpStatus HTTP状态码
+     * @return 映射规则
+     */
+    public static ExceptionMapping ofExceptionMessage(int errorCode, int httpStatus) {
+        return new ExceptionMapping(Kind.EXCEPTION_MESSAGE, errorCode, null, httpStatus);
+    }
+
+    /**
+     * 使用固定错误码，消息为前缀加异常消息
+     *
+     * @param errorCode  错误码
+     * @param prefix     消息前缀
+     * @param httpStatus HTTP状态码
+     * @return 映射规则
+     */
+    public static ExceptionMapping ofExceptionMessage(int errorCode, String prefix, int httpStatus) {
+        return new ExceptionMapping(Kind.EXCEPTION_MESSAGE, errorCode, prefix, httpStatus);
+    }
+
+    /**
+     * 错误码和消息取自BusinessException
+     *
+     * @param httpStatus HTTP状态码
+     * @return 映射规则
+     */
+    public static ExceptionMapping ofBusinessException(int httpStatus) {
+        return new ExceptionMapping(Kind.BUSINESS_EXCEPTION, 0, null, httpStatus);
+    }
+
+    /**
+     * 解析错误码
+     *
+     * @param e 异常
+     * @return 错误码
+     */
+    public int resolveErrorCode(Throwable e) {
+        if (kind == Kind.BUSINESS_EXCEPTION && e instanceof BusinessException) {
+            return ((BusinessException) e).getErrorCode();
+        }
+        return errorCode;
+    }
+
+    /**
+     * 解析消息
+     *
+     * @param e 异常
+     * @return 消息
+     */
+    public String resolveMessage(Throwable e) {
+        switch (kind) {
+            case FIXED_MESSAGE:
+                return message;
+            case EXCEPTION_MESSAGE:
+                return message == null ? e.getMessage() : message + e.getMessage();
+            default:
+                return e.getMessage();
+        }
+    }
+
+    /**
+     * 创建失败响应
+     *
+     * @param e   异常
+     * @param <T> 数据类型
+     * @return 响应对象
+     */
+    public <T> ReactiveResponse<T> toResponse(Throwable e) {
+        return ReactiveResponse.failure(resolveErrorCode(e), resolveMessage(e));
+    }
+
+    /**
+     * 获取HTTP状态码
+     *
+     * @return HTTP状态码
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "ExceptionMapping{" +
+                "kind=" + kind +
+                ", errorCode=" + errorCode +
+                ", message='" + message + '\'' +
+                ", httpStatus=" + httpStatus +
+                '}';
+    }
+}
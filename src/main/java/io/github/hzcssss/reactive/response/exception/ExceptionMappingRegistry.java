@@ -0,0 +1,178 @@
+package io.github.hzcssss.reactive.response.exception;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 异常映射注册表
+ * 按异常类型（含子类）查找映射规则，查找结果通过ClassValue按类缓存，
+ * 每种异常类型只沿继承链解析一次
+ */
+public class ExceptionMappingRegistry {
+
+    /**
+     * 业务异常的默认映射，错误码和消息取自异常本身
+     */
+    public static final ExceptionMapping BUSINESS_EXCEPTION_MAPPING = ExceptionMapping.ofBusinessException(200);
+
+    /**
+     * 未注册异常的默认映射
+     */
+    public static final ExceptionMapping DEFAULT_FALLBACK_MAPPING =
+            ExceptionMapping.ofExceptionMessage(ResponseCode.ERROR.getErrorCode(), 500);
+
+    private static final ExceptionMappingRegistry DEFAULT = new ExceptionMappingRegistry()
+            .failureLogger(Boolean.getBoolean(FailureLogger.ENABLED_PROPERTY) ? new FailureLogger() : null);
+
+    private final Map<Class<?>, ExceptionMapping> mappings = new ConcurrentHashMap<>();
+
+    private volatile ExceptionMapping fallback;
+
+    private volatile ClassValue<ExceptionMapping> cache;
+
+    private volatile FailureLogger failureLogger;
+
+    public ExceptionMappingRegistry() {
+        this(DEFAULT_FALLBACK_MAPPING);
+    }
+
+    public ExceptionMappingRegistry(ExceptionMapping fallback) {
+        this.fallback = Objects.requireNonNull(fallback, "fallback");
+        this.mappings.put(BusinessException.class, BUSINESS_EXCEPTION_MAPPING);
+        this.cache = newCache();
+    }
+
+    /**
+     * 获取静态工具方法使用的全局注册表
+     *
+     * @return 全局注册表
+     */
+    public static ExceptionMappingRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册异常映射，同时作用于该类型的子类
+     *
+     * @param type    异常类型
+     * @param mapping 映射规则
+     * @return 注册表
+     */
+    public ExceptionMappingRegistry register(Class<? extends Throwable> type, ExceptionMapping mapping) {
+        mappings.put(Objects.requireNonNull(type, "type"), Objects.requireNonNull(mapping, "mapping"));
+        cache = newCache();
+        return this;
+    }
+
+    /**
+     * 注册固定错误码和消息的异常映射
+     *
+     * @param type         异常类型
+     * @param responseCode 响应码
+     * @param httpStatus   HTTP状态码
+     * @return 注册表
+     */
+    public ExceptionMappingRegistry register(Class<? extends Throwable> type, ResponseCode responseCode, int httpStatus) {
+        return register(type, ExceptionMapping.of(responseCode.getErrorCode(), responseCode.getMessage(), httpStatus));
+    }
+
+    /**
+     * 设置未注册异常的映射
+     *
+     * @param mapping 映射规则
+     * @return 注册表
+     */
+    public ExceptionMappingRegistry fallback(ExceptionMapping mapping) {
+        this.fallback = Objects.requireNonNull(mapping, "mapping");
+        cache = newCache();
+        return this;
+    }
+
+    /**
+     * 设置失败日志，转换为失败响应的异常会按采样规则异步记录
+     *
+     * @param failureLogger 失败日志，为null时不记录
+     * @return 注册表
+     */
+    public ExceptionMappingRegistry failureLogger(FailureLogger failureLogger) {
+        this.failureLogger = failureLogger;
+        return this;
+    }
+
+    /**
+     * 查找异常类型对应的映射
+     *
+     * @param type 异常类型
+     * @return 映射规则
+     */
+    public ExceptionMapping lookup(Class<? extends Throwable> type) {
+        return cache.get(type);
+    }
+
+    /**
+     * 获取异常对应的HTTP状态码
+     *
+     * @param e 异常
+     * @return HTTP状态码
+     */
+    public int httpStatus(Throwable e) {
+        return lookup(e.getClass()).getHttpStatus();
+    }
+
+    /**
+     * 把异常转换为失败响应
+     *
+     * @param e   异常
+     * @param <T> 数据类型
+     * @return 响应对象
+     */
+    public <T> ReactiveResponse<T> toResponse(Throwable e) {
+        return recordFailure(lookup(e.getClass()).toResponse(e), e);
+    }
+
+    /**
+     * 记录由其他方式（如自定义错误处理器）转换得到的失败响应，与toResponse使用同一个失败日志
+     *
+     * @param response 失败响应
+     * @param e        异常
+     * @param <T>      数据类型
+     * @return 传入的响应
+     */
+    public <T> ReactiveResponse<T> recordFailure(ReactiveResponse<T> response, Throwable e) {
+        recordFailure(response.getErrorCode(), e);
+        return response;
+    }
+
+    /**
+     * 记录一次不产生响应对象的失败（如批量结果中的单个元素）
+     *
+     * @param errorCode 错误码
+     * @param e         异常
+     */
+    public void recordFailure(int errorCode, Throwable e) {
+        FailureLogger logger = failureLogger;
+        if (logger != null) {
+            logger.record(errorCode, e);
+        }
+    }
+
+    private ClassValue<ExceptionMapping> newCache() {
+        ExceptionMapping currentFallback = fallback;
+        return new ClassValue<ExceptionMapping>() {
+            @Override
+            protected ExceptionMapping computeValue(Class<?> type) {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    ExceptionMapping mapping = mappings.get(c);
+                    if (mapping != null) {
+                        return mapping;
+                    }
+                }
+                return currentFallback;
+            }
+        };
+    }
+}
@@ -0,0 +1,396 @@
+package io.github.hzcssss.reactive.response.exception;
+
+import reactor.util.Logger;
+import reactor.util.Loggers;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 失败响应日志
+ * 按(错误码, 异常类型)采样：每个时间窗口内每种失败最多记录若干次，其余只计数，窗口结束时输出汇总。
+ * 业务异常（BusinessException）是预期内的失败，以INFO级别输出，其他异常以WARN级别输出并附带堆栈。
+ * 调用线程只做采样判断并把事件放入无锁环形缓冲区，日志由后台线程写出，事件循环线程不会阻塞在日志I/O上；
+ * 缓冲区满时丢弃事件并计数
+ */
+public final class FailureLogger implements Closeable {
+
+    /**
+     * 全局注册表是否记录失败日志的系统属性，Spring Boot应用使用同名配置项（默认关闭）
+     */
+    public static final String ENABLED_PROPERTY = "reactive.response.failure-log.enabled";
+
+    /**
+     * 默认采样窗口
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+
+    /**
+     * 默认每个窗口内每种失败记录的次数
+     */
+    public static final int DEFAULT_PERMITS_PER_WINDOW = 5;
+
+    /**
+     * 默认缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * 区分的失败种类上限，超过后新的种类共用一个采样桶
+     */
+    static final int MAX_KEYS = 1024;
+
+    /**
+     * 后台线程空闲时的最长休眠时间，用于按时输出汇总
+     */
+    private static final long IDLE_PARK_NANOS = Duration.ofMillis(500).toNanos();
+
+    private final Logger logger;
+    private final long windowNanos;
+    private final int permitsPerWindow;
+    private final RingBuffer<Event> buffer;
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflowBucket = new Bucket(new Key(0, Throwable.class));
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * 已在汇总中输出的丢弃数，只在后台线程中访问
+     */
+    private long reportedDropped;
+
+    private volatile Thread worker;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+
+    public FailureLogger() {
+        this(DEFAULT_WINDOW, DEFAULT_PERMITS_PER_WINDOW, DEFAULT_BUFFER_SIZE);
+    }
+
+    public FailureLogger(Duration window, int permitsPerWindow, int bufferSize) {
+        this(Loggers.getLogger(FailureLogger.class), window, permitsPerWindow, bufferSize);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param logger           日志输出
+     * @param window           采样窗口
+     * @param permitsPerWindow 每个窗口内每种失败记录的次数
+     * @param bufferSize       缓冲区大小，向上取整为2的幂
+     */
+    public FailureLogger(Logger logger, Duration window, int permitsPerWindow, int bufferSize) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        if (permitsPerWindow < 0) {
+            throw new IllegalArgumentException("permitsPerWindow must not be negative: " + permitsPerWindow);
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.logger = Objects.requireNonNull(logger, "logger");
+        this.windowNanos = window.toNanos();
+        this.permitsPerWindow = permitsPerWindow;
+        this.buffer = new RingBuffer<>(bufferSize);
+    }
+
+    /**
+     * 记录一次失败，不阻塞调用线程
+     *
+     * @param errorCode 响应错误码
+     * @param error     异常
+     */
+    public void record(int errorCode, Throwable error) {
+        if (closed) {
+            return;
+        }
+        Bucket bucket = bucket(errorCode, error.getClass());
+        long now = System.nanoTime();
+        if (!bucket.tryAcquire(now, windowNanos, permitsPerWindow)) {
+            bucket.suppressed.increment();
+            return;
+        }
+        if (!buffer.offer(new Event(errorCode, error, Thread.currentThread().getName()))) {
+            dropped.increment();
+            return;
+        }
+        if (started.get()) {
+            if (sleeping) {
+                LockSupport.unpark(worker);
+            }
+        } else {
+            startWorker();
+        }
+    }
+
+    /**
+     * 获取因缓冲区满而丢弃的事件数
+     *
+     * @return 丢弃数
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 停止后台线程，写出缓冲区中剩余的事件和汇总
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread current = worker;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(Duration.ofSeconds(5).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Bucket bucket(int errorCode, Class<?> type) {
+        Key key = new Key(errorCode, type);
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_KEYS) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(key, Bucket::new);
+    }
+
+    private void startWorker() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "reactive-response-failure-log");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    private void run() {
+        long nextReport = System.nanoTime() + windowNanos;
+        while (!closed) {
+            boolean drained = drain();
+            long now = System.nanoTime();
+            if (now - nextReport >= 0) {
+                report();
+                nextReport = now + windowNanos;
+            }
+            if (!drained) {
+                sleeping = true;
+                if (buffer.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, Math.min(IDLE_PARK_NANOS, Math.max(0, nextReport - now)));
+                }
+                sleeping = false;
+            }
+        }
+        drain();
+        report();
+    }
+
+    /**
+     * 写出缓冲区中的全部事件
+     *
+     * @return 是否写出了事件
+     */
+    private boolean drain() {
+        boolean any = false;
+        Event event;
+        while ((event = buffer.poll()) != null) {
+            any = true;
+            write(event);
+        }
+        return any;
+    }
+
+    private void write(Event event) {
+        Throwable error = event.error;
+        if (error instanceof BusinessException) {
+            // 业务异常是预期内的失败，以INFO级别输出且不输出堆栈
+            logger.info("Wrapped failure errorCode={} type={} thread={}: {}",
+                    event.errorCode, error.getClass().getName(), event.thread, error.getMessage());
+        } else {
+            logger.warn("Wrapped failure errorCode=" + event.errorCode + " type=" + error.getClass().getName()
+                    + " thread=" + event.thread, error);
+        }
+    }
+
+    /**
+     * 输出上一个窗口内被采样跳过的失败次数
+     */
+    private void report() {
+        for (Bucket bucket : buckets.values()) {
+            reportSuppressed(bucket);
+        }
+        reportSuppressed(overflowBucket);
+        long total = dropped.sum();
+        long droppedCount = total - reportedDropped;
+        reportedDropped = total;
+        if (droppedCount > 0) {
+            logger.warn("Dropped {} failure log events because the buffer was full", droppedCount);
+        }
+    }
+
+    private void reportSuppressed(Bucket bucket) {
+        long count = bucket.suppressed.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+        String format = "Suppressed {} more failures errorCode={} type={} in the last {} ms";
+        Object[] args = {count, bucket.key.errorCode, bucket.key.type.getName(), windowNanos / 1_000_000};
+        if (BusinessException.class.isAssignableFrom(bucket.key.type)) {
+            logger.info(format, args);
+        } else {
+            logger.warn(format, args);
+        }
+    }
+
+    /**
+     * 失败种类
+     */
+    private static final class Key {
+
+        private final int errorCode;
+        private final Class<?> type;
+
+        private Key(int errorCode, Class<?> type) {
+            this.errorCode = errorCode;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return errorCode == other.errorCode && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * errorCode + type.hashCode();
+        }
+    }
+
+    /**
+     * 单个失败种类的采样状态
+     */
+    private static final class Bucket {
+
+        private final Key key;
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger used = new AtomicInteger();
+        private final LongAdder suppressed = new LongAdder();
+
+        private Bucket(Key key) {
+            this.key = key;
+        }
+
+        private boolean tryAcquire(long now, long windowNanos, int permits) {
+            long start = windowStart.get();
+            if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+                // 新窗口，重置计数；并发下个别请求可能计入相邻窗口，不影响采样效果
+                used.set(0);
+            }
+            return used.get() < permits && used.incrementAndGet() <= permits;
+        }
+    }
+
+    /**
+     * 日志事件
+     */
+    private static final class Event {
+
+        private final int errorCode;
+        private final Throwable error;
+        private final String thread;
+
+        private Event(int errorCode, Throwable error, String thread) {
+            this.errorCode = errorCode;
+            this.error = error;
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * 有界多生产者单消费者环形缓冲区
+     * 每个槽位带序号，生产者通过CAS占用写入位置，不加锁；缓冲区满时offer立即返回false
+     */
+    static final class RingBuffer<E> {
+
+        private final int mask;
+        private final AtomicReferenceArray<E> slots;
+        private final AtomicLongArray sequences;
+        private final AtomicLong producerIndex = new AtomicLong();
+        private volatile long consumerIndex;
+
+        RingBuffer(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+            this.mask = size - 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        boolean offer(E element) {
+            for (;;) {
+                long index = producerIndex.get();
+                int slot = (int) index & mask;
+                long sequence = sequences.get(slot);
+                if (sequence == index) {
+                    if (producerIndex.compareAndSet(index, index + 1)) {
+                        slots.lazySet(slot, element);
+                        // 序号在元素之后发布，消费者看到序号时一定能看到元素
+                        sequences.set(slot, index + 1);
+                        return true;
+                    }
+                } else if (sequence < index) {
+                    // 槽位尚未被消费者释放，缓冲区已满
+                    return false;
+                }
+            }
+        }
+
+        E poll() {
+            long index = consumerIndex;
+            int slot = (int) index & mask;
+            if (sequences.get(slot) != index + 1) {
+                return null;
+            }
+            E element = slots.get(slot);
+            slots.lazySet(slot, null);
+            sequences.set(slot, index + mask + 1);
+            consumerIndex = index + 1;
+            return element;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int) consumerIndex & mask) != consumerIndex + 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
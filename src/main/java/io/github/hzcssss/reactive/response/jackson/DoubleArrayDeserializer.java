@@ -0,0 +1,38 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+
+import java.io.IOException;
+
+/**
+ * DoubleArray反序列化器
+ * 从JSON数字数组逐个读取double值追加到内部数组，不经过装箱对象
+ */
+public class DoubleArrayDeserializer extends StdDeserializer<DoubleArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public DoubleArrayDeserializer() {
+        super(DoubleArray.class);
+    }
+
+    @Override
+    public DoubleArray deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return (DoubleArray) ctxt.handleUnexpectedToken(DoubleArray.class, p);
+        }
+        DoubleArray values = new DoubleArray();
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (!token.isNumeric()) {
+                return ctxt.reportInputMismatch(this, "Expected double element but found %s", token);
+            }
+            values.add(p.getDoubleValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+
+import java.io.IOException;
+
+/**
+ * DoubleArray序列化器
+ * 直接从内部double数组写出数字，不经过装箱对象
+ */
+public class DoubleArraySerializer extends StdSerializer<DoubleArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public DoubleArraySerializer() {
+        super(DoubleArray.class);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, DoubleArray value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(DoubleArray value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeArray(value.array(), 0, value.size());
+    }
+}
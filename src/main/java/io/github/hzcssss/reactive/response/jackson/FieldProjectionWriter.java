@@ -0,0 +1,265 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.hzcssss.reactive.response.core.FieldProjection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按字段投影序列化
+ * 对象按Jackson为其类型构建的Bean序列化器只写出选中的属性，集合与数组对每个元素应用同一投影，
+ * Map按键过滤；(投影, 序列化器)对应的属性计划缓存在调用方持有的PlanCache中。
+ * 选中全部字段的部分以及非Bean类型按原序列化器输出，保留注解、自定义序列化器等配置
+ */
+public final class FieldProjectionWriter {
+
+    private FieldProjectionWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 包装为按投影序列化的值，可以交给任意ObjectWriter写出
+     *
+     * @param value      原始值
+     * @param projection 字段投影，为null时返回原始值
+     * @return 可序列化的值
+     */
+    public static Object view(Object value, FieldProjection projection) {
+        return projection == null || value == null ? value : new Projected(value, projection);
+    }
+
+    /**
+     * 按投影写出值
+     *
+     * @param value      值
+     * @param projection 字段投影
+     * @param plans      属性计划缓存，应与序列化器来自同一个ObjectMapper
+     * @param gen        JSON生成器
+     * @param provider   序列化上下文
+     * @throws IOException 写出失败
+     */
+    public static void write(Object value, FieldProjection projection, PlanCache plans, JsonGenerator gen,
+                             SerializerProvider provider) throws IOException {
+        if (value == null) {
+            provider.defaultSerializeNull(gen);
+            return;
+        }
+        if (projection == null || projection.includesAll()) {
+            provider.defaultSerializeValue(value, gen);
+            return;
+        }
+        if (value instanceof Collection) {
+            gen.writeStartArray(value, ((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                write(element, projection, plans, gen, provider);
+            }
+            gen.writeEndArray();
+            return;
+        }
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            gen.writeStartArray(value, array.length);
+            for (Object element : array) {
+                write(element, projection, plans, gen, provider);
+            }
+            gen.writeEndArray();
+            return;
+        }
+        if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, projection, plans, gen, provider);
+            return;
+        }
+        JsonSerializer<Object> serializer = provider.findValueSerializer(value.getClass());
+        if (!(serializer instanceof BeanSerializerBase)) {
+            // 标量、基本类型数组、RawJson等不是Bean的值原样输出
+            serializer.serialize(value, gen, provider);
+            return;
+        }
+        gen.writeStartObject(value);
+        for (PropertyPlan property : plans.plan(projection, (BeanSerializerBase) serializer)) {
+            property.write(value, plans, gen, provider);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeMap(Map<?, ?> map, FieldProjection projection, PlanCache plans, JsonGenerator gen,
+                                 SerializerProvider provider) throws IOException {
+        gen.writeStartObject(map);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            FieldProjection child = entry.getKey() == null ? null : projection.child(entry.getKey().toString());
+            if (child != null) {
+                gen.writeFieldName(entry.getKey().toString());
+                write(entry.getValue(), child, plans, gen, provider);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * 按序列化器的属性顺序取出被选中的属性
+     */
+    private static PropertyPlan[] compile(FieldProjection projection, BeanSerializerBase serializer) {
+        List<PropertyPlan> plan = new ArrayList<>();
+        Iterator<PropertyWriter> properties = serializer.properties();
+        while (properties.hasNext()) {
+            PropertyWriter property = properties.next();
+            FieldProjection child = projection.child(property.getName());
+            if (child != null) {
+                plan.add(new PropertyPlan(property, child));
+            }
+        }
+        return plan.toArray(new PropertyPlan[0]);
+    }
+
+    /**
+     * 被选中的属性及其子投影
+     */
+    private static final class PropertyPlan {
+
+        private final PropertyWriter property;
+        private final FieldProjection child;
+
+        private PropertyPlan(PropertyWriter property, FieldProjection child) {
+            this.property = property;
+            this.child = child;
+        }
+
+        private void write(Object bean, PlanCache plans, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            if (child.includesAll() || !(property instanceof BeanPropertyWriter)) {
+                try {
+                    property.serializeAsField(bean, gen, provider);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Failed to serialize property " + property.getName(), e);
+                }
+                return;
+            }
+            BeanPropertyWriter writer = (BeanPropertyWriter) property;
+            Object value;
+            try {
+                value = writer.get(bean);
+            } catch (Exception e) {
+                throw new IOException("Failed to read property " + writer.getName(), e);
+            }
+            if (value == null && !writer.willSuppressNulls()) {
+                gen.writeFieldName(writer.getSerializedName());
+                provider.defaultSerializeNull(gen);
+            } else if (value != null) {
+                gen.writeFieldName(writer.getSerializedName());
+                FieldProjectionWriter.write(value, child, plans, gen, provider);
+            }
+        }
+    }
+
+    /**
+     * 属性计划缓存，由每个ObjectMapper的序列化器各自持有，随ObjectMapper一起回收。
+     * 投影来自客户端参数，按选中的字段比较，读取不加锁，达到上限后清空；序列化器由ObjectMapper按类型缓存，按引用比较
+     */
+    public static final class PlanCache {
+
+        /**
+         * 缓存的属性计划数量上限，达到后清空重新缓存
+         */
+        static final int MAX_PLANS = 1024;
+
+        private final Map<PlanKey, PropertyPlan[]> plans = new ConcurrentHashMap<>();
+
+        private PropertyPlan[] plan(FieldProjection projection, BeanSerializerBase serializer) {
+            PlanKey key = new PlanKey(projection, serializer);
+            PropertyPlan[] plan = plans.get(key);
+            if (plan == null) {
+                plan = compile(projection, serializer);
+                if (plans.size() >= MAX_PLANS) {
+                    plans.clear();
+                }
+                plans.put(key, plan);
+            }
+            return plan;
+        }
+
+        /**
+         * 获取缓存的计划数量
+         */
+        int size() {
+            return plans.size();
+        }
+    }
+
+    /**
+     * 属性计划缓存的键
+     */
+    private static final class PlanKey {
+
+        private final FieldProjection projection;
+        private final BeanSerializerBase serializer;
+
+        private PlanKey(FieldProjection projection, BeanSerializerBase serializer) {
+            this.projection = projection;
+            this.serializer = serializer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return serializer == other.serializer && projection.equals(other.projection);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * projection.hashCode() + System.identityHashCode(serializer);
+        }
+    }
+
+    /**
+     * 按投影序列化的值
+     */
+    @JsonSerialize(using = ProjectedSerializer.class)
+    static final class Projected {
+
+        private final Object value;
+        private final FieldProjection projection;
+
+        private Projected(Object value, FieldProjection projection) {
+            this.value = Objects.requireNonNull(value, "value");
+            this.projection = projection;
+        }
+    }
+
+    static final class ProjectedSerializer extends StdSerializer<Projected> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * ObjectMapper为每个实例化的序列化器各自创建，计划缓存随之按ObjectMapper隔离
+         */
+        private final transient PlanCache plans = new PlanCache();
+
+        ProjectedSerializer() {
+            super(Projected.class);
+        }
+
+        @Override
+        public void serialize(Projected value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            write(value.value, value.projection, plans, gen, provider);
+        }
+    }
+}
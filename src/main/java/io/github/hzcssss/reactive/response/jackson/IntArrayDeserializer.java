@@ -0,0 +1,38 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.hzcssss.reactive.response.core.IntArray;
+
+import java.io.IOException;
+
+/**
+ * IntArray反序列化器
+ * 从JSON数字数组逐个读取int值追加到内部数组，不经过装箱对象
+ */
+public class IntArrayDeserializer extends StdDeserializer<IntArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public IntArrayDeserializer() {
+        super(IntArray.class);
+    }
+
+    @Override
+    public IntArray deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return (IntArray) ctxt.handleUnexpectedToken(IntArray.class, p);
+        }
+        IntArray values = new IntArray();
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_INT) {
+                return ctxt.reportInputMismatch(this, "Expected int element but found %s", token);
+            }
+            values.add(p.getIntValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.hzcssss.reactive.response.core.IntArray;
+
+import java.io.IOException;
+
+/**
+ * IntArray序列化器
+ * 直接从内部int数组写出数字，不经过装箱对象
+ */
+public class IntArraySerializer extends StdSerializer<IntArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public IntArraySerializer() {
+        super(IntArray.class);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, IntArray value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(IntArray value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeArray(value.array(), 0, value.size());
+    }
+}
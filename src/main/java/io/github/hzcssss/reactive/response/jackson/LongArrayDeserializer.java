@@ -0,0 +1,38 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.hzcssss.reactive.response.core.LongArray;
+
+import java.io.IOException;
+
+/**
+ * LongArray反序列化器
+ * 从JSON数字数组逐个读取long值追加到内部数组，不经过装箱对象
+ */
+public class LongArrayDeserializer extends StdDeserializer<LongArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public LongArrayDeserializer() {
+        super(LongArray.class);
+    }
+
+    @Override
+    public LongArray deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return (LongArray) ctxt.handleUnexpectedToken(LongArray.class, p);
+        }
+        LongArray values = new LongArray();
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_INT) {
+                return ctxt.reportInputMismatch(this, "Expected long element but found %s", token);
+            }
+            values.add(p.getLongValue());
+        }
+        return values;
+    }
+}
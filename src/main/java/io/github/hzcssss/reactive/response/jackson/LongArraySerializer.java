@@ -0,0 +1,31 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.hzcssss.reactive.response.core.LongArray;
+
+import java.io.IOException;
+
+/**
+ * LongArray序列化器
+ * 直接从内部long数组写出数字，不经过装箱对象
+ */
+public class LongArraySerializer extends StdSerializer<LongArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    public LongArraySerializer() {
+        super(LongArray.class);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, LongArray value) {
+        return value.isEmpty();
+    }
+
+    @Override
+    public void serialize(LongArray value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeArray(value.array(), 0, value.size());
+    }
+}
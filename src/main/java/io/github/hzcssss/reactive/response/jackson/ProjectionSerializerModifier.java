@@ -0,0 +1,61 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import io.github.hzcssss.reactive.response.core.ProjectedReactiveResponse;
+
+import java.util.List;
+
+/**
+ * 为附加了字段投影的响应替换data属性的写出方式，其余类型的序列化器不受影响
+ */
+class ProjectionSerializerModifier extends BeanSerializerModifier {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                     List<BeanPropertyWriter> beanProperties) {
+        if (beanDesc.getBeanClass() != ProjectedReactiveResponse.class) {
+            return beanProperties;
+        }
+        for (int i = 0; i < beanProperties.size(); i++) {
+            if ("data".equals(beanProperties.get(i).getName())) {
+                beanProperties.set(i, new ProjectedDataWriter(beanProperties.get(i)));
+            }
+        }
+        return beanProperties;
+    }
+
+    /**
+     * 按响应上的投影写出data
+     */
+    private static final class ProjectedDataWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 每个ObjectMapper构建ProjectedReactiveResponse的序列化器时各自创建
+         */
+        private final transient FieldProjectionWriter.PlanCache plans = new FieldProjectionWriter.PlanCache();
+
+        private ProjectedDataWriter(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            ProjectedReactiveResponse<?> response = (ProjectedReactiveResponse<?>) bean;
+            if (response.projection() == null) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            gen.writeFieldName(_name);
+            FieldProjectionWriter.write(response.getData(), response.projection(), plans, gen, prov);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.hzcssss.reactive.response.core.RawJson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * RawJson序列化器
+ * 把预序列化的字节原样拼接到输出中，不解析也不重新编码
+ */
+public class RawJsonSerializer extends StdSerializer<RawJson> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 超过该长度且输出目标是字节流时，跳过生成器缓冲区直接写入输出流
+     */
+    static final int DIRECT_WRITE_THRESHOLD = 8 * 1024;
+
+    public RawJsonSerializer() {
+        super(RawJson.class);
+    }
+
+    @Override
+    public void serialize(RawJson value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Object target = gen.getOutputTarget();
+        if (value.length() > DIRECT_WRITE_THRESHOLD && target instanceof OutputStream) {
+            // 先写入空的原始值以输出分隔符，再把缓冲区刷出后直接写字节
+            gen.writeRawValue("");
+            gen.flush();
+            value.writeTo((OutputStream) target);
+        } else {
+            gen.writeRawValue(new RawJsonString(value));
+        }
+    }
+
+    /**
+     * 把RawJson适配为SerializableString，字节生成器直接复制UTF-8字节
+     */
+    private static final class RawJsonString implements SerializableString {
+
+        private final RawJson json;
+
+        private RawJsonString(RawJson json) {
+            this.json = json;
+        }
+
+        @Override
+        public String getValue() {
+            return json.toString();
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return getValue().toCharArray();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            if (json.hasArray() && json.arrayOffset() == 0 && json.array().length == json.length()) {
+                return json.array();
+            }
+            return json.toByteArray();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return asUnquotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return appendUnquotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            int length = json.length();
+            if (offset + length > buffer.length) {
+                return -1;
+            }
+            json.copyTo(buffer, offset);
+            return length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            int length = value.length();
+            if (offset + length > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, length, buffer, offset);
+            return length;
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return writeUnquotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            json.writeTo(out);
+            return json.length();
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            return putUnquotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            int length = json.length();
+            if (length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(json.asByteBuffer());
+            return length;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+import io.github.hzcssss.reactive.response.core.IntArray;
+import io.github.hzcssss.reactive.response.core.LongArray;
+import io.github.hzcssss.reactive.response.core.RawJson;
+
+/**
+ * ReactiveResponse的Jackson模块
+ * 注册响应数据相关的序列化器、基本类型数组的反序列化器及字段投影支持，Spring Boot环境下由自动配置注册
+ */
+public class ReactiveResponseModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public ReactiveResponseModule() {
+        super("ReactiveResponseModule");
+        addSerializer(RawJson.class, new RawJsonSerializer());
+        addSerializer(LongArray.class, new LongArraySerializer());
+        addSerializer(IntArray.class, new IntArraySerializer());
+        addSerializer(DoubleArray.class, new DoubleArraySerializer());
+        addDeserializer(LongArray.class, new LongArrayDeserializer());
+        addDeserializer(IntArray.class, new IntArrayDeserializer());
+        addDeserializer(DoubleArray.class, new DoubleArrayDeserializer());
+        setSerializerModifier(new ProjectionSerializerModifier());
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 溢出到磁盘的列表收集器
+ * 元素数量不超过阈值时在内存中收集；超过阈值后把元素逐个序列化到内存映射的临时文件，
+ * 文件中保存完整的响应JSON，堆内存占用与元素数量无关。
+ * 响应外层由ObjectMapper序列化后在data处拆分，与应用的命名策略、字段顺序和包含规则一致
+ */
+public class SpillingCollector {
+
+    /**
+     * 默认内存中元素数量阈值
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    /**
+     * 每次映射的文件区间大小
+     */
+    static final int MAP_WINDOW = 8 * 1024 * 1024;
+
+    /**
+     * 序列化响应外层时data字段的占位值，拆分出data之前和之后的部分
+     */
+    private static final String DATA_PLACEHOLDER = "spill-" + UUID.randomUUID();
+
+    private final ObjectMapper objectMapper;
+    private final int threshold;
+    private final Path directory;
+
+    public SpillingCollector(ObjectMapper objectMapper) {
+        this(objectMapper, DEFAULT_THRESHOLD, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param objectMapper 序列化元素使用的ObjectMapper
+     * @param threshold    内存中元素数量阈值
+     * @param directory    临时文件目录，为null时使用系统临时目录
+     */
+    public SpillingCollector(ObjectMapper objectMapper, int threshold, Path directory) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must not be negative: " + threshold);
+        }
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.threshold = threshold;
+        this.directory = directory;
+    }
+
+    /**
+     * 收集Flux为成功响应，上游出错或取消时删除已写入的临时文件
+     *
+     * @param flux      原始Flux
+     * @param errorCode 成功码
+     * @param message   成功消息
+     * @param <T>       元素类型
+     * @return 可能溢出到磁盘的响应
+     */
+    public <T> Mono<SpillableResponse<T>> collect(Flux<T> flux, int errorCode, String message) {
+        return Mono.using(
+                () -> new SpillBuffer<T>(errorCode, message),
+                buffer -> flux.doOnNext(buffer::add)
+                        .then(Mono.fromCallable(buffer::finish))
+                        .doOnNext(response -> buffer.handedOff = true),
+                SpillBuffer::release)
+                .doOnDiscard(SpillableResponse.class, response -> response.discard());
+    }
+
+    /**
+     * 单次订阅的收集状态
+     */
+    private final class SpillBuffer<T> {
+
+        private final int errorCode;
+        private final String message;
+        private List<T> items = new ArrayList<>();
+
+        private Path file;
+        private MappedOutputStream out;
+        private JsonGenerator generator;
+        private int headerReserve;
+
+        /**
+         * 响应已交给下游，此后由下游负责删除临时文件
+         */
+        private boolean handedOff;
+
+        private SpillBuffer(int errorCode, String message) {
+            this.errorCode = errorCode;
+            this.message = message;
+        }
+
+        private void add(T item) {
+            try {
+                if (generator != null) {
+                    objectMapper.writeValue(generator, item);
+                    return;
+                }
+                items.add(item);
+                if (items.size() > threshold) {
+                    spill();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 创建临时文件，预留响应头部区间，把已收集的元素写入文件
+         */
+        private void spill() throws IOException {
+            file = directory == null
+                    ? Files.createTempFile("reactive-response-", ".json")
+                    : Files.createTempFile(directory, "reactive-response-", ".json");
+            headerReserve = envelope(Long.MIN_VALUE)[0].length;
+            out = new MappedOutputStream(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE),
+                    headerReserve);
+            generator = objectMapper.createGenerator(out);
+            generator.writeStartArray();
+            for (T item : items) {
+                objectMapper.writeValue(generator, item);
+            }
+            items = null;
+        }
+
+        private SpillableResponse<T> finish() throws IOException {
+            if (generator == null) {
+                ReactiveResponse<List<T>> response = ReactiveResponse.success(errorCode, message, items);
+                return SpillableResponse.inMemory(response);
+            }
+            generator.writeEndArray();
+            byte[][] envelope = envelope(System.currentTimeMillis());
+            generator.writeRaw(new String(envelope[1], StandardCharsets.UTF_8));
+            generator.close();
+            long end = out.position();
+            byte[] header = envelope[0];
+            if (header.length > headerReserve) {
+                throw new IllegalStateException("Response header exceeds reserved " + headerReserve + " bytes");
+            }
+            long start = headerReserve - header.length;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(header), start);
+            }
+            return SpillableResponse.spilled(file, start, end - start);
+        }
+
+        /**
+         * 未交给下游时（出错、取消）关闭并删除临时文件
+         */
+        private void release() {
+            if (handedOff || file == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // 删除文件前的关闭失败不影响清理
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 临时目录中的残留文件由系统清理
+            }
+        }
+
+        /**
+         * 用ObjectMapper序列化响应外层，在data的值处拆分为前后两部分
+         */
+        private byte[][] envelope(long timestamp) throws IOException {
+            ReactiveResponse<String> response = new ReactiveResponse<>();
+            response.setErrorCode(errorCode);
+            response.setMessage(message);
+            response.setSuccess(true);
+            response.setTimestamp(timestamp);
+            response.setData(DATA_PLACEHOLDER);
+            String json = objectMapper.writeValueAsString(response);
+            String placeholder = objectMapper.writeValueAsString(DATA_PLACEHOLDER);
+            int index = json.indexOf(placeholder);
+            if (index < 0) {
+                throw new IllegalStateException("ObjectMapper does not serialize the data field: " + json);
+            }
+            return new byte[][]{
+                    json.substring(0, index).getBytes(StandardCharsets.UTF_8),
+                    json.substring(index + placeholder.length()).getBytes(StandardCharsets.UTF_8)};
+        }
+    }
+
+    /**
+     * 按窗口映射文件的输出流，写入直接复制到映射内存，不经过write系统调用
+     */
+    private static final class MappedOutputStream extends OutputStream {
+
+        private final FileChannel channel;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        private MappedOutputStream(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            map(start);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!window.hasRemaining()) {
+                map(position());
+            }
+            window.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (!window.hasRemaining()) {
+                    map(position());
+                }
+                int n = Math.min(len, window.remaining());
+                window.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        private long position() {
+            return windowStart + window.position();
+        }
+
+        private void map(long start) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, MAP_WINDOW);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
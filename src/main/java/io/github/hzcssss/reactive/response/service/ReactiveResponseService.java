@@ -2,6 +2,8 @@ package io.github.hzcssss.reactive.response.service;
 
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -21,10 +23,7 @@ public class ReactiveResponseService {
      * @return 包装后的Mono
      */
     public <T> Mono<ReactiveResponse<T>> wrapMono(Mono<T> mono) {
-        return mono
-                .map(ReactiveResponse::success)
-                .onErrorResume(BusinessException.class, e -> Mono.just(ReactiveResponse.failure(e)))
-                .onErrorResume(e -> Mono.just(ReactiveResponse.failure(e)));
+        return ReactiveResponseUtil.wrapMono(mono);
     }
 
     /**
@@ -38,8 +37,7 @@ public class ReactiveResponseService {
         return flux
                 .collectList()
                 .map(ReactiveResponse::success)
-                .onErrorResume(BusinessException.class, e -> Mono.just(ReactiveResponse.failure(e)))
-                .onErrorResume(e -> Mono.just(ReactiveResponse.failure(e)));
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
     }
 
     /**
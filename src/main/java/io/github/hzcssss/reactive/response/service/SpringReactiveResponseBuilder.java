@@ -1,12 +1,36 @@
 package io.github.hzcssss.reactive.response.service;
 
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.FieldProjection;
+import io.github.hzcssss.reactive.response.core.ImmutableReactiveResponse;
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMapping;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.jackson.SpillingCollector;
+import io.github.hzcssss.reactive.response.util.AdaptiveConcurrencyLimiter;
+import io.github.hzcssss.reactive.response.util.BatchCollectors;
+import io.github.hzcssss.reactive.response.util.BlockingCallScheduler;
+import io.github.hzcssss.reactive.response.util.DeltaSnapshots;
+import io.github.hzcssss.reactive.response.util.FanOut;
+import io.github.hzcssss.reactive.response.util.HedgingPolicy;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import io.github.hzcssss.reactive.response.util.StreamingCollectors;
+import reactor.core.Fuseable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 
 /**
  * Spring Boot集成的响应构建器服务
@@ -14,6 +38,52 @@ import java.util.function.Function;
  */
 public class SpringReactiveResponseBuilder {
 
+    /**
+     * 未注册异常的默认映射，消息为"系统错误: "加异常消息
+     */
+    public static final ExceptionMapping DEFAULT_ERROR_MAPPING =
+            ExceptionMapping.ofExceptionMessage(ResponseCode.ERROR.getErrorCode(), "系统错误: ", 500);
+
+    private final ExceptionMappingRegistry exceptionMappings;
+    private final SpanRecorder spanRecorder;
+
+    public SpringReactiveResponseBuilder() {
+        this(new ExceptionMappingRegistry(DEFAULT_ERROR_MAPPING));
+    }
+
+    public SpringReactiveResponseBuilder(ExceptionMappingRegistry exceptionMappings) {
+        this(exceptionMappings, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param exceptionMappings 异常映射注册表
+     * @param spanRecorder      耗时记录器，为null时span(label)不记录
+     */
+    public SpringReactiveResponseBuilder(ExceptionMappingRegistry exceptionMappings, SpanRecorder spanRecorder) {
+        this.exceptionMappings = exceptionMappings;
+        this.spanRecorder = spanRecorder;
+    }
+
+    /**
+     * 获取异常映射注册表
+     *
+     * @return 异常映射注册表
+     */
+    public ExceptionMappingRegistry getExceptionMappings() {
+        return exceptionMappings;
+    }
+
+    /**
+     * 获取耗时记录器
+     *
+     * @return 耗时记录器，未配置时为null
+     */
+    public SpanRecorder getSpanRecorder() {
+        return spanRecorder;
+    }
+
     /**
      * 从Mono创建响应构建器
      *
@@ -36,6 +106,29 @@ public class SpringReactiveResponseBuilder {
         return new FluxResponseBuilder<>(flux);
     }
 
+    /**
+     * 从阻塞调用创建响应构建器
+     * JDK 21+ 使用虚拟线程执行，否则使用有界弹性调度器
+     *
+     * @param callable 阻塞调用
+     * @param <T>      数据类型
+     * @return Mono响应构建器
+     */
+    public <T> MonoResponseBuilder<T> fromBlocking(Callable<T> callable) {
+        return new MonoResponseBuilder<>(BlockingCallScheduler.call(callable));
+    }
+
+    /**
+     * 执行阻塞调用并包装为响应
+     *
+     * @param callable 阻塞调用
+     * @param <T>      数据类型
+     * @return 响应Mono
+     */
+    public <T> Mono<ReactiveResponse<T>> wrapBlocking(Callable<T> callable) {
+        return fromBlocking(callable).build();
+    }
+
     /**
      * 创建成功响应构建器
      *
@@ -56,6 +149,27 @@ public class SpringReactiveResponseBuilder {
         return new FailureResponseBuilder<>();
     }
 
+    /**
+     * 在并发限制下执行响应管道，未设置限制器时原样返回
+     */
+    private static <R> Mono<ReactiveResponse<R>> admit(AdaptiveConcurrencyLimiter limiter,
+                                                       Mono<ReactiveResponse<R>> pipeline) {
+        return limiter == null ? pipeline : limiter.admit(pipeline, AdaptiveConcurrencyLimiter::overloadedResponse);
+    }
+
+    /**
+     * 设置了标签且配置了耗时记录器时在记录下执行响应管道
+     */
+    private <S, R> Mono<R> traced(String label, Mono<S> source, Function<Mono<S>, Mono<R>> pipeline) {
+        return label == null || spanRecorder == null
+                ? pipeline.apply(source) : spanRecorder.record(label, source, pipeline);
+    }
+
+    private <S, R> Mono<R> traced(String label, Flux<S> source, Function<Flux<S>, Mono<R>> pipeline) {
+        return label == null || spanRecorder == null
+                ? pipeline.apply(source) : spanRecorder.record(label, source, pipeline);
+    }
+
     /**
      * Mono响应构建器
      *
@@ -67,6 +181,11 @@ public class SpringReactiveResponseBuilder {
         private String successMessage = "操作成功";
         private Function<BusinessException, ReactiveResponse<T>> businessExceptionHandler;
         private Function<Throwable, ReactiveResponse<T>> errorHandler;
+        private HedgingPolicy hedgingPolicy;
+        private AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private String spanLabel;
+        private FieldProjection projection;
+        private BusinessException projectionError;
 
         private MonoResponseBuilder(Mono<T> mono) {
             this.mono = mono;
@@ -116,41 +235,104 @@ public class SpringReactiveResponseBuilder {
             return this;
         }
 
+        /**
+         * 设置对冲策略，原始请求超过延迟未结束时重新订阅一次源Mono
+         * 源Mono必须是冷的（如WebClient调用、Mono.defer），每次订阅都会重新执行
+         *
+         * @param policy 对冲策略，应在请求之间共享
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> hedge(HedgingPolicy policy) {
+            this.hedgingPolicy = policy;
+            return this;
+        }
+
+        /**
+         * 设置并发限制器，超过并发上限的请求直接返回过载响应，不执行源
+         *
+         * @param limiter 并发限制器，应在请求之间共享
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> limit(AdaptiveConcurrencyLimiter limiter) {
+            this.concurrencyLimiter = limiter;
+            return this;
+        }
+
+        /**
+         * 按标签记录本次包装的耗时，未配置耗时记录器时不记录
+         *
+         * @param label 标签，如接口路径
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> span(String label) {
+            this.spanLabel = label;
+            return this;
+        }
+
+        /**
+         * 设置字段投影，序列化data时只输出选中的字段，需要ObjectMapper注册ReactiveResponseModule
+         * 表达式无效时不执行源，直接构建失败响应
+         *
+         * @param fields 逗号分隔的字段路径，如"id,name,address.city"，通常取自查询参数fields，为null时不投影
+         * @return 构建器
+         */
+        public MonoResponseBuilder<T> fields(String fields) {
+            try {
+                this.projection = FieldProjection.parse(fields);
+                this.projectionError = null;
+            } catch (IllegalArgumentException e) {
+                this.projection = null;
+                this.projectionError = new BusinessException(ResponseCode.FAILURE.getErrorCode(),
+                        "无效的字段投影: " + e.getMessage());
+            }
+            return this;
+        }
+
         /**
          * 构建响应
          *
          * @return 响应Mono
          */
         public Mono<ReactiveResponse<T>> build() {
-            return mono.map(data -> {
-                ReactiveResponse<T> response = new ReactiveResponse<>();
-                response.setSuccess(true);
-                response.setErrorCode(successCode);
-                response.setMessage(successMessage);
-                response.setData(data);
-                response.setTimestamp(System.currentTimeMillis());
-                return response;
-            }).onErrorResume(BusinessException.class, e -> {
+            Mono<T> input = input();
+            if (input instanceof Fuseable.ScalarCallable && (spanLabel == null || spanRecorder == null)) {
+                // 标量源不会变慢，不需要对冲
+                return admit(concurrencyLimiter, ReactiveResponseUtil.resolveScalar(input, this::success,
+                        this::handleError));
+            }
+            return traced(spanLabel, input, source -> admit(concurrencyLimiter, source(source)
+                    .map(this::success)
+                    .onErrorResume(e -> Mono.just(handleError(e)))));
+        }
+
+        private ReactiveResponse<T> success(T data) {
+            ReactiveResponse<T> response = ReactiveResponse.success(successCode, successMessage, data);
+            return projection == null ? response : projection.apply(response);
+        }
+
+        /**
+         * 字段投影无效时以失败代替源
+         */
+        private Mono<T> input() {
+            return projectionError == null ? mono : Mono.error(projectionError);
+        }
+
+        private Mono<T> source(Mono<T> source) {
+            return hedgingPolicy == null ? source : hedgingPolicy.apply(() -> source);
+        }
+
+        /**
+         * 处理错误，未设置处理器时按异常映射注册表转换，两种方式都记录失败日志
+         */
+        private ReactiveResponse<T> handleError(Throwable e) {
+            if (e instanceof BusinessException) {
                 if (businessExceptionHandler != null) {
-                    return Mono.just(businessExceptionHandler.apply(e));
-                }
-                ReactiveResponse<T> response = new ReactiveResponse<>();
-                response.setSuccess(false);
-                response.setErrorCode(e.getErrorCode());
-                response.setMessage(e.getMessage());
-                response.setTimestamp(System.currentTimeMillis());
-                return Mono.just(response);
-            }).onErrorResume(e -> {
-                if (errorHandler != null) {
-                    return Mono.just(errorHandler.apply(e));
+                    return exceptionMappings.recordFailure(businessExceptionHandler.apply((BusinessException) e), e);
                 }
-                ReactiveResponse<T> response = new ReactiveResponse<>();
-                response.setSuccess(false);
-                response.setErrorCode(9999);
-                response.setMessage("系统错误: " + e.getMessage());
-                response.setTimestamp(System.currentTimeMillis());
-                return Mono.just(response);
-            });
+            } else if (errorHandler != null) {
+                return exceptionMappings.recordFailure(errorHandler.apply(e), e);
+            }
+            return exceptionMappings.toResponse(e);
         }
     }
 
@@ -165,6 +347,10 @@ public class SpringReactiveResponseBuilder {
         private String successMessage = "操作成功";
         private Function<BusinessException, ReactiveResponse<List<T>>> businessExceptionHandler;
         private Function<Throwable, ReactiveResponse<List<T>>> errorHandler;
+        private AdaptiveConcurrencyLimiter concurrencyLimiter;
+        private String spanLabel;
+        private FieldProjection projection;
+        private BusinessException projectionError;
 
         private FluxResponseBuilder(Flux<T> flux) {
             this.flux = flux;
@@ -214,41 +400,222 @@ public class SpringReactiveResponseBuilder {
             return this;
         }
 
+        /**
+         * 设置并发限制器，超过并发上限的请求直接返回过载响应，不执行源
+         *
+         * @param limiter 并发限制器，应在请求之间共享
+         * @return 构建器
+         */
+        public FluxResponseBuilder<T> limit(AdaptiveConcurrencyLimiter limiter) {
+            this.concurrencyLimiter = limiter;
+            return this;
+        }
+
+        /**
+         * 按标签记录本次包装的耗时，未配置耗时记录器时不记录
+         *
+         * @param label 标签，如接口路径
+         * @return 构建器
+         */
+        public FluxResponseBuilder<T> span(String label) {
+            this.spanLabel = label;
+            return this;
+        }
+
+        /**
+         * 以有界并发对每个元素执行映射，返回基于映射结果的构建器，任一调用失败时构建失败响应
+         * 已设置的成功码和成功消息、并发限制器、耗时标签会保留，错误处理器需要在映射之后设置
+         *
+         * @param mapper      元素映射
+         * @param concurrency 最大并发调用数
+         * @param ordered     是否按输入顺序输出
+         * @param <R>         结果类型
+         * @return 构建器
+         */
+        public <R> FluxResponseBuilder<R> fanOut(Function<? super T, ? extends Mono<? extends R>> mapper,
+                                                 int concurrency,
+                                                 boolean ordered) {
+            return fanOut(mapper, concurrency, ordered, null, FanOut.ItemErrorMode.FAIL);
+        }
+
+        /**
+         * 以有界并发对每个元素执行映射，返回基于映射结果的构建器
+         *
+         * @param mapper      元素映射
+         * @param concurrency 最大并发调用数
+         * @param ordered     是否按输入顺序输出
+         * @param itemTimeout 单个调用的超时时间，为null时不限制
+         * @param errorMode   单个调用失败时跳过该元素还是构建失败响应
+         * @param <R>         结果类型
+         * @return 构建器
+         */
+        public <R> FluxResponseBuilder<R> fanOut(Function<? super T, ? extends Mono<? extends R>> mapper,
+                                                 int concurrency,
+                                                 boolean ordered,
+                                                 Duration itemTimeout,
+                                                 FanOut.ItemErrorMode errorMode) {
+            FluxResponseBuilder<R> builder = new FluxResponseBuilder<>(
+                    FanOut.apply(flux, mapper, concurrency, ordered, itemTimeout, errorMode));
+            builder.successCode = successCode;
+            builder.successMessage = successMessage;
+            builder.projection = projection;
+            builder.projectionError = projectionError;
+            builder.concurrencyLimiter = concurrencyLimiter;
+            builder.spanLabel = spanLabel;
+            return builder;
+        }
+
+        /**
+         * 设置字段投影，序列化时每个元素只输出选中的字段，需要ObjectMapper注册ReactiveResponseModule
+         * buildBatch/buildDelta投影结果中的元素列表，其余字段原样输出；buildCollect/buildReduce的聚合结果不投影
+         * 表达式无效时不执行源，直接构建失败响应；溢出到磁盘的响应不支持投影
+         *
+         * @param fields 逗号分隔的字段路径，如"id,name,address.city"，通常取自查询参数fields，为null时不投影
+         * @return 构建器
+         */
+        public FluxResponseBuilder<T> fields(String fields) {
+            try {
+                this.projection = FieldProjection.parse(fields);
+                this.projectionError = null;
+            } catch (IllegalArgumentException e) {
+                this.projection = null;
+                this.projectionError = new BusinessException(ResponseCode.FAILURE.getErrorCode(),
+                        "无效的字段投影: " + e.getMessage());
+            }
+            return this;
+        }
+
         /**
          * 构建响应
          *
          * @return 响应Mono
          */
         public Mono<ReactiveResponse<List<T>>> build() {
-            return flux.collectList().map(data -> {
-                ReactiveResponse<List<T>> response = new ReactiveResponse<>();
-                response.setSuccess(true);
-                response.setErrorCode(successCode);
-                response.setMessage(successMessage);
-                response.setData(data);
-                response.setTimestamp(System.currentTimeMillis());
-                return response;
-            }).onErrorResume(BusinessException.class, e -> {
+            return traced(spanLabel, input(), source -> admit(concurrencyLimiter, source.collectList()
+                    .map(this::listResponse)
+                    .onErrorResume(e -> Mono.just(handleError(e)))));
+        }
+
+        /**
+         * 构建可溢出到磁盘的列表响应，元素超过收集器阈值后写入临时文件，堆内存占用有界
+         * 响应发送后必须关闭以删除临时文件，WebFlux中可使用SpillableResponseWriter发送；
+         * 交给下游之前被取消或被操作符丢弃时自动删除
+         *
+         * @param collector 溢出收集器
+         * @return 响应Mono
+         */
+        public Mono<SpillableResponse<T>> buildSpilling(SpillingCollector collector) {
+            return traced(spanLabel, input(), source -> {
+                Mono<SpillableResponse<T>> pipeline = collector.collect(source, successCode, successMessage)
+                        .onErrorResume(e -> Mono.just(SpillableResponse.inMemory(handleError(e))));
+                return concurrencyLimiter == null ? pipeline : concurrencyLimiter.admit(pipeline,
+                        () -> SpillableResponse.inMemory(AdaptiveConcurrencyLimiter.overloadedResponse()));
+            }).doOnDiscard(SpillableResponse.class, response -> response.discard());
+        }
+
+        /**
+         * 构建部分成功的批量响应
+         * 元素在map等支持错误继续的操作符中失败时只记录在该元素上，不中断其余元素
+         *
+         * @return 批量响应Mono
+         */
+        public Mono<ReactiveResponse<BatchResult<T>>> buildBatch() {
+            return traced(spanLabel, input(), source -> admit(concurrencyLimiter,
+                    BatchCollectors.collect(source, exceptionMappings)
+                            .map(result -> resultResponse(result, "items"))
+                            .onErrorResume(e -> Mono.just(handleAggregateError(e)))));
+        }
+
+        /**
+         * 构建增量列表响应，客户端版本的快照存在时只返回新增、变化和删除的元素
+         *
+         * @param snapshots 快照存储，应在请求之间共享
+         * @param key       列表的键
+         * @param version   客户端上次收到的版本号，首次请求为null
+         * @return 增量响应Mono
+         */
+        public Mono<ReactiveResponse<DeltaResult<T>>> buildDelta(DeltaSnapshots<T, ?> snapshots, String key,
+                                                                 String version) {
+            return traced(spanLabel, input(), source -> admit(concurrencyLimiter,
+                    snapshots.diff(key, version, source)
+                            .map(result -> resultResponse(result, "items", "added", "changed"))
+                            .onErrorResume(e -> Mono.just(handleAggregateError(e)))));
+        }
+
+        /**
+         * 用收集器增量聚合元素并构建响应，不物化元素列表
+         *
+         * @param collector 收集器
+         * @param <R>       结果类型
+         * @return 响应Mono
+         */
+        public <R> Mono<ReactiveResponse<R>> buildCollect(Collector<? super T, ?, R> collector) {
+            return traced(spanLabel, input(), source -> admit(concurrencyLimiter,
+                    StreamingCollectors.collect(source, collector)
+                            .map(result -> successResponse(result.orElse(null)))
+                            .onErrorResume(e -> Mono.just(handleAggregateError(e)))));
+        }
+
+        /**
+         * 用归约函数增量聚合元素并构建响应，不物化元素列表
+         *
+         * @param initial     初始值提供者
+         * @param accumulator 归约函数
+         * @param <R>         结果类型
+         * @return 响应Mono
+         */
+        public <R> Mono<ReactiveResponse<R>> buildReduce(Supplier<R> initial, BiFunction<R, ? super T, R> accumulator) {
+            return traced(spanLabel, input(), source -> admit(concurrencyLimiter, source.reduceWith(initial, accumulator)
+                    .map(this::successResponse)
+                    .onErrorResume(e -> Mono.just(handleAggregateError(e)))));
+        }
+
+        private <R> ReactiveResponse<R> successResponse(R data) {
+            return ReactiveResponse.success(successCode, successMessage, data);
+        }
+
+        /**
+         * 元素列表的响应，按投影过滤每个元素
+         */
+        private ReactiveResponse<List<T>> listResponse(List<T> items) {
+            ReactiveResponse<List<T>> response = successResponse(items);
+            return projection == null ? response : projection.apply(response);
+        }
+
+        /**
+         * 批量、增量等结果对象的响应，投影下推到结果中包含元素的字段，结果对象的其余字段原样输出
+         */
+        private <R> ReactiveResponse<R> resultResponse(R result, String... itemFields) {
+            ReactiveResponse<R> response = successResponse(result);
+            return projection == null ? response : projection.within(itemFields).apply(response);
+        }
+
+        /**
+         * 字段投影无效时以失败代替源
+         */
+        private Flux<T> input() {
+            return projectionError == null ? flux : Flux.error(projectionError);
+        }
+
+        /**
+         * 处理错误，未设置处理器时按异常映射注册表转换，两种方式都记录失败日志
+         */
+        private ReactiveResponse<List<T>> handleError(Throwable e) {
+            if (e instanceof BusinessException) {
                 if (businessExceptionHandler != null) {
-                    return Mono.just(businessExceptionHandler.apply(e));
-                }
-                ReactiveResponse<List<T>> response = new ReactiveResponse<>();
-                response.setSuccess(false);
-                response.setErrorCode(e.getErrorCode());
-                response.setMessage(e.getMessage());
-                response.setTimestamp(System.currentTimeMillis());
-                return Mono.just(response);
-            }).onErrorResume(e -> {
-                if (errorHandler != null) {
-                    return Mono.just(errorHandler.apply(e));
+                    return exceptionMappings.recordFailure(businessExceptionHandler.apply((BusinessException) e), e);
                 }
-                ReactiveResponse<List<T>> response = new ReactiveResponse<>();
-                response.setSuccess(false);
-                response.setErrorCode(9999);
-                response.setMessage("系统错误: " + e.getMessage());
-                response.setTimestamp(System.currentTimeMillis());
-                return Mono.just(response);
-            });
+            } else if (errorHandler != null) {
+                return exceptionMappings.recordFailure(errorHandler.apply(e), e);
+            }
+            return exceptionMappings.toResponse(e);
+        }
+
+        /**
+         * 处理批量、聚合等构建方式的错误，与build()使用同样的处理器；处理器结果的data类型不同，不保留
+         */
+        private <R> ReactiveResponse<R> handleAggregateError(Throwable e) {
+            return ReactiveResponseUtil.withoutData(handleError(e));
         }
     }
 
@@ -301,13 +668,16 @@ public class SpringReactiveResponseBuilder {
          * @return 响应
          */
         public ReactiveResponse<T> build() {
-            ReactiveResponse<T> response = new ReactiveResponse<>();
-            response.setSuccess(true);
-            response.setErrorCode(errorCode);
-            response.setMessage(message);
-            response.setData(data);
-            response.setTimestamp(System.currentTimeMillis());
-            return response;
+            return ReactiveResponse.success(errorCode, message, data);
+        }
+
+        /**
+         * 构建不可修改的响应
+         *
+         * @return 不可修改的响应
+         */
+        public ImmutableReactiveResponse<T> buildImmutable() {
+            return ImmutableReactiveResponse.success(errorCode, message, data);
         }
     }
 
@@ -348,12 +718,16 @@ public class SpringReactiveResponseBuilder {
          * @return 响应
          */
         public ReactiveResponse<T> build() {
-            ReactiveResponse<T> response = new ReactiveResponse<>();
-            response.setSuccess(false);
-            response.setErrorCode(errorCode);
-            response.setMessage(message);
-            response.setTimestamp(System.currentTimeMillis());
-            return response;
+            return ReactiveResponse.failure(errorCode, message);
+        }
+
+        /**
+         * 构建不可修改的响应
+         *
+         * @return 不可修改的响应
+         */
+        public ImmutableReactiveResponse<T> buildImmutable() {
+            return ImmutableReactiveResponse.failure(errorCode, message);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 自适应并发限制器
+ * 按梯度算法根据请求耗时调整并发上限：短期耗时接近长期平均耗时时逐步放大上限，
+ * 耗时明显升高时按比例收缩。超过上限的请求立即拒绝，不排队等待
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Reactor上下文中标记请求已由某个限制器放行的键，值为该限制器。
+     * ConcurrencyLimitWebFilter放行请求时写入，同一限制器的admit看到标记后不再重复占用名额
+     */
+    public static final String ADMITTED_CONTEXT_KEY = AdaptiveConcurrencyLimiter.class.getName() + ".ADMITTED";
+
+    /**
+     * 默认初始并发上限
+     */
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    /**
+     * 默认最大并发上限
+     */
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    /**
+     * 最小并发上限
+     */
+    private static final int MIN_LIMIT = 1;
+
+    /**
+     * 允许短期耗时超过长期平均耗时的倍数
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * 新上限与旧上限的平滑系数
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 长期平均耗时的窗口，按样本数计算的指数移动平均
+     */
+    private static final int LONG_WINDOW = 100;
+
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile int limit;
+
+    /**
+     * 只由获得updating的线程读写
+     */
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MAX_LIMIT);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit) {
+        if (initialLimit < 1 || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("require 1 <= initialLimit <= maxLimit: " + initialLimit + ", " + maxLimit);
+        }
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @return 未超过上限时返回true，调用方必须随后调用release
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * 释放名额并记录本次耗时
+     *
+     * @param latencyNanos 请求耗时，纳秒
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, current);
+    }
+
+    /**
+     * 释放名额，不记录耗时（如请求被取消）
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * 在限流下执行Mono，订阅时超过上限直接返回拒绝结果
+     * 请求已经过使用同一限制器的ConcurrencyLimitWebFilter时直接执行，不重复占用名额
+     *
+     * @param mono       原始Mono
+     * @param onRejected 拒绝时的结果
+     * @param <T>        数据类型
+     * @return 受限的Mono
+     */
+    public <T> Mono<T> admit(Mono<T> mono, Supplier<? extends T> onRejected) {
+        return Mono.deferContextual(context -> {
+            if (context.getOrDefault(ADMITTED_CONTEXT_KEY, null) == this) {
+                // 请求已在过滤器中占用了同一限制器的名额
+                return mono;
+            }
+            if (!tryAcquire()) {
+                return Mono.just(onRejected.get());
+            }
+            long start = System.nanoTime();
+            return mono.doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    release();
+                } else {
+                    release(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    /**
+     * 创建过载响应，不构造异常也不经过异常映射，限流器之外拒绝请求的地方同样使用
+     *
+     * @param <T> 数据类型
+     * @return 过载响应
+     */
+    public static <T> ReactiveResponse<T> overloadedResponse() {
+        return ReactiveResponse.failure(ResponseCode.OVERLOADED.getErrorCode(), ResponseCode.OVERLOADED.getMessage());
+    }
+
+    /**
+     * 获取当前并发上限
+     *
+     * @return 并发上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 获取在途请求数
+     *
+     * @return 在途请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 按样本更新上限，其他线程正在更新时丢弃该样本而不等待
+     */
+    private void update(long rttNanos, int inFlightAtCompletion) {
+        if (rttNanos <= 0 || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+            } else {
+                longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+            }
+            // 并发远低于上限时耗时不能说明上限是否合适，不放大上限
+            if (inFlightAtCompletion * 2 < estimatedLimit && rttNanos <= longRttNanos) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+            double queueSize = Math.sqrt(estimatedLimit);
+            double newLimit = estimatedLimit * gradient + queueSize;
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = Math.max(MIN_LIMIT, Math.min(maxLimit, newLimit));
+            limit = (int) estimatedLimit;
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{" +
+                "limit=" + limit +
+                ", inFlight=" + inFlight.get() +
+                ", maxLimit=" + maxLimit +
+                '}';
+    }
+}
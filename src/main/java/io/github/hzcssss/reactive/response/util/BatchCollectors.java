@@ -0,0 +1,104 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.exception.ExceptionMapping;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * 批量结果收集工具
+ * 单个元素失败只记录在该元素的位置上，不会中断整个批次
+ */
+public final class BatchCollectors {
+
+    private BatchCollectors() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 收集Flux元素，上游支持错误继续的操作符（如map、filter、handle）中抛出的异常记为该元素失败
+     * 上游自身以错误终止时，返回的Mono以该错误结束
+     *
+     * @param flux     原始Flux
+     * @param registry 异常映射注册表
+     * @param <T>      元素类型
+     * @return 批量结果
+     */
+    public static <T> Mono<BatchResult<T>> collect(Flux<T> flux, ExceptionMappingRegistry registry) {
+        return Mono.defer(() -> {
+            BatchResult<T> result = new BatchResult<>();
+            return flux
+                    .doOnNext(result::addSuccess)
+                    .onErrorContinue((e, item) -> addFailure(result, e, registry))
+                    .then(Mono.fromCallable(() -> result));
+        });
+    }
+
+    /**
+     * 对每个元素执行独立的操作，单个操作失败或为空不影响其他元素，结果保持输入顺序
+     *
+     * @param items       输入元素
+     * @param operation   元素操作
+     * @param concurrency 并发数
+     * @param registry    异常映射注册表
+     * @param <S>         输入类型
+     * @param <T>         结果类型
+     * @return 批量结果
+     */
+    public static <S, T> Mono<BatchResult<T>> process(Flux<S> items,
+                                                     Function<? super S, ? extends Mono<? extends T>> operation,
+                                                     int concurrency,
+                                                     ExceptionMappingRegistry registry) {
+        return items
+                .flatMapSequential(item -> Mono.defer(() -> operation.apply(item))
+                        .<ItemOutcome<T>>map(ItemOutcome::success)
+                        .defaultIfEmpty(ItemOutcome.empty())
+                        .onErrorResume(e -> Mono.just(ItemOutcome.failure(e))), concurrency)
+                .collect(BatchResult<T>::new, (result, outcome) -> {
+                    if (outcome.error != null) {
+                        addFailure(result, outcome.error, registry);
+                    } else {
+                        result.addSuccess(outcome.value);
+                    }
+                });
+    }
+
+    private static void addFailure(BatchResult<?> result, Throwable e, ExceptionMappingRegistry registry) {
+        ExceptionMapping mapping = registry.lookup(e.getClass());
+        int errorCode = mapping.resolveErrorCode(e);
+        result.addFailure(errorCode, mapping.resolveMessage(e));
+        registry.recordFailure(errorCode, e);
+    }
+
+    /**
+     * 单个元素的处理结果
+     */
+    private static final class ItemOutcome<T> {
+
+        private static final ItemOutcome<?> EMPTY = new ItemOutcome<>(null, null);
+
+        private final T value;
+        private final Throwable error;
+
+        private ItemOutcome(T value, Throwable error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static <T> ItemOutcome<T> success(T value) {
+            return new ItemOutcome<>(value, null);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> ItemOutcome<T> empty() {
+            return (ItemOutcome<T>) EMPTY;
+        }
+
+        static <T> ItemOutcome<T> failure(Throwable error) {
+            return new ItemOutcome<>(null, error);
+        }
+    }
+}
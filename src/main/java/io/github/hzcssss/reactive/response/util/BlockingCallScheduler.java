@@ -0,0 +1,102 @@
+package io.github.hzcssss.reactive.response.util;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 阻塞调用调度器
+ * JDK 21+ 上使用虚拟线程执行阻塞调用，JDK 11 上回退到有界弹性调度器，
+ * 并通过信号量限制同时执行的阻塞调用数量
+ */
+public final class BlockingCallScheduler {
+
+    /**
+     * 最大并发数系统属性
+     */
+    public static final String MAX_CONCURRENCY_PROPERTY = "reactive.response.blocking.max-concurrency";
+
+    /**
+     * 默认最大并发数
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    private static final int MAX_CONCURRENCY = Math.max(1,
+            Integer.getInteger(MAX_CONCURRENCY_PROPERTY, DEFAULT_MAX_CONCURRENCY));
+
+    private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENCY);
+
+    private static final ExecutorService VIRTUAL_EXECUTOR = newVirtualThreadExecutor();
+
+    private static final Scheduler SCHEDULER = VIRTUAL_EXECUTOR != null
+            ? Schedulers.fromExecutorService(VIRTUAL_EXECUTOR, "reactive-response-virtual")
+            : Schedulers.newBoundedElastic(MAX_CONCURRENCY, Integer.MAX_VALUE, "reactive-response-blocking", 60, true);
+
+    private BlockingCallScheduler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 在阻塞调度器上执行调用
+     * 调用返回null时得到空Mono
+     *
+     * @param callable 阻塞调用
+     * @param <T>      数据类型
+     * @return 调用结果Mono
+     */
+    public static <T> Mono<T> call(Callable<T> callable) {
+        return Mono.fromCallable(() -> {
+            PERMITS.acquire();
+            try {
+                return callable.call();
+            } finally {
+                PERMITS.release();
+            }
+        }).subscribeOn(SCHEDULER);
+    }
+
+    /**
+     * 获取阻塞调度器
+     *
+     * @return 调度器
+     */
+    public static Scheduler scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * 是否使用虚拟线程
+     *
+     * @return 运行在JDK 21+时返回true
+     */
+    public static boolean isVirtualThreadBacked() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * 获取最大并发数
+     *
+     * @return 最大并发数
+     */
+    public static int maxConcurrency() {
+        return MAX_CONCURRENCY;
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，保持以JDK 11为编译目标
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 增量响应的快照存储
+ * 每次返回列表时按(键, 版本号)保存发送过的元素，客户端带着版本号再次请求时与快照比较，
+ * 只返回新增、变化（按equals比较）的元素和被删除元素的标识。快照总数有上限，按最近使用淘汰，
+ * 快照被淘汰或版本号未知时返回全量列表。内容与该键最新快照相同时复用其版本号，不保存新快照
+ *
+ * @param <T> 元素类型
+ * @param <K> 元素标识类型
+ */
+public final class DeltaSnapshots<T, K> {
+
+    /**
+     * 默认快照数上限
+     */
+    public static final int DEFAULT_MAX_SNAPSHOTS = 1024;
+
+    /**
+     * 默认单个快照的元素数上限，超过时不保存快照，每次返回全量列表
+     */
+    public static final int DEFAULT_MAX_ITEMS = 10_000;
+
+    private final Function<? super T, ? extends K> idExtractor;
+    private final int maxItems;
+    private final Map<SnapshotKey, Snapshot<T, K>> snapshots;
+    private final Map<String, Snapshot<T, K>> latest;
+
+    /**
+     * 版本号前缀，区分不同实例（如重启前后）签发的版本号
+     */
+    private final String versionPrefix = Long.toString(ThreadLocalRandom.current().nextLong() >>> 16, 36) + "-";
+    private final AtomicLong versions = new AtomicLong();
+
+    public DeltaSnapshots(Function<? super T, ? extends K> idExtractor) {
+        this(idExtractor, DEFAULT_MAX_SNAPSHOTS, DEFAULT_MAX_ITEMS);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param idExtractor  元素标识提取函数，标识在同一列表中唯一
+     * @param maxSnapshots 快照数上限
+     * @param maxItems     单个快照的元素数上限
+     */
+    public DeltaSnapshots(Function<? super T, ? extends K> idExtractor, int maxSnapshots, int maxItems) {
+        if (maxSnapshots < 1) {
+            throw new IllegalArgumentException("maxSnapshots must be positive: " + maxSnapshots);
+        }
+        if (maxItems < 0) {
+            throw new IllegalArgumentException("maxItems must not be negative: " + maxItems);
+        }
+        this.idExtractor = Objects.requireNonNull(idExtractor, "idExtractor");
+        this.maxItems = maxItems;
+        this.snapshots = new LinkedHashMap<SnapshotKey, Snapshot<T, K>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SnapshotKey, Snapshot<T, K>> eldest) {
+                if (size() <= maxSnapshots) {
+                    return false;
+                }
+                latest.remove(eldest.getKey().key, eldest.getValue());
+                return true;
+            }
+        };
+        this.latest = new LinkedHashMap<>();
+    }
+
+    /**
+     * 收集元素并与客户端版本的快照比较
+     *
+     * @param key     列表的键，如接口路径加查询条件，不同用户可见数据不同时应包含用户标识
+     * @param version 客户端上次收到的版本号，首次请求为null
+     * @param items   当前全部元素
+     * @return 增量结果，快照不存在时为全量结果
+     */
+    public Mono<DeltaResult<T>> diff(String key, String version, Flux<T> items) {
+        Objects.requireNonNull(key, "key");
+        return items.collectList().map(list -> diff(key, version, list));
+    }
+
+    /**
+     * 与客户端版本的快照比较
+     *
+     * @param key     列表的键
+     * @param version 客户端上次收到的版本号，首次请求为null
+     * @param items   当前全部元素
+     * @return 增量结果，快照不存在时为全量结果
+     */
+    public DeltaResult<T> diff(String key, String version, List<T> items) {
+        Objects.requireNonNull(key, "key");
+        Snapshot<T, K> base = version == null ? null : get(new SnapshotKey(key, version));
+        if (items.size() > maxItems) {
+            return DeltaResult.full(null, items);
+        }
+        Map<K, T> current = index(items);
+        Snapshot<T, K> snapshot = store(key, current);
+        if (base == null) {
+            return DeltaResult.full(snapshot.version, items);
+        }
+        if (base == snapshot) {
+            return DeltaResult.delta(snapshot.version,
+                    Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        }
+        List<T> added = new ArrayList<>();
+        List<T> changed = new ArrayList<>();
+        for (Map.Entry<K, T> entry : current.entrySet()) {
+            T previous = base.items.get(entry.getKey());
+            if (previous == null) {
+                added.add(entry.getValue());
+            } else if (!previous.equals(entry.getValue())) {
+                changed.add(entry.getValue());
+            }
+        }
+        List<Object> removed = new ArrayList<>();
+        for (K id : base.items.keySet()) {
+            if (!current.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        return DeltaResult.delta(snapshot.version, added, changed, removed);
+    }
+
+    /**
+     * 获取当前保存的快照数
+     *
+     * @return 快照数
+     */
+    public int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private Map<K, T> index(List<T> items) {
+        Map<K, T> index = new LinkedHashMap<>(Math.max(16, (int) (items.size() / 0.75f) + 1));
+        for (T item : items) {
+            K id = Objects.requireNonNull(idExtractor.apply(item), "item id");
+            if (index.put(id, item) != null) {
+                throw new IllegalArgumentException("duplicate item id: " + id);
+            }
+        }
+        return index;
+    }
+
+    private Snapshot<T, K> get(SnapshotKey key) {
+        synchronized (snapshots) {
+            return snapshots.get(key);
+        }
+    }
+
+    /**
+     * 内容与该键最新快照相同时复用，否则保存为新版本
+     * 比较在锁外进行，快照保存后不再修改
+     */
+    private Snapshot<T, K> store(String key, Map<K, T> items) {
+        Snapshot<T, K> previous;
+        synchronized (snapshots) {
+            previous = latest.get(key);
+        }
+        if (previous != null && previous.items.equals(items)) {
+            synchronized (snapshots) {
+                // 刷新最近使用顺序
+                snapshots.get(new SnapshotKey(key, previous.version));
+            }
+            return previous;
+        }
+        Snapshot<T, K> snapshot = new Snapshot<>(versionPrefix + Long.toString(versions.incrementAndGet(), 36),
+                Collections.unmodifiableMap(items));
+        synchronized (snapshots) {
+            latest.put(key, snapshot);
+            snapshots.put(new SnapshotKey(key, snapshot.version), snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 快照的键
+     */
+    private static final class SnapshotKey {
+
+        private final String key;
+        private final String version;
+
+        private SnapshotKey(String key, String version) {
+            this.key = key;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SnapshotKey)) {
+                return false;
+            }
+            SnapshotKey other = (SnapshotKey) o;
+            return key.equals(other.key) && version.equals(other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + version.hashCode();
+        }
+    }
+
+    /**
+     * 发送过的元素，按标识索引
+     */
+    private static final class Snapshot<T, K> {
+
+        private final String version;
+        private final Map<K, T> items;
+
+        private Snapshot(String version, Map<K, T> items) {
+            this.version = version;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.hzcssss.reactive.response.util;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 有界并发的逐元素扩展调用
+ * 对每个元素调用一次映射（如按ID查询详情），同时执行的调用不超过并发数，
+ * 可限制单个调用的耗时，单个调用失败时可以跳过该元素或使整个结果失败
+ */
+public final class FanOut {
+
+    /**
+     * 单个元素调用失败（含超时）时的处理方式
+     */
+    public enum ItemErrorMode {
+        /**
+         * 整个结果以该错误结束
+         */
+        FAIL,
+        /**
+         * 丢弃该元素，继续处理其余元素
+         */
+        SKIP
+    }
+
+    private FanOut() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 对每个元素执行映射，调用失败时整个结果失败
+     *
+     * @param source      输入元素
+     * @param mapper      元素映射
+     * @param concurrency 最大并发调用数
+     * @param ordered     是否按输入顺序输出，为false时按完成顺序输出
+     * @param <S>         输入类型
+     * @param <R>         结果类型
+     * @return 映射结果
+     */
+    public static <S, R> Flux<R> apply(Flux<S> source,
+                                       Function<? super S, ? extends Mono<? extends R>> mapper,
+                                       int concurrency,
+                                       boolean ordered) {
+        return apply(source, mapper, concurrency, ordered, null, ItemErrorMode.FAIL);
+    }
+
+    /**
+     * 对每个元素执行映射
+     *
+     * @param source      输入元素
+     * @param mapper      元素映射，结果为空的元素不输出
+     * @param concurrency 最大并发调用数
+     * @param ordered     是否按输入顺序输出，为false时按完成顺序输出
+     * @param itemTimeout 单个调用的超时时间，为null时不限制
+     * @param errorMode   单个调用失败时的处理方式
+     * @param <S>         输入类型
+     * @param <R>         结果类型
+     * @return 映射结果
+     */
+    public static <S, R> Flux<R> apply(Flux<S> source,
+                                       Function<? super S, ? extends Mono<? extends R>> mapper,
+                                       int concurrency,
+                                       boolean ordered,
+                                       Duration itemTimeout,
+                                       ItemErrorMode errorMode) {
+        Objects.requireNonNull(mapper, "mapper");
+        Objects.requireNonNull(errorMode, "errorMode");
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        Function<S, Mono<R>> call = item -> {
+            Mono<R> result = Mono.defer(() -> mapper.apply(item));
+            if (itemTimeout != null) {
+                result = result.timeout(itemTimeout);
+            }
+            return errorMode == ItemErrorMode.SKIP ? result.onErrorResume(e -> Mono.empty()) : result;
+        };
+        // 有序时已完成但排在前面的元素未完成的结果会暂存，暂存量不超过并发数
+        return ordered
+                ? source.flatMapSequential(call, concurrency, 1)
+                : source.flatMap(call, concurrency, 1);
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.hzcssss.reactive.response.util;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求策略
+ * 原始请求在延迟内没有结束时再订阅一次请求，取先结束的结果并取消另一个，
+ * 延迟可以固定，也可以取最近请求耗时的分位数。同一策略实例应在请求之间共享，
+ * 耗时统计和在途对冲数都保存在实例上
+ */
+public final class HedgingPolicy {
+
+    /**
+     * 默认分位数
+     */
+    public static final double DEFAULT_PERCENTILE = 0.95;
+
+    /**
+     * 耗时采样窗口大小
+     */
+    static final int WINDOW_SIZE = 256;
+
+    /**
+     * 每记录多少个样本重新计算一次分位数
+     */
+    static final int RECOMPUTE_INTERVAL = 32;
+
+    private final long fixedDelayNanos;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int maxHedgesInFlight;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW_SIZE);
+    /**
+     * 已记录的样本数，使用long避免长期运行后溢出为负数
+     */
+    final AtomicLong sampleCount = new AtomicLong();
+    private final AtomicInteger hedgesInFlight = new AtomicInteger();
+    private final LongAdder hedgesIssued = new LongAdder();
+    private final LongAdder hedgesRejected = new LongAdder();
+
+    private volatile long adaptiveDelayNanos;
+
+    private HedgingPolicy(long fixedDelayNanos, double percentile, long minDelayNanos, int maxHedgesInFlight) {
+        if (maxHedgesInFlight < 1) {
+            throw new IllegalArgumentException("maxHedgesInFlight must be positive: " + maxHedgesInFlight);
+        }
+        this.fixedDelayNanos = fixedDelayNanos;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.maxHedgesInFlight = maxHedgesInFlight;
+        this.adaptiveDelayNanos = minDelayNanos;
+    }
+
+    /**
+     * 固定延迟的对冲策略
+     *
+     * @param delay             对冲延迟
+     * @param maxHedgesInFlight 最多同时在途的对冲请求数
+     * @return 对冲策略
+     */
+    public static HedgingPolicy fixedDelay(Duration delay, int maxHedgesInFlight) {
+        long nanos = Objects.requireNonNull(delay, "delay").toNanos();
+        return new HedgingPolicy(nanos, 0, nanos, maxHedgesInFlight);
+    }
+
+    /**
+     * 按最近耗时的p95对冲
+     *
+     * @param minDelay          最小延迟，样本不足时也使用该延迟
+     * @param maxHedgesInFlight 最多同时在途的对冲请求数
+     * @return 对冲策略
+     */
+    public static HedgingPolicy adaptive(Duration minDelay, int maxHedgesInFlight) {
+        return adaptive(DEFAULT_PERCENTILE, minDelay, maxHedgesInFlight);
+    }
+
+    /**
+     * 按最近耗时的分位数对冲
+     *
+     * @param percentile        分位数，0到1之间
+     * @param minDelay          最小延迟，样本不足时也使用该延迟
+     * @param maxHedgesInFlight 最多同时在途的对冲请求数
+     * @return 对冲策略
+     */
+    public static HedgingPolicy adaptive(double percentile, Duration minDelay, int maxHedgesInFlight) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1: " + percentile);
+        }
+        return new HedgingPolicy(-1, percentile, Objects.requireNonNull(minDelay, "minDelay").toNanos(),
+                maxHedgesInFlight);
+    }
+
+    /**
+     * 对冲执行请求
+     * 每次订阅调用supplier得到原始请求，超过延迟后再调用一次得到对冲请求，
+     * 在途对冲数达到上限时不再对冲，只等待原始请求
+     *
+     * @param supplier 请求提供者，每次调用都应返回独立执行的请求
+     * @param <T>      数据类型
+     * @return 先结束的请求结果
+     */
+    public <T> Mono<T> apply(Supplier<? extends Mono<? extends T>> supplier) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Mono<T> primary = Mono.defer(supplier);
+            Mono<T> hedge = Mono.delay(Duration.ofNanos(currentDelayNanos()))
+                    .then(Mono.defer(() -> startHedge(supplier)));
+            return Mono.firstWithSignal(primary, hedge)
+                    .doOnSuccess(value -> recordLatency(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * 获取当前对冲延迟
+     *
+     * @return 对冲延迟
+     */
+    public Duration currentDelay() {
+        return Duration.ofNanos(currentDelayNanos());
+    }
+
+    /**
+     * 获取在途对冲请求数
+     *
+     * @return 在途对冲请求数
+     */
+    public int hedgesInFlight() {
+        return hedgesInFlight.get();
+    }
+
+    /**
+     * 获取已发出的对冲请求总数
+     *
+     * @return 对冲请求总数
+     */
+    public long hedgesIssued() {
+        return hedgesIssued.sum();
+    }
+
+    /**
+     * 获取因达到上限而放弃的对冲次数
+     *
+     * @return 放弃次数
+     */
+    public long hedgesRejected() {
+        return hedgesRejected.sum();
+    }
+
+    private <T> Mono<T> startHedge(Supplier<? extends Mono<? extends T>> supplier) {
+        int current;
+        do {
+            current = hedgesInFlight.get();
+            if (current >= maxHedgesInFlight) {
+                hedgesRejected.increment();
+                // 不对冲时保持沉默，结果由原始请求决定
+                return Mono.never();
+            }
+        } while (!hedgesInFlight.compareAndSet(current, current + 1));
+        hedgesIssued.increment();
+        return Mono.<T>defer(supplier).doFinally(signal -> hedgesInFlight.decrementAndGet());
+    }
+
+    private long currentDelayNanos() {
+        return fixedDelayNanos >= 0 ? fixedDelayNanos : adaptiveDelayNanos;
+    }
+
+    /**
+     * 记录一次请求耗时，对冲胜出时记录的是整体耗时，即原始请求耗时的下界
+     */
+    void recordLatency(long nanos) {
+        if (fixedDelayNanos >= 0) {
+            return;
+        }
+        long count = sampleCount.getAndIncrement();
+        samples.set((int) (count & (WINDOW_SIZE - 1)), nanos);
+        if ((count + 1) % RECOMPUTE_INTERVAL == 0) {
+            recompute((int) Math.min(count + 1, WINDOW_SIZE));
+        }
+    }
+
+    private void recompute(int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        long value = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+        adaptiveDelayNanos = Math.max(minDelayNanos, value);
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy{" +
+                (fixedDelayNanos >= 0 ? "fixedDelay=" + Duration.ofNanos(fixedDelayNanos)
+                        : "percentile=" + percentile + ", currentDelay=" + currentDelay()) +
+                ", maxHedgesInFlight=" + maxHedgesInFlight +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.hzcssss.reactive.response.util;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog基数估计
+ * 使用固定大小的寄存器估计不同元素的数量，内存与元素数量无关，
+ * 精度p对应2^p个寄存器，标准误差约为1.04/sqrt(2^p)
+ */
+public final class HyperLogLog {
+
+    /**
+     * 默认精度，16384个寄存器，标准误差约0.8%
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * 添加元素，使用hashCode再做64位混合
+     *
+     * @param value 元素，null被忽略
+     */
+    public void add(Object value) {
+        if (value != null) {
+            addHash(mix(value.hashCode()));
+        }
+    }
+
+    /**
+     * 添加long值
+     *
+     * @param value 元素
+     */
+    public void addLong(long value) {
+        addHash(mix(value));
+    }
+
+    /**
+     * 添加已经均匀分布的64位哈希值
+     *
+     * @param hash 哈希值
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long rest = hash << precision;
+        int rank = rest == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(rest) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * 合并另一个相同精度的估计器
+     *
+     * @param other 另一个估计器
+     * @return 当前估计器
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision mismatch: " + precision + " vs " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 估计不同元素数量
+     *
+     * @return 估计值
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // 小基数时使用线性计数修正
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 获取精度
+     *
+     * @return 精度
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * 复制寄存器
+     *
+     * @return 寄存器副本
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(registers, registers.length);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * MurmurHash3的64位混合函数
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
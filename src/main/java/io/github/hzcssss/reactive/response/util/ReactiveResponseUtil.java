@@ -1,11 +1,30 @@
 package io.github.hzcssss.reactive.response.util;
 
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+import io.github.hzcssss.reactive.response.core.IntArray;
+import io.github.hzcssss.reactive.response.core.LongArray;
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 
 /**
  * 响应式响应工具类
@@ -18,16 +37,20 @@ public class ReactiveResponseUtil {
 
     /**
      * 将Mono包装为ReactiveResponse
+     * 源为Mono.just、Mono.empty、Mono.error时只组装一个操作符，订阅时生成响应
      *
      * @param mono 原始Mono
      * @param <T>  数据类型
      * @return 包装后的Mono
      */
     public static <T> Mono<ReactiveResponse<T>> wrapMono(Mono<T> mono) {
+        if (mono instanceof Fuseable.ScalarCallable) {
+            return resolveScalar(mono, ReactiveResponse::success,
+                    e -> ExceptionMappingRegistry.getDefault().toResponse(e));
+        }
         return mono
                 .map(ReactiveResponse::success)
-                .onErrorResume(BusinessException.class, e -> Mono.just(ReactiveResponse.failure(e)))
-                .onErrorResume(e -> Mono.just(ReactiveResponse.failure(e)));
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
     }
 
     /**
@@ -41,8 +64,315 @@ public class ReactiveResponseUtil {
         return flux
                 .collectList()
                 .map(ReactiveResponse::success)
-                .onErrorResume(BusinessException.class, e -> Mono.just(ReactiveResponse.failure(e)))
-                .onErrorResume(e -> Mono.just(ReactiveResponse.failure(e)));
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
+    }
+
+    /**
+     * 用收集器增量聚合Flux并包装为ReactiveResponse，不物化元素列表
+     * 常用的计数、求和、最值、近似去重见{@link StreamingCollectors}
+     *
+     * @param flux      原始Flux
+     * @param collector 收集器
+     * @param <T>       元素类型
+     * @param <R>       结果类型
+     * @return 包装后的Mono
+     */
+    public static <T, R> Mono<ReactiveResponse<R>> wrapCollect(Flux<T> flux, Collector<? super T, ?, R> collector) {
+        return StreamingCollectors.collect(flux, collector)
+                .map(result -> ReactiveResponse.success(result.orElse(null)))
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
+    }
+
+    /**
+     * 用归约函数增量聚合Flux并包装为ReactiveResponse，不物化元素列表
+     *
+     * @param flux        原始Flux
+     * @param initial     初始值提供者，每次订阅调用一次
+     * @param accumulator 归约函数
+     * @param <T>         元素类型
+     * @param <R>         结果类型
+     * @return 包装后的Mono
+     */
+    public static <T, R> Mono<ReactiveResponse<R>> wrapReduce(Flux<T> flux,
+                                                             Supplier<R> initial,
+                                                             BiFunction<R, ? super T, R> accumulator) {
+        return wrapMono(flux.reduceWith(initial, accumulator));
+    }
+
+    /**
+     * 将数值Flux包装为long数组响应，数值存为基本类型，不物化装箱列表
+     *
+     * @param flux 原始Flux
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<LongArray>> wrapLongs(Flux<? extends Number> flux) {
+        return wrapLongs(flux, Number::longValue);
+    }
+
+    /**
+     * 按取值函数将Flux包装为long数组响应
+     *
+     * @param flux   原始Flux
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<LongArray>> wrapLongs(Flux<T> flux, ToLongFunction<? super T> mapper) {
+        return wrapMono(flux.collect(LongArray::new, (array, item) -> array.add(mapper.applyAsLong(item))));
+    }
+
+    /**
+     * 将按块产生的long数组Flux合并为long数组响应
+     *
+     * @param chunks 数值块
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<LongArray>> wrapLongChunks(Flux<long[]> chunks) {
+        return wrapMono(chunks.collect(LongArray::new, LongArray::addAll));
+    }
+
+    /**
+     * 将数值Flux包装为int数组响应，数值存为基本类型，不物化装箱列表
+     *
+     * @param flux 原始Flux
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<IntArray>> wrapInts(Flux<? extends Number> flux) {
+        return wrapInts(flux, Number::intValue);
+    }
+
+    /**
+     * 按取值函数将Flux包装为int数组响应
+     *
+     * @param flux   原始Flux
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<IntArray>> wrapInts(Flux<T> flux, ToIntFunction<? super T> mapper) {
+        return wrapMono(flux.collect(IntArray::new, (array, item) -> array.add(mapper.applyAsInt(item))));
+    }
+
+    /**
+     * 将按块产生的int数组Flux合并为int数组响应
+     *
+     * @param chunks 数值块
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<IntArray>> wrapIntChunks(Flux<int[]> chunks) {
+        return wrapMono(chunks.collect(IntArray::new, IntArray::addAll));
+    }
+
+    /**
+     * 将数值Flux包装为double数组响应，数值存为基本类型，不物化装箱列表
+     *
+     * @param flux 原始Flux
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<DoubleArray>> wrapDoubles(Flux<? extends Number> flux) {
+        return wrapDoubles(flux, Number::doubleValue);
+    }
+
+    /**
+     * 按取值函数将Flux包装为double数组响应
+     *
+     * @param flux   原始Flux
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<DoubleArray>> wrapDoubles(Flux<T> flux, ToDoubleFunction<? super T> mapper) {
+        return wrapMono(flux.collect(DoubleArray::new, (array, item) -> array.add(mapper.applyAsDouble(item))));
+    }
+
+    /**
+     * 将按块产生的double数组Flux合并为double数组响应
+     *
+     * @param chunks 数值块
+     * @return 包装后的Mono
+     */
+    public static Mono<ReactiveResponse<DoubleArray>> wrapDoubleChunks(Flux<double[]> chunks) {
+        return wrapMono(chunks.collect(DoubleArray::new, DoubleArray::addAll));
+    }
+
+    /**
+     * 对每个元素执行独立操作并包装为部分成功的批量响应
+     * 单个元素失败只记录在该元素上，其余元素的结果照常返回
+     *
+     * @param items       输入元素
+     * @param operation   元素操作
+     * @param concurrency 并发数
+     * @param <S>         输入类型
+     * @param <T>         结果类型
+     * @return 包装后的Mono
+     */
+    public static <S, T> Mono<ReactiveResponse<BatchResult<T>>> wrapBatch(
+            Flux<S> items,
+            Function<? super S, ? extends Mono<? extends T>> operation,
+            int concurrency) {
+        return BatchCollectors.process(items, operation, concurrency, ExceptionMappingRegistry.getDefault())
+                .map(ReactiveResponse::success)
+                .onErrorResume(e -> Mono.just(ExceptionMappingRegistry.getDefault().toResponse(e)));
+    }
+
+    /**
+     * 以有界并发对每个元素执行映射并包装为列表响应，任一调用失败时返回失败响应
+     *
+     * @param source      输入元素
+     * @param mapper      元素映射
+     * @param concurrency 最大并发调用数
+     * @param ordered     是否按输入顺序输出
+     * @param <S>         输入类型
+     * @param <T>         结果类型
+     * @return 包装后的Mono
+     */
+    public static <S, T> Mono<ReactiveResponse<List<T>>> wrapFanOut(
+            Flux<S> source,
+            Function<? super S, ? extends Mono<? extends T>> mapper,
+            int concurrency,
+            boolean ordered) {
+        return wrapFlux(FanOut.apply(source, mapper, concurrency, ordered));
+    }
+
+    /**
+     * 以有界并发对每个元素执行映射并包装为列表响应
+     *
+     * @param source      输入元素
+     * @param mapper      元素映射
+     * @param concurrency 最大并发调用数
+     * @param ordered     是否按输入顺序输出
+     * @param itemTimeout 单个调用的超时时间，为null时不限制
+     * @param errorMode   单个调用失败时跳过该元素还是返回失败响应
+     * @param <S>         输入类型
+     * @param <T>         结果类型
+     * @return 包装后的Mono
+     */
+    public static <S, T> Mono<ReactiveResponse<List<T>>> wrapFanOut(
+            Flux<S> source,
+            Function<? super S, ? extends Mono<? extends T>> mapper,
+            int concurrency,
+            boolean ordered,
+            Duration itemTimeout,
+            FanOut.ItemErrorMode errorMode) {
+        return wrapFlux(FanOut.apply(source, mapper, concurrency, ordered, itemTimeout, errorMode));
+    }
+
+    /**
+     * 多路归并已排序的数据源并包装为列表响应，不收集全部数据再排序
+     *
+     * @param sources    已排序的数据源
+     * @param comparator 数据源排序使用的比较器
+     * @param <T>        元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<List<T>>> wrapMergeSorted(
+            List<? extends Publisher<? extends T>> sources,
+            Comparator<? super T> comparator) {
+        return wrapMono(SortedMerge.collect(sources, comparator));
+    }
+
+    /**
+     * 多路归并已排序的数据源，取前limit个元素包装为列表响应，取够后取消所有数据源
+     *
+     * @param sources    已排序的数据源
+     * @param comparator 数据源排序使用的比较器
+     * @param limit      最多返回的元素数
+     * @param <T>        元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<List<T>>> wrapMergeSorted(
+            List<? extends Publisher<? extends T>> sources,
+            Comparator<? super T> comparator,
+            int limit) {
+        return wrapMono(SortedMerge.collect(sources, comparator, limit));
+    }
+
+    /**
+     * 与客户端版本的快照比较并包装为增量列表响应，快照不存在时返回全量列表
+     *
+     * @param snapshots 快照存储，应在请求之间共享
+     * @param key       列表的键，如接口路径加查询条件
+     * @param version   客户端上次收到的版本号，首次请求为null
+     * @param items     当前全部元素
+     * @param <T>       元素类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<DeltaResult<T>>> wrapDelta(
+            DeltaSnapshots<T, ?> snapshots,
+            String key,
+            String version,
+            Flux<T> items) {
+        return wrapMono(snapshots.diff(key, version, items));
+    }
+
+    /**
+     * 在阻塞调度器上执行阻塞调用并包装为ReactiveResponse
+     * JDK 21+ 使用虚拟线程，否则使用有界弹性调度器
+     *
+     * @param callable 阻塞调用
+     * @param <T>      数据类型
+     * @return 包装后的Mono
+     */
+    public static <T> Mono<ReactiveResponse<T>> wrapBlocking(Callable<T> callable) {
+        return wrapMono(BlockingCallScheduler.call(callable));
+    }
+
+    /**
+     * 包装标量源（实现{@link Fuseable.ScalarCallable}，如Mono.just、Mono.empty、Mono.error），只组装一个操作符
+     * 每次订阅时才读取源并生成响应，结果与map(onValue).onErrorResume(onError)相同：
+     * onValue抛出的异常同样交给onError转换，源为空时结果为空
+     *
+     * @param mono    标量源，调用前应确认是{@link Fuseable.ScalarCallable}
+     * @param onValue 值转换为响应
+     * @param onError 错误转换为响应
+     * @param <T>     数据类型
+     * @param <R>     响应类型
+     * @return 包含响应的Mono
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> Mono<R> resolveScalar(Mono<T> mono,
+                                               Function<? super T, ? extends R> onValue,
+                                               Function<? super Throwable, ? extends R> onError) {
+        Fuseable.ScalarCallable<T> scalar = (Fuseable.ScalarCallable<T>) mono;
+        return Mono.fromCallable(() -> {
+            T value;
+            try {
+                value = scalar.call();
+            } catch (Throwable e) {
+                Exceptions.throwIfJvmFatal(e);
+                return onError.apply(Exceptions.unwrap(e));
+            }
+            if (value == null) {
+                return null;
+            }
+            try {
+                return onValue.apply(value);
+            } catch (Throwable e) {
+                Exceptions.throwIfJvmFatal(e);
+                return onError.apply(e);
+            }
+        });
+    }
+
+    /**
+     * 转换响应的数据类型，用于把列表类型的错误处理器结果用在批量、聚合等构建方式上
+     * data为null时直接复用原响应，否则复制成功状态、错误码、消息和时间戳，不保留类型不同的data
+     *
+     * @param response 响应
+     * @param <R>      目标数据类型
+     * @return 转换后的响应
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> ReactiveResponse<R> withoutData(ReactiveResponse<?> response) {
+        if (response.getData() == null) {
+            return (ReactiveResponse<R>) response;
+        }
+        ReactiveResponse<R> copy = new ReactiveResponse<>();
+        copy.setSuccess(response.isSuccess());
+        copy.setErrorCode(response.getErrorCode());
+        copy.setMessage(response.getMessage());
+        copy.setTimestamp(response.getTimestamp());
+        return copy;
     }
 
     /**
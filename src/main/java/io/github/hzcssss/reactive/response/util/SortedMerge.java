@@ -0,0 +1,322 @@
+package io.github.hzcssss.reactive.response.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Operators;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 多路有序归并
+ * 各数据源已按同一比较器排好序（如分库查询各自ORDER BY），用小顶堆逐个取出全局最小的元素，
+ * 每个数据源只预取少量元素，不需要收集全部数据再排序；达到数量上限后取消所有数据源
+ */
+public final class SortedMerge {
+
+    /**
+     * 每个数据源默认预取的元素数
+     */
+    public static final int DEFAULT_PREFETCH = 32;
+
+    private SortedMerge() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 归并全部元素
+     *
+     * @param sources    已排序的数据源
+     * @param comparator 数据源排序使用的比较器
+     * @param <T>        元素类型
+     * @return 归并后的有序列表
+     */
+    public static <T> Mono<List<T>> collect(List<? extends Publisher<? extends T>> sources,
+                                            Comparator<? super T> comparator) {
+        return collect(sources, comparator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 归并前limit个元素，取够后取消所有数据源
+     * 比较结果相等的元素按数据源在列表中的顺序输出
+     *
+     * @param sources    已排序的数据源
+     * @param comparator 数据源排序使用的比较器
+     * @param limit      最多返回的元素数
+     * @param <T>        元素类型
+     * @return 归并后的有序列表
+     */
+    public static <T> Mono<List<T>> collect(List<? extends Publisher<? extends T>> sources,
+                                            Comparator<? super T> comparator,
+                                            int limit) {
+        Objects.requireNonNull(sources, "sources");
+        Objects.requireNonNull(comparator, "comparator");
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        if (limit == 0 || sources.isEmpty()) {
+            return Mono.fromSupplier(ArrayList::new);
+        }
+        return Mono.create(sink -> new MergeState<T>(sources, comparator, limit, sink).start());
+    }
+
+    /**
+     * 归并状态，堆和结果列表只在drain中访问，drain由wip计数保证串行执行
+     */
+    private static final class MergeState<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<MergeState> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(MergeState.class, "wip");
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<MergeState, Throwable> ERROR =
+                AtomicReferenceFieldUpdater.newUpdater(MergeState.class, Throwable.class, "error");
+
+        private final List<? extends Publisher<? extends T>> publishers;
+        private final List<SourceSubscriber<T>> sources;
+        private final PriorityQueue<Head<T>> heap;
+        private final int limit;
+        private final MonoSink<List<T>> sink;
+
+        /**
+         * 没有元素在堆中、需要等待下一个元素的数据源
+         */
+        private final int[] missing;
+        private int missingCount;
+
+        private final List<T> result = new ArrayList<>();
+
+        private volatile int wip;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+
+        private MergeState(List<? extends Publisher<? extends T>> publishers, Comparator<? super T> comparator,
+                           int limit, MonoSink<List<T>> sink) {
+            this.publishers = publishers;
+            this.limit = limit;
+            this.sink = sink;
+            int size = publishers.size();
+            this.sources = new ArrayList<>(size);
+            this.heap = new PriorityQueue<>(size, (a, b) -> {
+                int c = comparator.compare(a.value, b.value);
+                return c != 0 ? c : Integer.compare(a.source, b.source);
+            });
+            this.missing = new int[size];
+            for (int i = 0; i < size; i++) {
+                sources.add(new SourceSubscriber<>(this, i, DEFAULT_PREFETCH));
+                missing[missingCount++] = i;
+            }
+        }
+
+        private void start() {
+            sink.onCancel(this::cancel);
+            for (int i = 0; i < publishers.size() && !cancelled; i++) {
+                publishers.get(i).subscribe(sources.get(i));
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            cancelSources();
+            drain();
+        }
+
+        private void cancelSources() {
+            for (SourceSubscriber<T> source : sources) {
+                source.cancel();
+            }
+        }
+
+        private void onError(Throwable e) {
+            if (ERROR.compareAndSet(this, null, e)) {
+                drain();
+            } else {
+                Operators.onErrorDropped(e, sink.currentContext());
+            }
+        }
+
+        private void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                Throwable e = error;
+                if (e != null) {
+                    cancelSources();
+                    clear();
+                    sink.error(e);
+                    return;
+                }
+                if (fillHeap()) {
+                    Head<T> head = heap.poll();
+                    if (head == null) {
+                        // 所有数据源都已结束
+                        sink.success(result);
+                        return;
+                    }
+                    result.add(head.value);
+                    if (result.size() >= limit) {
+                        cancelled = true;
+                        cancelSources();
+                        clear();
+                        sink.success(result);
+                        return;
+                    }
+                    sources.get(head.source).consumed();
+                    missing[missingCount++] = head.source;
+                    continue;
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 为每个等待中的数据源取出下一个元素放入堆
+         *
+         * @return 是否所有未结束的数据源都在堆中，只有此时堆顶才是全局最小
+         */
+        private boolean fillHeap() {
+            int i = 0;
+            while (i < missingCount) {
+                SourceSubscriber<T> source = sources.get(missing[i]);
+                boolean done = source.done;
+                T value = source.queue.poll();
+                if (value != null) {
+                    heap.add(new Head<>(value, source.index));
+                } else if (!done) {
+                    i++;
+                    continue;
+                }
+                // 已放入堆或已结束，从等待列表移除
+                missing[i] = missing[--missingCount];
+            }
+            return missingCount == 0;
+        }
+
+        private void clear() {
+            heap.clear();
+            for (SourceSubscriber<T> source : sources) {
+                source.queue.clear();
+            }
+        }
+    }
+
+    /**
+     * 堆中的元素及其来源
+     */
+    private static final class Head<T> {
+
+        private final T value;
+        private final int source;
+
+        private Head(T value, int source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+
+    /**
+     * 单个数据源的订阅者，按预取量请求元素，消费四分之三后补充请求
+     */
+    private static final class SourceSubscriber<T> implements CoreSubscriber<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<SourceSubscriber, Subscription> S =
+                AtomicReferenceFieldUpdater.newUpdater(SourceSubscriber.class, Subscription.class, "s");
+
+        private final MergeState<T> parent;
+        private final int index;
+        private final int prefetch;
+        private final int replenish;
+        private final Queue<T> queue;
+
+        private volatile Subscription s;
+        private volatile boolean done;
+
+        /**
+         * 只在drain中访问
+         */
+        private int consumed;
+
+        private SourceSubscriber(MergeState<T> parent, int index, int prefetch) {
+            this.parent = parent;
+            this.index = index;
+            this.prefetch = prefetch;
+            this.replenish = prefetch - (prefetch >> 2);
+            this.queue = Queues.<T>get(prefetch).get();
+        }
+
+        @Override
+        public Context currentContext() {
+            return parent.sink.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.setOnce(S, this, s)) {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, currentContext());
+                return;
+            }
+            if (!queue.offer(t)) {
+                onError(Operators.onOperatorError(s, Exceptions.failWithOverflow(), t, currentContext()));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+            done = true;
+            parent.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        private void consumed() {
+            if (++consumed == replenish) {
+                consumed = 0;
+                s.request(replenish);
+            }
+        }
+
+        private void cancel() {
+            Operators.terminate(S, this);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 进程内的轻量耗时记录
+ * 按标签记录包装管道的订阅到首个信号、订阅到响应生成、响应序列化写出的耗时，
+ * 记录保存在固定大小的无锁环形缓冲区中，新记录覆盖最旧的记录，不依赖外部链路追踪系统
+ */
+public final class SpanRecorder {
+
+    /**
+     * 默认保留的记录数
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * 请求上下文中写出耗时回填槽位的键，由SpanTimingWebFilter写入
+     */
+    public static final String WRITE_TIMING_KEY = SpanRecorder.class.getName() + ".WRITE_TIMING";
+
+    private final int mask;
+    private final AtomicReferenceArray<Span> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public SpanRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 保留的记录数，向上取整为2的幂
+     */
+    public SpanRecorder(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * 记录Mono包装管道的耗时
+     *
+     * @param label    标签，如接口路径或业务名称
+     * @param source   原始Mono，首个信号在这里观察
+     * @param pipeline 由原始Mono构建响应的管道
+     * @param <T>      数据类型
+     * @param <R>      响应类型
+     * @return 记录耗时的响应Mono
+     */
+    public <T, R> Mono<R> record(String label, Mono<T> source, Function<? super Mono<T>, ? extends Mono<R>> pipeline) {
+        Objects.requireNonNull(label, "label");
+        return Mono.deferContextual(context -> {
+            Timer timer = new Timer(this, label, context.getOrDefault(WRITE_TIMING_KEY, null));
+            return timer.observe(pipeline.apply(source.doOnEach(signal -> timer.firstSignal())));
+        });
+    }
+
+    /**
+     * 记录Flux包装管道的耗时
+     *
+     * @param label    标签，如接口路径或业务名称
+     * @param source   原始Flux，首个信号在这里观察
+     * @param pipeline 由原始Flux构建响应的管道
+     * @param <T>      元素类型
+     * @param <R>      响应类型
+     * @return 记录耗时的响应Mono
+     */
+    public <T, R> Mono<R> record(String label, Flux<T> source, Function<? super Flux<T>, ? extends Mono<R>> pipeline) {
+        Objects.requireNonNull(label, "label");
+        return Mono.deferContextual(context -> {
+            Timer timer = new Timer(this, label, context.getOrDefault(WRITE_TIMING_KEY, null));
+            return timer.observe(pipeline.apply(source.doOnEach(signal -> timer.firstSignal())));
+        });
+    }
+
+    /**
+     * 获取缓冲区中的记录，按开始时间排序
+     *
+     * @return 最近的记录
+     */
+    public List<Span> recent() {
+        List<Span> spans = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Span span = slots.get(i);
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        spans.sort(Comparator.comparingLong(Span::getStartTime));
+        return spans;
+    }
+
+    /**
+     * 获取最近记录中总耗时最长的若干条
+     *
+     * @param limit 条数
+     * @return 按总耗时降序排列的记录
+     */
+    public List<Span> slowest(int limit) {
+        List<Span> spans = recent();
+        spans.sort(Comparator.comparingLong(Span::getTotalMicros).reversed());
+        return spans.size() > limit ? new ArrayList<>(spans.subList(0, limit)) : spans;
+    }
+
+    /**
+     * 按标签统计最近记录的耗时分位数
+     *
+     * @return 标签到统计结果，按标签排序
+     */
+    public Map<String, LabelStats> statistics() {
+        Map<String, List<Span>> byLabel = new TreeMap<>();
+        for (Span span : recent()) {
+            byLabel.computeIfAbsent(span.getLabel(), key -> new ArrayList<>()).add(span);
+        }
+        Map<String, LabelStats> stats = new LinkedHashMap<>();
+        byLabel.forEach((label, spans) -> stats.put(label, new LabelStats(spans)));
+        return stats;
+    }
+
+    /**
+     * 生成诊断报告，包含各标签的分位数和最慢的请求
+     *
+     * @param slowest 最慢请求的条数
+     * @return 可直接序列化为JSON的报告
+     */
+    public Map<String, Object> report(int slowest) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("capacity", slots.length());
+        report.put("recorded", next.get());
+        report.put("labels", statistics());
+        report.put("slowest", slowest(slowest));
+        return report;
+    }
+
+    /**
+     * 清空记录
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    private void add(Span span) {
+        slots.set((int) next.getAndIncrement() & mask, span);
+    }
+
+    /**
+     * 单个请求的写出耗时回填槽位
+     * 响应生成时包装管道把未完成的记录放入槽位，请求处理链结束时补上序列化写出耗时再保存
+     */
+    public static final class WriteTiming {
+
+        private final AtomicReference<Timer> pending = new AtomicReference<>();
+
+        /**
+         * 请求处理链结束时调用
+         */
+        public void finish() {
+            Timer timer = pending.getAndSet(null);
+            if (timer != null) {
+                timer.publish(System.nanoTime());
+            }
+        }
+
+        private void defer(Timer timer) {
+            Timer previous = pending.getAndSet(timer);
+            if (previous != null) {
+                // 同一请求中有多个包装管道时，只有最后一个的写出耗时有意义
+                previous.publish(-1);
+            }
+        }
+    }
+
+    /**
+     * 单次订阅的计时状态
+     */
+    private static final class Timer {
+
+        private static final AtomicIntegerFieldUpdater<Timer> DONE =
+                AtomicIntegerFieldUpdater.newUpdater(Timer.class, "done");
+
+        private final SpanRecorder recorder;
+        private final String label;
+        private final WriteTiming writeTiming;
+        private final long startTime = System.currentTimeMillis();
+        private final long start = System.nanoTime();
+        private volatile long firstSignal = -1;
+        private long complete;
+        private int errorCode;
+        private boolean success;
+        private boolean cancelled;
+        private volatile int done;
+
+        private Timer(SpanRecorder recorder, String label, WriteTiming writeTiming) {
+            this.recorder = recorder;
+            this.label = label;
+            this.writeTiming = writeTiming;
+        }
+
+        private <R> Mono<R> observe(Mono<R> response) {
+            // 在响应传给下游之前结束计时，下游的序列化写出可能在onNext中同步完成
+            return response
+                    .doOnEach(signal -> {
+                        if (signal.isOnNext()) {
+                            outcome(signal.get());
+                            complete(false);
+                        } else if (signal.isOnComplete() || signal.isOnError()) {
+                            complete(false);
+                        }
+                    })
+                    .doOnCancel(() -> complete(true));
+        }
+
+        private void firstSignal() {
+            if (firstSignal < 0) {
+                firstSignal = System.nanoTime();
+            }
+        }
+
+        private void outcome(Object response) {
+            if (response instanceof SpillableResponse) {
+                response = ((SpillableResponse<?>) response).getResponse();
+            }
+            if (response instanceof ReactiveResponse) {
+                errorCode = ((ReactiveResponse<?>) response).getErrorCode();
+                success = ((ReactiveResponse<?>) response).isSuccess();
+            } else {
+                success = true;
+            }
+        }
+
+        private void complete(boolean cancel) {
+            if (!DONE.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            complete = System.nanoTime();
+            cancelled = cancel;
+            if (writeTiming == null || cancel) {
+                publish(-1);
+            } else {
+                writeTiming.defer(this);
+            }
+        }
+
+        /**
+         * 保存记录
+         *
+         * @param written 写出结束的时间，-1表示未知
+         */
+        private void publish(long written) {
+            long first = firstSignal;
+            recorder.add(new Span(label, startTime,
+                    first < 0 ? -1 : (first - start) / 1000,
+                    (complete - start) / 1000,
+                    written < 0 ? -1 : (written - complete) / 1000,
+                    errorCode, success, cancelled));
+        }
+    }
+
+    /**
+     * 单个请求的耗时记录，时间单位为微秒
+     */
+    public static final class Span {
+
+        private final String label;
+        private final long startTime;
+        private final long firstSignalMicros;
+        private final long completeMicros;
+        private final long writeMicros;
+        private final int errorCode;
+        private final boolean success;
+        private final boolean cancelled;
+
+        Span(String label, long startTime, long firstSignalMicros, long completeMicros, long writeMicros,
+             int errorCode, boolean success, boolean cancelled) {
+            this.label = label;
+            this.startTime = startTime;
+            this.firstSignalMicros = firstSignalMicros;
+            this.completeMicros = completeMicros;
+            this.writeMicros = writeMicros;
+            this.errorCode = errorCode;
+            this.success = success;
+            this.cancelled = cancelled;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * 订阅时刻，毫秒时间戳
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * 订阅到源发出首个信号的耗时，源未发出信号时为-1
+         */
+        public long getFirstSignalMicros() {
+            return firstSignalMicros;
+        }
+
+        /**
+         * 订阅到响应生成的耗时
+         */
+        public long getCompleteMicros() {
+            return completeMicros;
+        }
+
+        /**
+         * 响应生成到序列化写出结束的耗时，未注册SpanTimingWebFilter时为-1
+         */
+        public long getWriteMicros() {
+            return writeMicros;
+        }
+
+        /**
+         * 订阅到写出结束（未知时到响应生成）的总耗时
+         */
+        public long getTotalMicros() {
+            return writeMicros < 0 ? completeMicros : completeMicros + writeMicros;
+        }
+
+        public int getErrorCode() {
+            return errorCode;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public String toString() {
+            return "Span{label='" + label + "', firstSignalMicros=" + firstSignalMicros
+                    + ", completeMicros=" + completeMicros + ", writeMicros=" + writeMicros
+                    + ", errorCode=" + errorCode + ", success=" + success + ", cancelled=" + cancelled + "}";
+        }
+    }
+
+    /**
+     * 单个标签的耗时统计，时间单位为微秒
+     */
+    public static final class LabelStats {
+
+        private final int count;
+        private final int failures;
+        private final long[] total;
+        private final long[] firstSignal;
+        private final long[] write;
+
+        LabelStats(List<Span> spans) {
+            this.count = spans.size();
+            int failed = 0;
+            long[] totals = new long[spans.size()];
+            long[] firsts = new long[spans.size()];
+            long[] writes = new long[spans.size()];
+            int firstCount = 0;
+            int writeCount = 0;
+            for (int i = 0; i < spans.size(); i++) {
+                Span span = spans.get(i);
+                if (!span.isSuccess()) {
+                    failed++;
+                }
+                totals[i] = span.getTotalMicros();
+                if (span.getFirstSignalMicros() >= 0) {
+                    firsts[firstCount++] = span.getFirstSignalMicros();
+                }
+                if (span.getWriteMicros() >= 0) {
+                    writes[writeCount++] = span.getWriteMicros();
+                }
+            }
+            this.failures = failed;
+            this.total = sorted(totals, totals.length);
+            this.firstSignal = sorted(firsts, firstCount);
+            this.write = sorted(writes, writeCount);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public long getP50Micros() {
+            return percentile(total, 0.50);
+        }
+
+        public long getP90Micros() {
+            return percentile(total, 0.90);
+        }
+
+        public long getP99Micros() {
+            return percentile(total, 0.99);
+        }
+
+        public long getMaxMicros() {
+            return percentile(total, 1.0);
+        }
+
+        public long getFirstSignalP50Micros() {
+            return percentile(firstSignal, 0.50);
+        }
+
+        public long getFirstSignalP99Micros() {
+            return percentile(firstSignal, 0.99);
+        }
+
+        public long getWriteP50Micros() {
+            return percentile(write, 0.50);
+        }
+
+        public long getWriteP99Micros() {
+            return percentile(write, 0.99);
+        }
+
+        private static long[] sorted(long[] values, int length) {
+            long[] copy = Arrays.copyOf(values, length);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        /**
+         * 最近秩法取分位数，没有样本时为-1
+         */
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+import io.github.hzcssss.reactive.response.core.IntArray;
+import io.github.hzcssss.reactive.response.core.LongArray;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * 流式聚合收集器
+ * 配合wrapCollect使用，元素到达时增量聚合，内存占用与元素数量无关，
+ * 数值聚合在基本类型上累加，不对每个元素装箱
+ */
+public final class StreamingCollectors {
+
+    private StreamingCollectors() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 用收集器聚合Flux，收集结果可以为null（例如空流的最小值）
+     *
+     * @param flux      原始Flux
+     * @param collector 收集器
+     * @param <T>       元素类型
+     * @param <R>       结果类型
+     * @return 聚合结果
+     */
+    public static <T, R> Mono<Optional<R>> collect(Flux<T> flux, Collector<? super T, ?, R> collector) {
+        return flux.collect(Collectors.collectingAndThen(collector, Optional::ofNullable));
+    }
+
+    /**
+     * 计数
+     *
+     * @param <T> 元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, Long> counting() {
+        return Collector.of(
+                () -> new long[1],
+                (state, item) -> state[0]++,
+                (left, right) -> {
+                    left[0] += right[0];
+                    return left;
+                },
+                state -> state[0]);
+    }
+
+    /**
+     * long求和
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, Long> summingLong(ToLongFunction<? super T> mapper) {
+        return Collectors.summingLong(mapper);
+    }
+
+    /**
+     * double求和
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, Double> summingDouble(ToDoubleFunction<? super T> mapper) {
+        return Collectors.summingDouble(mapper);
+    }
+
+    /**
+     * long最小值
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器，没有元素时结果为null
+     */
+    public static <T> Collector<T, ?, Long> minLong(ToLongFunction<? super T> mapper) {
+        return Collectors.collectingAndThen(Collectors.summarizingLong(mapper),
+                statistics -> statistics.getCount() == 0 ? null : statistics.getMin());
+    }
+
+    /**
+     * long最大值
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器，没有元素时结果为null
+     */
+    public static <T> Collector<T, ?, Long> maxLong(ToLongFunction<? super T> mapper) {
+        return Collectors.collectingAndThen(Collectors.summarizingLong(mapper),
+                statistics -> statistics.getCount() == 0 ? null : statistics.getMax());
+    }
+
+    /**
+     * long统计（数量、总和、最小值、最大值、平均值）
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, LongSummaryStatistics> summarizingLong(ToLongFunction<? super T> mapper) {
+        return Collectors.summarizingLong(mapper);
+    }
+
+    /**
+     * double统计（数量、总和、最小值、最大值、平均值）
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, DoubleSummaryStatistics> summarizingDouble(ToDoubleFunction<? super T> mapper) {
+        return Collectors.summarizingDouble(mapper);
+    }
+
+    /**
+     * 收集为long数组，元素取值后直接存为基本类型
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, LongArray> toLongArray(ToLongFunction<? super T> mapper) {
+        return Collector.of(LongArray::new, (array, item) -> array.add(mapper.applyAsLong(item)), LongArray::addAll);
+    }
+
+    /**
+     * 收集为int数组，元素取值后直接存为基本类型
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, IntArray> toIntArray(ToIntFunction<? super T> mapper) {
+        return Collector.of(IntArray::new, (array, item) -> array.add(mapper.applyAsInt(item)), IntArray::addAll);
+    }
+
+    /**
+     * 收集为double数组，元素取值后直接存为基本类型
+     *
+     * @param mapper 取值函数
+     * @param <T>    元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, DoubleArray> toDoubleArray(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(DoubleArray::new, (array, item) -> array.add(mapper.applyAsDouble(item)), DoubleArray::addAll);
+    }
+
+    /**
+     * 近似去重计数，基于HyperLogLog，默认精度标准误差约0.8%
+     *
+     * @param <T> 元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, Long> approximateDistinctCount() {
+        return approximateDistinctCount(Function.identity(), HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * 按键近似去重计数，基于HyperLogLog
+     *
+     * @param keyMapper 去重键
+     * @param precision 精度，4到18
+     * @param <T>       元素类型
+     * @return 收集器
+     */
+    public static <T> Collector<T, ?, Long> approximateDistinctCount(Function<? super T, ?> keyMapper, int precision) {
+        return Collector.of(
+                () -> new HyperLogLog(precision),
+                (sketch, item) -> sketch.add(keyMapper.apply(item)),
+                HyperLogLog::merge,
+                HyperLogLog::estimate,
+                Collector.Characteristics.UNORDERED);
+    }
+}
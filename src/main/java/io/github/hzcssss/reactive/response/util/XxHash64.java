@@ -0,0 +1,183 @@
+package io.github.hzcssss.reactive.response.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * xxHash64哈希
+ * 非加密哈希，用于快速判断内容是否变化，支持分段增量计算
+ */
+public final class XxHash64 {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long seed;
+    private final byte[] buffer = new byte[32];
+    private int buffered;
+    private long totalLength;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    public XxHash64() {
+        this(0);
+    }
+
+    public XxHash64(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * 计算字节数组的哈希
+     *
+     * @param data 数据
+     * @return 哈希值
+     */
+    public static long hash(byte[] data) {
+        return hash(data, 0, data.length, 0);
+    }
+
+    /**
+     * 计算字节数组片段的哈希
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param seed   种子
+     * @return 哈希值
+     */
+    public static long hash(byte[] data, int offset, int length, long seed) {
+        return new XxHash64(seed).update(data, offset, length).getValue();
+    }
+
+    /**
+     * 追加数据
+     *
+     * @param data   数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 当前实例
+     */
+    public XxHash64 update(byte[] data, int offset, int length) {
+        totalLength += length;
+        int end = offset + length;
+        if (buffered > 0) {
+            int fill = Math.min(32 - buffered, length);
+            System.arraycopy(data, offset, buffer, buffered, fill);
+            buffered += fill;
+            offset += fill;
+            if (buffered < 32) {
+                return this;
+            }
+            processStripe(buffer, 0);
+            buffered = 0;
+        }
+        for (; offset + 32 <= end; offset += 32) {
+            processStripe(data, offset);
+        }
+        if (offset < end) {
+            System.arraycopy(data, offset, buffer, 0, end - offset);
+            buffered = end - offset;
+        }
+        return this;
+    }
+
+    /**
+     * 追加单个字节
+     *
+     * @param b 字节
+     * @return 当前实例
+     */
+    public XxHash64 update(int b) {
+        totalLength++;
+        buffer[buffered++] = (byte) b;
+        if (buffered == 32) {
+            processStripe(buffer, 0);
+            buffered = 0;
+        }
+        return this;
+    }
+
+    /**
+     * 获取当前已追加数据的哈希，不影响继续追加
+     *
+     * @return 哈希值
+     */
+    public long getValue() {
+        long h;
+        if (totalLength >= 32) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        h += totalLength;
+
+        int i = 0;
+        for (; i + 8 <= buffered; i += 8) {
+            h ^= round(0, (long) LONG_LE.get(buffer, i));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (i + 4 <= buffered) {
+            h ^= ((int) INT_LE.get(buffer, i) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            i += 4;
+        }
+        for (; i < buffered; i++) {
+            h ^= (buffer[i] & 0xFF) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /**
+     * 重置为初始状态
+     */
+    public void reset() {
+        v1 = seed + PRIME64_1 + PRIME64_2;
+        v2 = seed + PRIME64_2;
+        v3 = seed;
+        v4 = seed - PRIME64_1;
+        buffered = 0;
+        totalLength = 0;
+    }
+
+    private void processStripe(byte[] data, int offset) {
+        v1 = round(v1, (long) LONG_LE.get(data, offset));
+        v2 = round(v2, (long) LONG_LE.get(data, offset + 8));
+        v3 = round(v3, (long) LONG_LE.get(data, offset + 16));
+        v4 = round(v4, (long) LONG_LE.get(data, offset + 24));
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+}
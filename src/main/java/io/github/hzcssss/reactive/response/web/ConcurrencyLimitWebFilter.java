@@ -0,0 +1,93 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
+import io.github.hzcssss.reactive.response.util.AdaptiveConcurrencyLimiter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * 并发限制过滤器
+ * 超过并发上限的请求不进入处理链，直接返回503和过载响应，
+ * 响应体由ReactiveResponseEncoder按缓存的头部模板编码，拒绝路径只写出时间戳。
+ * 放行的请求在Reactor上下文中带有该限制器的标记，构建器的limit(limiter)使用同一限制器时不会重复占用名额
+ */
+public class ConcurrencyLimitWebFilter implements WebFilter {
+
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(ReactiveResponse.class);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ReactiveResponseEncoder encoder;
+    private final int errorCode;
+    private final String message;
+
+    public ConcurrencyLimitWebFilter(AdaptiveConcurrencyLimiter limiter) {
+        this(limiter, new ObjectMapper().registerModule(new ReactiveResponseModule()));
+    }
+
+    public ConcurrencyLimitWebFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper) {
+        this(limiter, objectMapper, ResponseCode.OVERLOADED.getErrorCode(), ResponseCode.OVERLOADED.getMessage());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param limiter      并发限制器
+     * @param objectMapper 编码过载响应使用的ObjectMapper
+     * @param errorCode    过载响应的错误码
+     * @param message      过载响应的消息
+     */
+    public ConcurrencyLimitWebFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+                                     int errorCode, String message) {
+        this.limiter = Objects.requireNonNull(limiter, "limiter");
+        this.encoder = new ReactiveResponseEncoder(Objects.requireNonNull(objectMapper, "objectMapper"));
+        this.errorCode = errorCode;
+        this.message = message;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!limiter.tryAcquire()) {
+            return writeOverloaded(exchange.getResponse());
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.release();
+                    } else {
+                        limiter.release(System.nanoTime() - start);
+                    }
+                })
+                .contextWrite(context -> context.put(AdaptiveConcurrencyLimiter.ADMITTED_CONTEXT_KEY, limiter));
+    }
+
+    /**
+     * 获取并发限制器
+     *
+     * @return 并发限制器
+     */
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    private Mono<Void> writeOverloaded(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromSupplier(() -> encoder.encodeValue(
+                ReactiveResponse.failure(errorCode, message), response.bufferFactory(), RESPONSE_TYPE,
+                MediaType.APPLICATION_JSON, Collections.emptyMap())));
+    }
+}
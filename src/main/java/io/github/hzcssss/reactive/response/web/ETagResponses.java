@@ -0,0 +1,249 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.RawJson;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.util.XxHash64;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 带ETag的响应
+ * data在序列化时同时计算xxHash64作为ETag，请求的If-None-Match与之相同时返回304且不带响应体。
+ * 使用缓存时，命中的数据不再序列化，If-None-Match匹配时连数据源都不会订阅
+ */
+public class ETagResponses {
+
+    private final ObjectMapper objectMapper;
+    private final ExceptionMappingRegistry exceptionMappings;
+    private final long cacheTtlNanos;
+    private final int maxCachedEntries;
+    private final Map<Object, CachedPayload> cache = new ConcurrentHashMap<>();
+
+    public ETagResponses(ObjectMapper objectMapper) {
+        this(objectMapper, Duration.ZERO, 0);
+    }
+
+    public ETagResponses(ObjectMapper objectMapper, Duration cacheTtl, int maxCachedEntries) {
+        this(objectMapper, ExceptionMappingRegistry.getDefault(), cacheTtl, maxCachedEntries);
+    }
+
+    public ETagResponses(ObjectMapper objectMapper, ExceptionMappingRegistry exceptionMappings,
+                         Duration cacheTtl, int maxCachedEntries) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.exceptionMappings = Objects.requireNonNull(exceptionMappings, "exceptionMappings");
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.maxCachedEntries = maxCachedEntries;
+    }
+
+    /**
+     * 将Mono包装为带ETag的响应
+     *
+     * @param request 当前请求
+     * @param mono    原始Mono
+     * @param <T>     数据类型
+     * @return 响应实体
+     */
+    public <T> Mono<ResponseEntity<ReactiveResponse<RawJson>>> wrapMono(ServerHttpRequest request, Mono<T> mono) {
+        return mono
+                .map(this::encode)
+                .map(payload -> toEntity(request, payload))
+                .onErrorResume(e -> Mono.just(toErrorEntity(e)));
+    }
+
+    /**
+     * 将Flux包装为带ETag的列表响应
+     *
+     * @param request 当前请求
+     * @param flux    原始Flux
+     * @param <T>     数据类型
+     * @return 响应实体
+     */
+    public <T> Mono<ResponseEntity<ReactiveResponse<RawJson>>> wrapFlux(ServerHttpRequest request, Flux<T> flux) {
+        return wrapMono(request, flux.collectList());
+    }
+
+    /**
+     * 按缓存键包装响应，缓存有效期内不调用数据源也不重新序列化
+     *
+     * @param request 当前请求
+     * @param key     缓存键
+     * @param loader  数据源，缓存未命中时调用
+     * @param <T>     数据类型
+     * @return 响应实体
+     */
+    public <T> Mono<ResponseEntity<ReactiveResponse<RawJson>>> wrapCached(ServerHttpRequest request, Object key,
+                                                                         Supplier<? extends Mono<T>> loader) {
+        return Mono.defer(() -> {
+            CachedPayload cached = cache.get(key);
+            if (cached != null && cached.expiresAtNanos - System.nanoTime() > 0) {
+                return Mono.just(toEntity(request, cached.payload));
+            }
+            return loader.get()
+                    .map(this::encode)
+                    .doOnNext(payload -> put(key, payload))
+                    .map(payload -> toEntity(request, payload))
+                    .onErrorResume(e -> Mono.just(toErrorEntity(e)));
+        });
+    }
+
+    /**
+     * 使缓存失效
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(Object key) {
+        cache.remove(key);
+    }
+
+    /**
+     * 计算数据对应的ETag，与响应中的ETag格式相同
+     *
+     * @param data 数据
+     * @return ETag
+     */
+    public String etagOf(Object data) {
+        return encode(data).etag;
+    }
+
+    private EncodedPayload encode(Object data) {
+        HashingBuffer out = new HashingBuffer();
+        try {
+            objectMapper.writeValue(out, data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode response data", e);
+        }
+        return new EncodedPayload(out.toRawJson(), formatETag(out.hash.getValue()));
+    }
+
+    private void put(Object key, EncodedPayload payload) {
+        if (cacheTtlNanos <= 0 || maxCachedEntries <= 0) {
+            return;
+        }
+        if (cache.size() >= maxCachedEntries) {
+            evictOne();
+        }
+        cache.put(key, new CachedPayload(payload, System.nanoTime() + cacheTtlNanos));
+    }
+
+    /**
+     * 缓存已满时优先清除过期项，否则清除任意一项
+     */
+    private void evictOne() {
+        long now = System.nanoTime();
+        if (!cache.values().removeIf(entry -> entry.expiresAtNanos - now <= 0)) {
+            Iterator<Object> it = cache.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 失败响应使用异常映射中的HTTP状态码
+     */
+    private ResponseEntity<ReactiveResponse<RawJson>> toErrorEntity(Throwable e) {
+        return ResponseEntity.status(exceptionMappings.httpStatus(e)).body(exceptionMappings.toResponse(e));
+    }
+
+    private static ResponseEntity<ReactiveResponse<RawJson>> toEntity(ServerHttpRequest request,
+                                                                     EncodedPayload payload) {
+        if (matches(request.getHeaders().getIfNoneMatch(), payload.etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(payload.etag).build();
+        }
+        return ResponseEntity.ok().eTag(payload.etag).body(ReactiveResponse.success(payload.json));
+    }
+
+    /**
+     * If-None-Match按弱比较匹配
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.trim();
+            if ("*".equals(tag)) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String formatETag(long hash) {
+        String hex = Long.toHexString(hash);
+        StringBuilder sb = new StringBuilder(18).append('"');
+        for (int i = hex.length(); i < 16; i++) {
+            sb.append('0');
+        }
+        return sb.append(hex).append('"').toString();
+    }
+
+    /**
+     * 写入时同时计算哈希，序列化结果不复制直接包装为RawJson
+     */
+    private static final class HashingBuffer extends ByteArrayOutputStream {
+
+        private final XxHash64 hash = new XxHash64();
+
+        private HashingBuffer() {
+            super(256);
+        }
+
+        @Override
+        public void write(int b) {
+            super.write(b);
+            hash.update(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            hash.update(b, off, len);
+        }
+
+        private RawJson toRawJson() {
+            return RawJson.of(buf, 0, count);
+        }
+    }
+
+    private static final class EncodedPayload {
+
+        private final RawJson json;
+        private final String etag;
+
+        private EncodedPayload(RawJson json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+    }
+
+    private static final class CachedPayload {
+
+        private final EncodedPayload payload;
+        private final long expiresAtNanos;
+
+        private CachedPayload(EncodedPayload payload, long expiresAtNanos) {
+            this.payload = payload;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.github.hzcssss.reactive.response.core.ProjectedReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.jackson.FieldProjectionWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ReactiveResponse编码器
+ * 预先编码ResponseCode各项及最近使用的(错误码, 消息, 是否成功)对应的响应头部字节，每次响应只编码时间戳数字和data，
+ * 输出与按字段顺序errorCode、message、success、timestamp、data序列化的结果相同。
+ * ObjectMapper的配置改变了响应外层（如命名策略、空值忽略、自定义序列化器）时，整个响应交给ObjectMapper序列化
+ */
+public class ReactiveResponseEncoder extends AbstractEncoder<ReactiveResponse<?>> {
+
+    /**
+     * 缓存的非ResponseCode头部模板数量上限，达到后清空重新缓存
+     */
+    static final int MAX_TEMPLATES = 256;
+
+    private static final byte[] DATA_FIELD = ",\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter dataWriter;
+
+    /**
+     * ObjectMapper的输出与预编码格式不同，不使用模板
+     */
+    private final boolean delegating;
+
+    /**
+     * ResponseCode各项的模板，按消息查找，创建后不再修改
+     */
+    private final Map<String, Template> codeTemplates = new HashMap<>();
+
+    /**
+     * 其余消息的模板，读取不加锁；异常消息各不相同时清空旧模板而不是停止缓存，常用消息很快重新缓存
+     */
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private volatile Template nullMessageTemplate;
+
+    public ReactiveResponseEncoder(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.dataWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            for (ResponseCode code : ResponseCode.values()) {
+                boolean success = code == ResponseCode.SUCCESS;
+                codeTemplates.put(code.getMessage(), new Template(code.getErrorCode(), success,
+                        encodePrefix(code.getErrorCode(), code.getMessage(), success)));
+            }
+            this.delegating = !matchesObjectMapper();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to prepare response templates", e);
+        }
+    }
+
+    /**
+     * 是否使用预编码的头部模板，ObjectMapper改变了响应外层格式时为false
+     *
+     * @return 是否使用模板
+     */
+    public boolean isPreEncoding() {
+        return !delegating;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return ReactiveResponse.class.isAssignableFrom(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends ReactiveResponse<?>> inputStream,
+                                   DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        // 多个响应编码为JSON数组
+        return Flux.concat(
+                Mono.fromSupplier(() -> wrap(bufferFactory, (byte) '[')),
+                Flux.from(inputStream).index().map(indexed -> {
+                    DataBuffer buffer = bufferFactory.allocateBuffer(256);
+                    if (indexed.getT1() > 0) {
+                        buffer.write((byte) ',');
+                    }
+                    return write(buffer, indexed.getT2());
+                }),
+                Mono.fromSupplier(() -> wrap(bufferFactory, (byte) ']')));
+    }
+
+    @Override
+    public DataBuffer encodeValue(ReactiveResponse<?> value, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        return write(bufferFactory.allocateBuffer(256), value);
+    }
+
+    /**
+     * 写入整个响应：头部模板、时间戳、data字段
+     */
+    private DataBuffer write(DataBuffer buffer, ReactiveResponse<?> value) {
+        boolean release = true;
+        try {
+            if (delegating) {
+                dataWriter.writeValue(buffer.asOutputStream(), projected(value));
+                release = false;
+                return buffer;
+            }
+            buffer.write(template(value.getErrorCode(), value.getMessage(), value.isSuccess()).prefix);
+            writeLong(buffer, value.getTimestamp());
+            buffer.write(DATA_FIELD);
+            OutputStream out = buffer.asOutputStream();
+            dataWriter.writeValue(out, value instanceof ProjectedReactiveResponse
+                    ? FieldProjectionWriter.view(value.getData(), ((ProjectedReactiveResponse<?>) value).projection())
+                    : value.getData());
+            buffer.write((byte) '}');
+            release = false;
+            return buffer;
+        } catch (IOException e) {
+            throw new EncodingException("Failed to encode ReactiveResponse: " + e.getMessage(), e);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * 查找头部模板，同一消息通常只对应一个错误码，按消息查找后再比较错误码和成功标记
+     */
+    private Template template(int errorCode, String message, boolean success) throws JsonProcessingException {
+        Template template = message == null ? nullMessageTemplate : codeTemplates.get(message);
+        if (template != null && template.matches(errorCode, success)) {
+            return template;
+        }
+        if (message != null) {
+            template = templates.get(message);
+            if (template != null && template.matches(errorCode, success)) {
+                return template;
+            }
+        }
+        template = new Template(errorCode, success, encodePrefix(errorCode, message, success));
+        if (message == null) {
+            nullMessageTemplate = template;
+        } else {
+            if (templates.size() >= MAX_TEMPLATES) {
+                templates.clear();
+            }
+            templates.put(message, template);
+        }
+        return template;
+    }
+
+    /**
+     * 获取缓存的非ResponseCode模板数量
+     */
+    int cachedTemplates() {
+        return templates.size();
+    }
+
+    /**
+     * 比较模板输出与ObjectMapper序列化同一响应的结果
+     */
+    private boolean matchesObjectMapper() throws IOException {
+        for (Object data : new Object[]{null, "data"}) {
+            ReactiveResponse<Object> probe = new ReactiveResponse<>();
+            probe.setErrorCode(1);
+            probe.setMessage("message");
+            probe.setSuccess(true);
+            probe.setTimestamp(2);
+            probe.setData(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(encodePrefix(1, "message", true));
+            out.write('2');
+            out.write(DATA_FIELD);
+            dataWriter.writeValue(out, data);
+            out.write('}');
+            if (!Arrays.equals(out.toByteArray(), objectMapper.writeValueAsBytes(probe))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 附加了字段投影的响应替换为按投影序列化data的副本，ObjectMapper未注册ReactiveResponseModule时同样生效
+     */
+    private static ReactiveResponse<?> projected(ReactiveResponse<?> value) {
+        if (!(value instanceof ProjectedReactiveResponse)) {
+            return value;
+        }
+        ReactiveResponse<Object> copy = new ReactiveResponse<>();
+        copy.setErrorCode(value.getErrorCode());
+        copy.setMessage(value.getMessage());
+        copy.setSuccess(value.isSuccess());
+        copy.setTimestamp(value.getTimestamp());
+        copy.setData(FieldProjectionWriter.view(value.getData(),
+                ((ProjectedReactiveResponse<?>) value).projection()));
+        return copy;
+    }
+
+    private byte[] encodePrefix(int errorCode, String message, boolean success) throws JsonProcessingException {
+        byte[] head = ("{\"errorCode\":" + errorCode + ",\"message\":").getBytes(StandardCharsets.UTF_8);
+        byte[] quoted = message == null ? "null".getBytes(StandardCharsets.UTF_8) : objectMapper.writeValueAsBytes(message);
+        byte[] tail = (",\"success\":" + success + ",\"timestamp\":").getBytes(StandardCharsets.UTF_8);
+        byte[] prefix = new byte[head.length + quoted.length + tail.length];
+        System.arraycopy(head, 0, prefix, 0, head.length);
+        System.arraycopy(quoted, 0, prefix, head.length, quoted.length);
+        System.arraycopy(tail, 0, prefix, head.length + quoted.length, tail.length);
+        return prefix;
+    }
+
+    /**
+     * 直接写出十进制数字，不创建字符串
+     */
+    static void writeLong(DataBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.write(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static DataBuffer wrap(DataBufferFactory bufferFactory, byte b) {
+        return bufferFactory.allocateBuffer(1).write(b);
+    }
+
+    /**
+     * 响应头部模板，包含到timestamp字段值之前的全部字节
+     */
+    private static final class Template {
+
+        private final int errorCode;
+        private final boolean success;
+        private final byte[] prefix;
+
+        private Template(int errorCode, boolean success, byte[] prefix) {
+            this.errorCode = errorCode;
+            this.success = success;
+            this.prefix = prefix;
+        }
+
+        private boolean matches(int errorCode, boolean success) {
+            return this.errorCode == errorCode && this.success == success;
+        }
+    }
+}
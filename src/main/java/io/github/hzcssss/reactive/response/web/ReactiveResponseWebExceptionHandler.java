@@ -0,0 +1,61 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+/**
+ * 全局异常处理器
+ * 处理链中未被包装的异常按ExceptionMappingRegistry转换为失败响应，HTTP状态码取自异常映射。
+ * 框架自身的ResponseStatusException（如404、405）交给后续处理器，保留其状态码和错误体
+ */
+public class ReactiveResponseWebExceptionHandler implements WebExceptionHandler, Ordered {
+
+    /**
+     * 默认顺序，先于Spring Boot的DefaultErrorWebExceptionHandler（-1）
+     */
+    public static final int DEFAULT_ORDER = -2;
+
+    private final ObjectMapper objectMapper;
+    private final ExceptionMappingRegistry exceptionMappings;
+
+    public ReactiveResponseWebExceptionHandler(ObjectMapper objectMapper, ExceptionMappingRegistry exceptionMappings) {
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+        this.exceptionMappings = Objects.requireNonNull(exceptionMappings, "exceptionMappings");
+    }
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted() || ex instanceof ResponseStatusException) {
+            return Mono.error(ex);
+        }
+        ReactiveResponse<Object> body = exceptionMappings.toResponse(ex);
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(ex);
+        }
+        HttpStatus status = HttpStatus.resolve(exceptionMappings.httpStatus(ex));
+        response.setStatusCode(status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_ORDER;
+    }
+}
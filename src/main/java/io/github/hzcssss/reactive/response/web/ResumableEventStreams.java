@@ -0,0 +1,371 @@
+package io.github.hzcssss.reactive.response.web;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.util.AdaptiveConcurrencyLimiter;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 可续传的SSE事件流
+ * 同一流标识的数据源只订阅一次（在第一个客户端订阅时），每个元素包装为成功响应并按序编号，
+ * 最近的事件保存在有上限的环形缓冲区中。
+ * 客户端断线后携带Last-Event-ID重连时，先重放缓冲区中之后的事件再接上实时事件，不再重新查询数据源。
+ * 没有客户端连接超过保留时间的流会被清除并取消数据源；需要的事件已被覆盖或流已被清除时，
+ * 先发送reset事件，客户端应重新获取全量数据
+ */
+public class ResumableEventStreams {
+
+    /**
+     * 重连时携带的请求头
+     */
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    /**
+     * 事件丢失时发送的事件名
+     */
+    public static final String RESET_EVENT = "reset";
+
+    /**
+     * 默认每个流保存的事件数
+     */
+    public static final int DEFAULT_MAX_EVENTS = 256;
+
+    /**
+     * 默认保留时间
+     */
+    public static final Duration DEFAULT_RETENTION = Duration.ofMinutes(5);
+
+    /**
+     * 默认流数量上限
+     */
+    public static final int DEFAULT_MAX_STREAMS = 1024;
+
+    private static final long MAX_SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * 并发发出信号冲突时的最长重试时间，超过后按失败处理（如在订阅者回调中同步清除流）
+     */
+    private static final long MAX_EMIT_SPIN_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final ExceptionMappingRegistry exceptionMappings;
+    private final int maxEvents;
+    private final long retentionNanos;
+    private final int maxStreams;
+    private final Map<String, EventStream<?>> streams = new ConcurrentHashMap<>();
+
+    /**
+     * 事件编号前缀，区分不同实例（如重启前后）以及同一标识先后创建的流
+     */
+    private final String idPrefix = Long.toString(ThreadLocalRandom.current().nextLong() >>> 16, 36) + "-";
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    public ResumableEventStreams() {
+        this(DEFAULT_MAX_EVENTS, DEFAULT_RETENTION, DEFAULT_MAX_STREAMS);
+    }
+
+    public ResumableEventStreams(int maxEvents, Duration retention, int maxStreams) {
+        this(ExceptionMappingRegistry.getDefault(), maxEvents, retention, maxStreams);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param exceptionMappings 数据源失败时转换失败响应使用的异常映射
+     * @param maxEvents         每个流保存的事件数
+     * @param retention         没有客户端连接时流的保留时间
+     * @param maxStreams        流数量上限
+     */
+    public ResumableEventStreams(ExceptionMappingRegistry exceptionMappings, int maxEvents, Duration retention,
+                                 int maxStreams) {
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("maxEvents must be positive: " + maxEvents);
+        }
+        if (maxStreams < 1) {
+            throw new IllegalArgumentException("maxStreams must be positive: " + maxStreams);
+        }
+        this.exceptionMappings = Objects.requireNonNull(exceptionMappings, "exceptionMappings");
+        this.maxEvents = maxEvents;
+        this.retentionNanos = retention.toNanos();
+        this.maxStreams = maxStreams;
+    }
+
+    /**
+     * 订阅事件流，从请求头Last-Event-ID之后续传
+     *
+     * @param request  当前请求
+     * @param streamId 流标识，不同用户可见数据不同时应包含用户标识
+     * @param source   数据源，流不存在时调用并订阅
+     * @param <T>      数据类型
+     * @return SSE事件
+     */
+    public <T> Flux<ServerSentEvent<ReactiveResponse<T>>> stream(ServerHttpRequest request, String streamId,
+                                                                 Supplier<? extends Flux<T>> source) {
+        return stream(streamId, request.getHeaders().getFirst(LAST_EVENT_ID_HEADER), source);
+    }
+
+    /**
+     * 订阅事件流
+     *
+     * @param streamId    流标识
+     * @param lastEventId 客户端最后收到的事件编号，首次连接为null
+     * @param source      数据源，流不存在时在返回的Flux被订阅后调用并订阅
+     * @param <T>         数据类型
+     * @return SSE事件，数据源结束后在重放完成时结束
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Flux<ServerSentEvent<ReactiveResponse<T>>> stream(String streamId, String lastEventId,
+                                                                 Supplier<? extends Flux<T>> source) {
+        Objects.requireNonNull(streamId, "streamId");
+        Objects.requireNonNull(source, "source");
+        return Flux.defer(() -> {
+            evictExpired(false);
+            EventStream<T> stream = (EventStream<T>) streams.get(streamId);
+            if (stream == null) {
+                if (streams.size() >= maxStreams && !evictIdlest()) {
+                    return Flux.just(ServerSentEvent.builder(AdaptiveConcurrencyLimiter.<T>overloadedResponse())
+                            .build());
+                }
+                EventStream<T> created = new EventStream<>(
+                        idPrefix + Long.toString(generations.incrementAndGet(), 36), source);
+                stream = (EventStream<T>) streams.computeIfAbsent(streamId, key -> created);
+            }
+            return stream.subscribe(lastEventId);
+        });
+    }
+
+    /**
+     * 清除流并取消其数据源，已连接的客户端收到结束信号
+     *
+     * @param streamId 流标识
+     */
+    public void evict(String streamId) {
+        EventStream<?> stream = streams.remove(streamId);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * 清除没有客户端连接超过保留时间的流，订阅时会定期自动调用
+     */
+    public void evictExpired() {
+        evictExpired(true);
+    }
+
+    /**
+     * 获取当前保留的流数量
+     *
+     * @return 流数量
+     */
+    public int size() {
+        return streams.size();
+    }
+
+    private void evictExpired(boolean force) {
+        long now = System.nanoTime();
+        long next = nextSweep.get();
+        if (!force && (now - next < 0 || !nextSweep.compareAndSet(next,
+                now + Math.min(retentionNanos, MAX_SWEEP_INTERVAL_NANOS)))) {
+            return;
+        }
+        for (Map.Entry<String, EventStream<?>> entry : streams.entrySet()) {
+            if (entry.getValue().expired(now)) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 流数量达到上限时清除空闲最久的流，没有空闲的流时返回false
+     */
+    private boolean evictIdlest() {
+        Map.Entry<String, EventStream<?>> idlest = null;
+        for (Map.Entry<String, EventStream<?>> entry : streams.entrySet()) {
+            EventStream<?> stream = entry.getValue();
+            if (stream.subscribers.get() == 0
+                    && (idlest == null || stream.idleSince - idlest.getValue().idleSince < 0)) {
+                idlest = entry;
+            }
+        }
+        return idlest != null && remove(idlest.getKey(), idlest.getValue());
+    }
+
+    private boolean remove(String streamId, EventStream<?> stream) {
+        if (streams.remove(streamId, stream)) {
+            stream.close();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 单个流，第一个客户端订阅重放缓冲区后才订阅数据源，事件在数据源的发射线程中串行编号并写入重放缓冲区
+     */
+    private final class EventStream<T> {
+
+        private final String idPrefix;
+        private final Supplier<? extends Flux<T>> source;
+        private final Sinks.Many<Event<T>> sink = Sinks.many().replay().limit(maxEvents);
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private volatile long emitted;
+        private volatile long idleSince = System.nanoTime();
+        private volatile Disposable upstream;
+        private volatile boolean closed;
+
+        private EventStream(String generation, Supplier<? extends Flux<T>> source) {
+            this.idPrefix = generation + ".";
+            this.source = source;
+        }
+
+        private void start() {
+            if (closed || !started.compareAndSet(false, true)) {
+                return;
+            }
+            Flux<T> flux;
+            try {
+                flux = source.get();
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            Disposable disposable = flux.subscribe(this::emit, this::fail, this::complete);
+            upstream = disposable;
+            if (closed) {
+                // 启动期间流已被清除
+                disposable.dispose();
+            }
+        }
+
+        private void emit(T value) {
+            emit(ReactiveResponse.success(value));
+        }
+
+        private void emit(ReactiveResponse<T> response) {
+            long seq = emitted + 1;
+            // 先更新编号，收到该事件的客户端立即重连时编号已有效
+            emitted = seq;
+            Sinks.EmitResult result = emit(() -> sink.tryEmitNext(new Event<>(seq, ServerSentEvent.builder(response)
+                    .id(idPrefix + seq)
+                    .build())));
+            if (result.isFailure()) {
+                // 流已被清除，不再需要数据源
+                Disposable disposable = upstream;
+                if (disposable != null) {
+                    disposable.dispose();
+                }
+            }
+        }
+
+        private void fail(Throwable e) {
+            emit(exceptionMappings.<T>toResponse(e));
+            complete();
+        }
+
+        private void complete() {
+            emit(sink::tryEmitComplete);
+        }
+
+        /**
+         * 数据源与清除操作可能在不同线程同时发出信号，并发冲突时短暂重试，其余失败（流已结束）返回给调用方
+         */
+        private Sinks.EmitResult emit(Supplier<Sinks.EmitResult> signal) {
+            long deadline = System.nanoTime() + MAX_EMIT_SPIN_NANOS;
+            Sinks.EmitResult result;
+            while ((result = signal.get()) == Sinks.EmitResult.FAIL_NON_SERIALIZED
+                    && System.nanoTime() - deadline < 0) {
+                Thread.onSpinWait();
+            }
+            return result;
+        }
+
+        private Flux<ServerSentEvent<ReactiveResponse<T>>> subscribe(String lastEventId) {
+            long after = parse(lastEventId);
+            Flux<Event<T>> replay = sink.asFlux()
+                    .filter(event -> event.seq > Math.max(after, 0));
+            if (lastEventId != null) {
+                // 按实际重放的第一个事件判断是否有事件丢失，而不是按订阅前读到的编号
+                replay = replay.switchOnFirst((first, events) -> lost(after, first.get())
+                        ? Flux.just(new Event<>(0, ServerSentEvent.<ReactiveResponse<T>>builder()
+                        .event(RESET_EVENT)
+                        .build())).concatWith(events) : events);
+            }
+            Flux<ServerSentEvent<ReactiveResponse<T>>> events = replay
+                    .map(event -> event.sse)
+                    .doOnSubscribe(s -> subscribers.incrementAndGet())
+                    .doFinally(signal -> {
+                        idleSince = System.nanoTime();
+                        subscribers.decrementAndGet();
+                    });
+            // 订阅重放缓冲区之后再启动数据源，同步发出的事件不会早于第一个客户端
+            return Flux.from(subscriber -> {
+                events.subscribe(subscriber);
+                start();
+            });
+        }
+
+        /**
+         * 客户端需要的事件是否已不在缓冲区中：编号未知，或重放的第一个事件不紧接在客户端最后收到的事件之后
+         */
+        private boolean lost(long after, Event<T> first) {
+            return after < 0 || first != null && first.seq > after + 1;
+        }
+
+        /**
+         * 解析事件编号，不属于当前流时返回-1
+         */
+        private long parse(String lastEventId) {
+            if (lastEventId == null || !lastEventId.startsWith(idPrefix)) {
+                return -1;
+            }
+            try {
+                long seq = Long.parseLong(lastEventId.substring(idPrefix.length()));
+                return seq >= 0 && seq <= emitted ? seq : -1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private boolean expired(long now) {
+            return subscribers.get() == 0 && now - idleSince - retentionNanos >= 0;
+        }
+
+        private void close() {
+            closed = true;
+            Disposable disposable = upstream;
+            if (disposable != null) {
+                disposable.dispose();
+            }
+            complete();
+        }
+    }
+
+    /**
+     * 带序号的事件
+     */
+    private static final class Event<T> {
+
+        private final long seq;
+        private final ServerSentEvent<ReactiveResponse<T>> sse;
+
+        private Event(long seq, ServerSentEvent<ReactiveResponse<T>> sse) {
+            this.seq = seq;
+            this.sse = sse;
+        }
+    }
+}
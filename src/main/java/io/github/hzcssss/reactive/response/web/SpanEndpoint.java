@@ -0,0 +1,37 @@
+package io.github.hzcssss.reactive.response.web;
+
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 耗时记录的Actuator端点
+ * 返回各标签最近请求的耗时分位数和最慢的请求，需要通过management.endpoints.web.exposure.include暴露
+ */
+@Endpoint(id = "responsespans")
+public class SpanEndpoint {
+
+    /**
+     * 报告中最慢请求的条数
+     */
+    public static final int SLOWEST = 20;
+
+    private final SpanRecorder recorder;
+
+    public SpanEndpoint(SpanRecorder recorder) {
+        this.recorder = Objects.requireNonNull(recorder, "recorder");
+    }
+
+    /**
+     * 获取耗时报告
+     *
+     * @return 耗时报告
+     */
+    @ReadOperation
+    public Map<String, Object> spans() {
+        return recorder.report(SLOWEST);
+    }
+}
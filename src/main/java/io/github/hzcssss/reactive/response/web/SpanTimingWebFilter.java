@@ -0,0 +1,22 @@
+package io.github.hzcssss.reactive.response.web;
+
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 耗时记录过滤器
+ * 在请求上下文中放入写出耗时回填槽位，处理链结束时为设置了标签的包装管道补上响应序列化写出的耗时
+ */
+public class SpanTimingWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        SpanRecorder.WriteTiming timing = new SpanRecorder.WriteTiming();
+        return chain.filter(exchange)
+                .doFinally(signal -> timing.finish())
+                .contextWrite(context -> context.put(SpanRecorder.WRITE_TIMING_KEY, timing));
+    }
+}
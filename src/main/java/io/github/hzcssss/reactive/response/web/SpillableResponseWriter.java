@@ -0,0 +1,64 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 可溢出响应的写出工具
+ * 已溢出的响应直接从临时文件发送：服务器支持零拷贝时使用sendfile，否则按块读取，
+ * 发送结束（含出错、取消）后删除临时文件
+ */
+public final class SpillableResponseWriter {
+
+    /**
+     * 不支持零拷贝时每次读取的字节数
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private SpillableResponseWriter() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 把响应写入HTTP响应体
+     *
+     * @param response     HTTP响应
+     * @param body         可溢出响应
+     * @param objectMapper 未溢出时序列化响应使用的ObjectMapper
+     * @return 写出完成信号
+     */
+    public static Mono<Void> write(ServerHttpResponse response, SpillableResponse<?> body, ObjectMapper objectMapper) {
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        if (!body.isSpilled()) {
+            try {
+                byte[] bytes = objectMapper.writeValueAsBytes(body.getResponse());
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+            } catch (JsonProcessingException e) {
+                return Mono.error(e);
+            }
+        }
+        response.getHeaders().setContentLength(body.getCount());
+        Mono<Void> write;
+        if (response instanceof ZeroCopyHttpOutputMessage) {
+            write = ((ZeroCopyHttpOutputMessage) response)
+                    .writeWith(body.getFile(), body.getPosition(), body.getCount());
+        } else {
+            Flux<DataBuffer> content = DataBufferUtils.readByteChannel(
+                    () -> FileChannel.open(body.getFile(), StandardOpenOption.READ).position(body.getPosition()),
+                    response.bufferFactory(), READ_BUFFER_SIZE);
+            write = response.writeWith(DataBufferUtils.takeUntilByteCount(content, body.getCount()));
+        }
+        return write.doFinally(signal -> body.discard());
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.hzcssss.reactive.response;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
+import com.sun.management.HotSpotDiagnosticMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 响应包装热路径的内存分配回归测试
+ * 每个用例记录了单次操作允许分配的字节数上限，超出即失败。
+ * 预算在HotSpot C2（分层编译、开启逃逸分析）下预热后记录，其他JIT配置下跳过；
+ * 默认构建不执行，使用 mvn -P allocation-budget test 运行
+ */
+@Tag("allocation")
+public class AllocationBudgetTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURE_ITERATIONS = 20_000;
+
+    private static final String DATA = "测试数据";
+    private static final BusinessException BUSINESS_EXCEPTION = new BusinessException(1002, "业务异常");
+    private static final RuntimeException RUNTIME_EXCEPTION = new IllegalStateException("系统异常");
+
+    private static com.sun.management.ThreadMXBean threadBean;
+
+    private final SpringReactiveResponseBuilder springBuilder = new SpringReactiveResponseBuilder();
+
+    private volatile Object sink;
+
+    @BeforeAll
+    public static void checkAllocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "当前JVM不支持线程分配计数");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "当前JVM不支持线程分配计数");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        assumeRecordedCompiler();
+    }
+
+    /**
+     * 确认JIT配置与记录预算时一致：混合模式、分层编译到C2、开启逃逸分析
+     */
+    private static void assumeRecordedCompiler() {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        assumeTrue(compiler != null && compiler.getName().startsWith("HotSpot"), "预算只在HotSpot上记录");
+        assumeTrue(System.getProperty("java.vm.info", "").contains("mixed mode"), "解释模式下不检查预算");
+        HotSpotDiagnosticMXBean diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        assumeTrue(diagnostic != null, "无法读取JIT参数");
+        assumeTrue("true".equals(diagnostic.getVMOption("TieredCompilation").getValue()), "预算在分层编译下记录");
+        assumeTrue("4".equals(diagnostic.getVMOption("TieredStopAtLevel").getValue()), "预算依赖C2编译");
+        assumeTrue("true".equals(diagnostic.getVMOption("DoEscapeAnalysis").getValue()), "预算依赖逃逸分析");
+        assumeTrue(!"true".equals(vmOption(diagnostic, "UseJVMCICompiler")), "预算不适用于JVMCI编译器");
+    }
+
+    private static String vmOption(HotSpotDiagnosticMXBean diagnostic, String name) {
+        try {
+            return diagnostic.getVMOption(name).getValue();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testSuccessFactory() {
+        assertBudget("ReactiveResponse.success", 48, () -> sink = ReactiveResponse.success(DATA));
+    }
+
+    @Test
+    public void testBusinessExceptionFactory() {
+        assertBudget("ReactiveResponse.failure(BusinessException)", 48,
+                () -> sink = ReactiveResponse.failure(BUSINESS_EXCEPTION));
+    }
+
+    @Test
+    public void testThrowableFactory() {
+        assertBudget("ReactiveResponse.failure(Throwable)", 48,
+                () -> sink = ReactiveResponse.failure(RUNTIME_EXCEPTION));
+    }
+
+    @Test
+    public void testBuilderBuild() {
+        assertBudget("ReactiveResponseBuilder.build", 80,
+                () -> sink = ReactiveResponseBuilder.success(DATA).build());
+    }
+
+    @Test
+    public void testSpringBuilderBuild() {
+        assertBudget("SpringReactiveResponseBuilder.success().build", 80,
+                () -> sink = springBuilder.<String>success().data(DATA).build());
+    }
+
+    @Test
+    public void testWrapMonoSuccess() {
+        assertBudget("ReactiveResponseUtil.wrapMono success", 480,
+                () -> ReactiveResponseUtil.wrapMono(Mono.just(DATA)).subscribe(r -> sink = r));
+    }
+
+    @Test
+    public void testWrapMonoBusinessException() {
+        assertBudget("ReactiveResponseUtil.wrapMono BusinessException", 512,
+                () -> ReactiveResponseUtil.<String>wrapMono(Mono.error(BUSINESS_EXCEPTION)).subscribe(r -> sink = r));
+    }
+
+    @Test
+    public void testWrapMonoThrowable() {
+        assertBudget("ReactiveResponseUtil.wrapMono Throwable", 512,
+                () -> ReactiveResponseUtil.<String>wrapMono(Mono.error(RUNTIME_EXCEPTION)).subscribe(r -> sink = r));
+    }
+
+    @Test
+    public void testSpringWrapThrowable() {
+        assertBudget("SpringReactiveResponseBuilder.from Throwable", 704,
+                () -> springBuilder.<String>from(Mono.error(RUNTIME_EXCEPTION)).build().subscribe(r -> sink = r));
+    }
+
+    @Test
+    public void testMapResponse() {
+        ReactiveResponse<String> response = ReactiveResponse.success(DATA);
+        assertBudget("ReactiveResponseBuilder.mapResponse", 320,
+                () -> ReactiveResponseBuilder.mapResponse(Mono.just(response), String::length).subscribe(r -> sink = r));
+    }
+
+    /**
+     * 预热后测量单次操作平均分配字节数，并与预算比较
+     */
+    private void assertBudget(String path, long budgetBytes, Runnable operation) {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            operation.run();
+        }
+        long perOperation = (threadBean.getThreadAllocatedBytes(threadId) - before) / MEASURE_ITERATIONS;
+        assertTrue(perOperation <= budgetBytes,
+                path + " 单次分配 " + perOperation + " 字节，超出预算 " + budgetBytes + " 字节");
+    }
+}
@@ -1,6 +1,10 @@
 package io.github.hzcssss.reactive.response;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.core.ImmutableReactiveResponse;
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
 import io.github.hzcssss.reactive.response.util.ReactiveResponseUtil;
@@ -11,6 +15,8 @@ import reactor.test.StepVerifier;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +49,42 @@ public class ReactiveResponseTest {
         assertNull(response.getData());
     }
 
+    @Test
+    public void testImmutableResponse() {
+        // 工厂方法和构建器返回的响应仍可修改
+        ReactiveResponse<String> response = ReactiveResponse.success("测试数据");
+        response.setMessage("已修改");
+        assertEquals("已修改", response.getMessage());
+        ReactiveResponse<String> built = ReactiveResponseBuilder.<String>success().data("测试数据").build();
+        built.setData("修改");
+        assertEquals("修改", built.getData());
+
+        // 不可修改的副本不受之后修改的影响，可以转换回可修改的响应
+        ImmutableReactiveResponse<String> immutable = response.toImmutable();
+        response.setData("再次修改");
+        assertEquals("测试数据", immutable.getData());
+        assertEquals("已修改", immutable.getMessage());
+        assertEquals(response.getTimestamp(), immutable.getTimestamp());
+        ReactiveResponse<String> copy = immutable.toResponse();
+        assertEquals("测试数据", copy.getData());
+        assertTrue(copy.isSuccess());
+
+        // 不可修改的响应可以直接由工厂方法和构建器创建
+        ImmutableReactiveResponse<String> success = ImmutableReactiveResponse.success("测试数据");
+        assertTrue(success.isSuccess());
+        assertEquals("测试数据", success.getData());
+        ImmutableReactiveResponse<String> failure = ImmutableReactiveResponse.failure(
+                new BusinessException(1004, "用户不存在"));
+        assertFalse(failure.isSuccess());
+        assertEquals(1004, failure.getErrorCode());
+        ImmutableReactiveResponse<String> direct = ReactiveResponseBuilder.<String>failure()
+                .errorCode(1005)
+                .message("繁忙")
+                .buildImmutable();
+        assertEquals(1005, direct.getErrorCode());
+        assertFalse(direct.isSuccess());
+    }
+
     @Test
     public void testBusinessExceptionResponse() {
         // 创建业务异常
@@ -158,4 +200,175 @@ public class ReactiveResponseTest {
                 })
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScalarFastPath() {
+        // 标量源在订阅时才生成响应，每次订阅得到新的响应
+        Mono<ReactiveResponse<String>> success = ReactiveResponseUtil.wrapMono(Mono.just("测试数据"));
+        ReactiveResponse<String> first = success.block();
+        ReactiveResponse<String> second = success.block();
+        assertEquals("测试数据", first.getData());
+        assertNotSame(first, second);
+
+        // 错误在订阅时才创建
+        AtomicInteger created = new AtomicInteger();
+        Mono<ReactiveResponse<String>> deferredError = ReactiveResponseUtil.wrapMono(Mono.error(() -> {
+            created.incrementAndGet();
+            return new BusinessException(1003, "校验失败");
+        }));
+        assertEquals(0, created.get());
+        assertEquals(1003, deferredError.block().getErrorCode());
+        assertEquals(1, created.get());
+
+        // 转换函数抛出的异常与操作符链一样交给错误转换
+        Function<String, ReactiveResponse<String>> failingMapper = data -> {
+            throw new IllegalStateException("转换失败");
+        };
+        Function<Throwable, ReactiveResponse<String>> onError = ReactiveResponse::failure;
+        ReactiveResponse<String> chained = Mono.just("测试数据").map(failingMapper)
+                .onErrorResume(e -> Mono.just(onError.apply(e))).block();
+        ReactiveResponse<String> scalar = ReactiveResponseUtil.resolveScalar(Mono.just("测试数据"), failingMapper,
+                onError).block();
+        assertEquals(chained.getMessage(), scalar.getMessage());
+        assertEquals(chained.getErrorCode(), scalar.getErrorCode());
+
+        // 错误按异常映射转换为失败响应
+        StepVerifier.create(ReactiveResponseUtil.wrapMono(Mono.<String>error(new BusinessException(1003, "校验失败"))))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1003, response.getErrorCode());
+                    assertEquals("校验失败", response.getMessage());
+                })
+                .verifyComplete();
+
+        // 空源保持为空
+        StepVerifier.create(ReactiveResponseUtil.wrapMono(Mono.<String>empty())).verifyComplete();
+
+        // JVM致命错误不转换为失败响应
+        assertThrows(StackOverflowError.class,
+                () -> ReactiveResponseUtil.wrapMono(Mono.<String>error(StackOverflowError::new)).block());
+
+        // 构建器的自定义处理器同样生效
+        StepVerifier.create(ReactiveResponseBuilder.from(Mono.<String>error(new IllegalStateException("失败")))
+                        .onError(e -> ReactiveResponse.failure(1009, "自定义"))
+                        .build())
+                .assertNext(response -> assertEquals(1009, response.getErrorCode()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testWrapBlocking() {
+        // 包装阻塞调用
+        Mono<ReactiveResponse<String>> responseMono = ReactiveResponseUtil.wrapBlocking(() -> "阻塞数据");
+
+        // 验证响应
+        StepVerifier.create(responseMono)
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals("阻塞数据", response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testWrapBlockingError() {
+        // 包装会抛出业务异常的阻塞调用
+        Mono<ReactiveResponse<String>> responseMono = ReactiveResponseUtil.wrapBlocking(() -> {
+            throw new BusinessException(1005, "阻塞调用失败");
+        });
+
+        // 验证响应
+        StepVerifier.create(responseMono)
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1005, response.getErrorCode());
+                    assertEquals("阻塞调用失败", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildBatch() {
+        // 单个元素失败不影响其他元素
+        Flux<Integer> flux = Flux.just(1, 2, 3, 4)
+                .map(i -> {
+                    if (i == 3) {
+                        throw new BusinessException(1006, "元素3处理失败");
+                    }
+                    return i * 10;
+                });
+
+        StepVerifier.create(ReactiveResponseBuilder.from(flux).buildBatch())
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    BatchResult<Integer> result = response.getData();
+                    assertEquals(4, result.getTotal());
+                    assertEquals(1, result.getFailureCount());
+                    assertEquals(Arrays.asList(10, 20, null, 40), result.getItems());
+                    assertFalse(result.isItemSuccess(2));
+                    assertEquals(1006, result.getItemError(2).getErrorCode());
+                    assertTrue(result.isItemSuccess(3));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildBatchCustomErrorHandler() {
+        // 源本身失败时使用自定义错误处理器
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.<Integer>error(new IllegalStateException("源失败")))
+                        .onError(e -> ReactiveResponse.failure(1200, "批量失败: " + e.getMessage()))
+                        .buildBatch())
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1200, response.getErrorCode());
+                    assertEquals("批量失败: 源失败", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBatchResultRoundTrip() throws Exception {
+        // 计算得到的汇总字段只序列化，普通ObjectMapper可以读回批量响应
+        ReactiveResponse<BatchResult<Integer>> response = ReactiveResponseBuilder
+                .from(Flux.just(1, 2, 3).map(i -> {
+                    if (i == 2) {
+                        throw new BusinessException(1006, "元素2处理失败");
+                    }
+                    return i;
+                }))
+                .buildBatch()
+                .block();
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writeValueAsString(response);
+        assertTrue(json.contains("\"failureCount\":1"));
+
+        ReactiveResponse<BatchResult<Integer>> read = objectMapper.readValue(json,
+                new TypeReference<ReactiveResponse<BatchResult<Integer>>>() {
+                });
+        BatchResult<Integer> result = read.getData();
+        assertEquals(3, result.getTotal());
+        assertEquals(Arrays.asList(1, null, 3), result.getItems());
+        assertFalse(result.isItemSuccess(1));
+        assertEquals(1006, result.getItemError(1).getErrorCode());
+    }
+
+    @Test
+    public void testWrapBatch() {
+        // 每个元素独立执行，结果保持输入顺序
+        Mono<ReactiveResponse<BatchResult<String>>> responseMono = ReactiveResponseUtil.wrapBatch(
+                Flux.range(0, 5),
+                i -> i % 2 == 0 ? Mono.just("数据" + i) : Mono.error(new IllegalStateException("失败" + i)),
+                4);
+
+        StepVerifier.create(responseMono)
+                .assertNext(response -> {
+                    BatchResult<String> result = response.getData();
+                    assertEquals(3, result.getSuccessCount());
+                    assertEquals(Arrays.asList("数据0", null, "数据2", null, "数据4"), result.getItems());
+                    assertEquals(9999, result.getItemError(1).getErrorCode());
+                    assertEquals("失败3", result.getItemError(3).getMessage());
+                    assertNull(result.getItemError(4));
+                })
+                .verifyComplete();
+    }
+}
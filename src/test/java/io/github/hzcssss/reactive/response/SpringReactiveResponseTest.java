@@ -1,9 +1,11 @@
 package io.github.hzcssss.reactive.response;
 
 import io.github.hzcssss.reactive.response.config.ReactiveResponseAutoConfiguration;
+import io.github.hzcssss.reactive.response.core.ImmutableReactiveResponse;
 import io.github.hzcssss.reactive.response.core.ReactiveResponse;
 import io.github.hzcssss.reactive.response.exception.BusinessException;
 import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.DeltaSnapshots;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -135,5 +137,70 @@ public class SpringReactiveResponseTest {
         assertEquals(1004, response.getErrorCode());
         assertEquals("自定义失败消息", response.getMessage());
         assertNull(response.getData());
+        // 直接构建不可修改的响应
+        ImmutableReactiveResponse<String> immutable = responseBuilder.<String>failure()
+                .errorCode(1004)
+                .message("自定义失败消息")
+                .buildImmutable();
+        assertEquals(1004, immutable.getErrorCode());
+        assertEquals("自定义失败消息", immutable.getMessage());
+        assertEquals("成功数据", responseBuilder.<String>success().data("成功数据").buildImmutable().getData());
+    }
+
+    @Test
+    public void testWrapBlocking() {
+        // 使用Spring构建器包装阻塞调用
+        Mono<ReactiveResponse<String>> responseMono = responseBuilder.wrapBlocking(() -> "阻塞数据");
+
+        // 验证响应
+        StepVerifier.create(responseMono)
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals("阻塞数据", response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildBatch() {
+        // 使用Spring构建器构建部分成功的批量响应
+        Flux<String> flux = Flux.just("1", "x", "3").map(s -> String.valueOf(Integer.parseInt(s)));
+
+        StepVerifier.create(responseBuilder.from(flux).buildBatch())
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals(2, response.getData().getSuccessCount());
+                    assertFalse(response.getData().isItemSuccess(1));
+                    assertEquals(9999, response.getData().getItemError(1).getErrorCode());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildBatchCustomErrorHandler() {
+        // 源本身失败时使用自定义的业务异常处理器
+        StepVerifier.create(responseBuilder.from(Flux.<String>error(new BusinessException(1003, "批量源失败")))
+                        .onBusinessException(e -> ReactiveResponse.failure(e.getErrorCode(), "自定义: " + e.getMessage()))
+                        .buildBatch())
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1003, response.getErrorCode());
+                    assertEquals("自定义: 批量源失败", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildDeltaCustomErrorHandler() {
+        // 增量源失败时使用自定义的业务异常处理器
+        StepVerifier.create(responseBuilder.from(Flux.<String>error(new BusinessException(1003, "增量源失败")))
+                        .onBusinessException(e -> ReactiveResponse.failure(e.getErrorCode(), "自定义: " + e.getMessage()))
+                        .buildDelta(new DeltaSnapshots<>(item -> item), "/orders", null))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1003, response.getErrorCode());
+                    assertEquals("自定义: 增量源失败", response.getMessage());
+                })
+                .verifyComplete();
     }
-}
\ No newline at end of file
+}
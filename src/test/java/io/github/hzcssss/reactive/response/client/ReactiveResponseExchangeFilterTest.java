@@ -0,0 +1,150 @@
+package io.github.hzcssss.reactive.response.client;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 客户端信封解包测试类
+ */
+public class ReactiveResponseExchangeFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReactiveResponseEnvelopeDecoder decoder = new ReactiveResponseEnvelopeDecoder();
+
+    @Test
+    public void testDecodeDataAcrossChunks() throws Exception {
+        // 信封被拆成单字节块时仍能准确提取data
+        String json = objectMapper.writeValueAsString(ReactiveResponse.success(Arrays.asList("数据1", "数据2")));
+
+        StepVerifier.create(join(decoder.decodeData(chunks(json, 1))))
+                .expectNext("[\"数据1\",\"数据2\"]")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testDataSerializedLast() throws Exception {
+        // data字段在信封字段之后序列化
+        String json = objectMapper.writeValueAsString(ReactiveResponse.success("数据"));
+
+        assertTrue(json.indexOf("\"success\"") < json.indexOf("\"data\""));
+        assertTrue(json.indexOf("\"message\"") < json.indexOf("\"data\""));
+
+        // 按字母排序属性时字段顺序不变
+        String sorted = new ObjectMapper().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .writeValueAsString(ReactiveResponse.success("数据"));
+        assertTrue(sorted.startsWith("{\"errorCode\""));
+        assertTrue(sorted.indexOf("\"timestamp\"") < sorted.indexOf("\"data\""));
+    }
+
+    @Test
+    public void testDecodeScalarData() {
+        // data为标量且位于success之前
+        String json = "{\"errorCode\":0,\"data\" : 12345 ,\"success\":true}";
+
+        StepVerifier.create(join(decoder.decodeData(chunks(json, 3))))
+                .expectNext("12345")
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFailureBeforeData() {
+        // 失败响应在读取data之前就结束
+        String json = "{\"errorCode\":1004,\"message\":\"资源不存在\",\"success\":false,\"data\":[1,2,3";
+
+        StepVerifier.create(decoder.decodeData(chunks(json, 4)))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof BusinessException);
+                    assertEquals(1004, ((BusinessException) e).getErrorCode());
+                    assertEquals("资源不存在", e.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testFilterStreamsDataElements() throws Exception {
+        // 通过过滤器直接把data数组解码为元素流
+        String json = objectMapper.writeValueAsString(ReactiveResponse.success(Arrays.asList(1, 2, 3)));
+
+        StepVerifier.create(exchange(json).flatMapMany(response -> response.bodyToFlux(Integer.class)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFilterFailure() throws Exception {
+        // 失败响应转换为BusinessException
+        String json = objectMapper.writeValueAsString(ReactiveResponse.failure(1003, "禁止访问"));
+
+        StepVerifier.create(exchange(json).flatMap(response -> response.bodyToMono(String.class)))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof BusinessException);
+                    assertEquals(1003, ((BusinessException) e).getErrorCode());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testFilterPassesThroughOtherJson() {
+        // 不是信封的JSON（如框架错误体）原样交给调用方，不抛出DecodingException
+        String error = "{\"timestamp\":\"2024-01-01T00:00:00\",\"path\":\"/numbers\",\"status\":502}";
+        StepVerifier.create(exchange(error).flatMap(response -> response.bodyToMono(String.class)))
+                .expectNext(error)
+                .verifyComplete();
+
+        StepVerifier.create(exchange("[1,2,3]").flatMapMany(response -> response.bodyToFlux(Integer.class)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+    }
+
+    private Mono<ClientResponse> exchange(String json) {
+        ExchangeFunction exchangeFunction = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(chunks(json, 7))
+                .build());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("/numbers")).build();
+        return ReactiveResponseExchangeFilter.unwrapping().apply(exchangeFunction).exchange(request);
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += size) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + size))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static Mono<String> join(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers).map(buffer -> {
+            String text = buffer.toString(StandardCharsets.UTF_8);
+            DataBufferUtils.release(buffer);
+            return text;
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.hzcssss.reactive.response.config;
+
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+/**
+ * 自动配置启动耗时基准
+ * 不随单元测试执行，可直接运行main方法：
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.github.hzcssss.reactive.response.config.AutoConfigurationStartupBenchmark
+ */
+public class AutoConfigurationStartupBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURE_ITERATIONS = 200;
+
+    public static void main(String[] args) {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveResponseAutoConfiguration.class));
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            contextRunner.run(context -> context.getBean(SpringReactiveResponseBuilder.class));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            contextRunner.run(context -> context.getBean(SpringReactiveResponseBuilder.class));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("上下文启动平均耗时: %.3f ms (%d 次)%n",
+                elapsed / 1_000_000.0 / MEASURE_ITERATIONS, MEASURE_ITERATIONS);
+    }
+}
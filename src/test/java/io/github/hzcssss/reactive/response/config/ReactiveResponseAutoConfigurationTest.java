@@ -1,9 +1,28 @@
 package io.github.hzcssss.reactive.response.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import io.github.hzcssss.reactive.response.exception.FailureLogger;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
+import io.github.hzcssss.reactive.response.service.ReactiveResponseService;
 import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.AdaptiveConcurrencyLimiter;
+import io.github.hzcssss.reactive.response.util.SpanRecorder;
+import io.github.hzcssss.reactive.response.web.ConcurrencyLimitWebFilter;
+import io.github.hzcssss.reactive.response.web.ReactiveResponseWebExceptionHandler;
+import io.github.hzcssss.reactive.response.web.SpanEndpoint;
+import io.github.hzcssss.reactive.response.web.SpanTimingWebFilter;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import reactor.test.util.TestLogger;
+
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,9 +39,19 @@ public class ReactiveResponseAutoConfigurationTest {
         // 测试自动配置是否正常工作
         contextRunner.run(context -> {
             assertThat(context).hasSingleBean(SpringReactiveResponseBuilder.class);
+            assertThat(context).hasSingleBean(ReactiveResponseModule.class);
         });
     }
 
+    @Test
+    public void testFailureLoggerOptIn() {
+        // 失败日志默认不注册，设置属性后注册
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(FailureLogger.class));
+        contextRunner
+                .withPropertyValues("reactive.response.failure-log.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(FailureLogger.class));
+    }
+
     @Test
     public void testCustomConfiguration() {
         // 测试自定义配置是否会覆盖自动配置
@@ -35,6 +64,126 @@ public class ReactiveResponseAutoConfigurationTest {
                 });
     }
 
+    @Test
+    public void testLeanRegistration() {
+        // 测试自动配置只注册必要的Bean，且配置类未被CGLIB代理
+        contextRunner.run(context -> {
+            assertThat(context.getBeansOfType(ReactiveResponseService.class)).isEmpty();
+            assertThat(context.getBean(ReactiveResponseAutoConfiguration.class).getClass())
+                    .isEqualTo(ReactiveResponseAutoConfiguration.class);
+        });
+    }
+
+    @Test
+    public void testConcurrencyLimitFilter() {
+        // 声明并发限制器并设置属性后在响应式Web应用中注册过滤器
+        ReactiveWebApplicationContextRunner webContextRunner = new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveResponseAutoConfiguration.class));
+        webContextRunner
+                .withPropertyValues("reactive.response.concurrency-limit.filter.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(ConcurrencyLimitWebFilter.class));
+        webContextRunner
+                .withBean(AdaptiveConcurrencyLimiter.class, AdaptiveConcurrencyLimiter::new)
+                .run(context -> assertThat(context).doesNotHaveBean(ConcurrencyLimitWebFilter.class));
+        webContextRunner
+                .withBean(AdaptiveConcurrencyLimiter.class, AdaptiveConcurrencyLimiter::new)
+                .withPropertyValues("reactive.response.concurrency-limit.filter.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(ConcurrencyLimitWebFilter.class));
+        contextRunner
+                .withBean(AdaptiveConcurrencyLimiter.class, AdaptiveConcurrencyLimiter::new)
+                .withPropertyValues("reactive.response.concurrency-limit.filter.enabled=true")
+                .run(context -> assertThat(context).doesNotHaveBean(ConcurrencyLimitWebFilter.class));
+    }
+
+    @Test
+    public void testPreEncodedCodec() {
+        // 设置属性后注册预编码响应头部的编码器
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(CodecCustomizer.class));
+        contextRunner
+                .withPropertyValues("reactive.response.codec.pre-encoded=true")
+                .run(context -> assertThat(context).hasSingleBean(CodecCustomizer.class));
+    }
+
+    @Test
+    public void testSpanRecording() {
+        // 默认不注册耗时记录相关的Bean，开启后注册记录器、过滤器和Actuator端点，没有Actuator时按配置的路径注册路由
+        ReactiveWebApplicationContextRunner webContextRunner = new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveResponseAutoConfiguration.class));
+        webContextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(SpanRecorder.class);
+            assertThat(context).doesNotHaveBean(SpanTimingWebFilter.class);
+            assertThat(context).doesNotHaveBean(SpanEndpoint.class);
+            assertThat(context.getBean(SpringReactiveResponseBuilder.class).getSpanRecorder()).isNull();
+        });
+        ReactiveWebApplicationContextRunner enabledRunner = webContextRunner
+                .withPropertyValues("reactive.response.spans.enabled=true");
+        enabledRunner.run(context -> {
+            assertThat(context).hasSingleBean(SpanRecorder.class);
+            assertThat(context).hasSingleBean(SpanTimingWebFilter.class);
+            assertThat(context).hasSingleBean(SpanEndpoint.class);
+            assertThat(context).doesNotHaveBean(RouterFunction.class);
+            assertThat(context.getBean(SpringReactiveResponseBuilder.class).getSpanRecorder())
+                    .isSameAs(context.getBean(SpanRecorder.class));
+        });
+        enabledRunner
+                .withClassLoader(new FilteredClassLoader("org.springframework.boot.actuate"))
+                .withPropertyValues("reactive.response.spans.path=/_spans")
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(SpanEndpoint.class);
+                    assertThat(context).hasSingleBean(RouterFunction.class);
+                });
+        webContextRunner
+                .withClassLoader(new FilteredClassLoader("org.springframework.boot.actuate"))
+                .withPropertyValues("reactive.response.spans.path=/_spans")
+                .run(context -> assertThat(context).doesNotHaveBean(RouterFunction.class));
+    }
+
+    @Test
+    public void testErrorHandler() {
+        // 全局异常处理器默认不注册，开启后使用自动配置的异常映射注册表
+        ReactiveWebApplicationContextRunner webContextRunner = new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReactiveResponseAutoConfiguration.class));
+        webContextRunner.run(context -> assertThat(context)
+                .doesNotHaveBean(ReactiveResponseWebExceptionHandler.class));
+        webContextRunner
+                .withPropertyValues("reactive.response.error-handler.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(ReactiveResponseWebExceptionHandler.class));
+    }
+
+    @Test
+    public void testWarmUpRunner() {
+        // 预热默认关闭，开启后按配置的迭代次数执行并记录耗时
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ReactiveResponseWarmUpRunner.class));
+        contextRunner
+                .withPropertyValues("reactive.response.warm-up.enabled=true",
+                        "reactive.response.warm-up.iterations=50",
+                        "reactive.response.codec.pre-encoded=true")
+                .run(context -> {
+                    ReactiveResponseWarmUpRunner runner = context.getBean(ReactiveResponseWarmUpRunner.class);
+                    runner.run(new DefaultApplicationArguments());
+                    assertThat(runner.getCompletedIterations()).isEqualTo(50);
+                    assertThat(runner.getElapsed()).isPositive();
+                });
+    }
+
+    @Test
+    public void testWarmUpDoesNotWriteFailureLog() {
+        // 全局注册表开启失败日志时，预热不产生失败日志
+        TestLogger output = new TestLogger();
+        FailureLogger logger = new FailureLogger(output, Duration.ofMinutes(1), 5, 64);
+        ExceptionMappingRegistry.getDefault().failureLogger(logger);
+        try {
+            ReactiveResponseWarmUpRunner runner = new ReactiveResponseWarmUpRunner(new ObjectMapper(), false, 20,
+                    Duration.ofSeconds(10));
+            runner.run(new DefaultApplicationArguments());
+            assertThat(runner.getCompletedIterations()).isEqualTo(20);
+        } finally {
+            ExceptionMappingRegistry.getDefault().failureLogger(null);
+            logger.close();
+        }
+        assertThat(output.getErrContent() + output.getOutContent()).isEmpty();
+    }
+
     // 自定义配置类
     static class CustomConfiguration {
         @org.springframework.context.annotation.Bean
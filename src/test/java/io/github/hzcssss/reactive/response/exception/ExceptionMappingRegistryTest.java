@@ -0,0 +1,93 @@
+package io.github.hzcssss.reactive.response.exception;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异常映射注册表测试类
+ */
+public class ExceptionMappingRegistryTest {
+
+    @Test
+    public void testSubclassMapping() {
+        // 子类异常沿继承链找到父类的映射
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry()
+                .register(IllegalArgumentException.class, ExceptionMapping.of(1100, "参数错误", 400));
+
+        ExceptionMapping mapping = registry.lookup(NumberFormatException.class);
+
+        assertEquals(400, mapping.getHttpStatus());
+        ReactiveResponse<Object> response = registry.toResponse(new NumberFormatException("abc"));
+        assertFalse(response.isSuccess());
+        assertEquals(1100, response.getErrorCode());
+        assertEquals("参数错误", response.getMessage());
+    }
+
+    @Test
+    public void testFixedMessageSkipsGetMessage() {
+        // 固定消息的映射不调用getMessage()
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry()
+                .register(MessageTrapException.class, ResponseCode.FORBIDDEN, 403);
+
+        ReactiveResponse<Object> response = registry.toResponse(new MessageTrapException());
+
+        assertEquals(1003, response.getErrorCode());
+        assertEquals("禁止访问", response.getMessage());
+    }
+
+    @Test
+    public void testBusinessExceptionAndFallback() {
+        // 业务异常使用自身错误码，未注册异常使用默认映射
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry();
+
+        ReactiveResponse<Object> business = registry.toResponse(new BusinessException(1002, "业务异常"));
+        ReactiveResponse<Object> error = registry.toResponse(new IllegalStateException("状态异常"));
+
+        assertEquals(1002, business.getErrorCode());
+        assertEquals("业务异常", business.getMessage());
+        assertEquals(9999, error.getErrorCode());
+        assertEquals("状态异常", error.getMessage());
+    }
+
+    @Test
+    public void testRegisterAfterLookup() {
+        // 注册新映射后缓存失效
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry();
+        assertSame(ExceptionMappingRegistry.DEFAULT_FALLBACK_MAPPING, registry.lookup(UnsupportedOperationException.class));
+
+        registry.register(UnsupportedOperationException.class, ExceptionMapping.ofExceptionMessage(1200, 501));
+
+        assertEquals(501, registry.lookup(UnsupportedOperationException.class).getHttpStatus());
+    }
+
+    @Test
+    public void testSpringBuilderRegistry() {
+        // Spring构建器使用自己的注册表，默认消息保持"系统错误: "前缀
+        SpringReactiveResponseBuilder builder = new SpringReactiveResponseBuilder();
+        builder.getExceptionMappings().register(IllegalArgumentException.class, ExceptionMapping.of(1100, "参数错误", 400));
+
+        StepVerifier.create(builder.<String>from(Mono.error(new IllegalArgumentException("x"))).build())
+                .assertNext(response -> assertEquals("参数错误", response.getMessage()))
+                .verifyComplete();
+        StepVerifier.create(builder.<String>from(Mono.error(new IllegalStateException("状态异常"))).build())
+                .assertNext(response -> {
+                    assertEquals(9999, response.getErrorCode());
+                    assertEquals("系统错误: 状态异常", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    // 调用getMessage()即失败的异常
+    static class MessageTrapException extends RuntimeException {
+        @Override
+        public String getMessage() {
+            throw new AssertionError("不应调用getMessage()");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.hzcssss.reactive.response.exception;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.util.BatchCollectors;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.util.TestLogger;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 失败日志测试类
+ */
+public class FailureLoggerTest {
+
+    @Test
+    public void testSampledPerKey() {
+        // 每种失败在窗口内只记录前几次，其余在汇总中计数
+        TestLogger output = new TestLogger();
+        FailureLogger logger = new FailureLogger(output, Duration.ofMinutes(1), 3, 64);
+        IllegalStateException error = new IllegalStateException("下游超时");
+        for (int i = 0; i < 20; i++) {
+            logger.record(1000, error);
+        }
+        logger.record(1001, error);
+        logger.record(1004, new BusinessException(1004, "user not found"));
+        logger.close();
+
+        String log = output.getErrContent() + output.getOutContent();
+        assertEquals(5, count(log, "Wrapped failure"));
+        assertTrue(log.contains("Suppressed 17 more failures errorCode=1000 type=java.lang.IllegalStateException"));
+        // 业务异常以INFO级别输出，不输出堆栈
+        String business = "errorCode=1004 type=" + BusinessException.class.getName();
+        assertTrue(output.getOutContent().contains("INFO"));
+        assertTrue(output.getOutContent().contains(business));
+        assertFalse(output.getErrContent().contains(business));
+        assertTrue(log.contains("user not found"));
+    }
+
+    @Test
+    public void testRegistryRecordsFailures() {
+        // 注册表转换异常时记录失败日志
+        TestLogger output = new TestLogger();
+        FailureLogger logger = new FailureLogger(output, Duration.ofMinutes(1), 1, 64);
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry().failureLogger(logger);
+        ReactiveResponse<Object> response = registry.toResponse(new IllegalArgumentException("参数错误"));
+        logger.close();
+
+        assertFalse(response.isSuccess());
+        String log = output.getErrContent() + output.getOutContent();
+        assertTrue(log.contains("errorCode=" + response.getErrorCode() + " type=java.lang.IllegalArgumentException"));
+    }
+
+    @Test
+    public void testBatchAndCustomHandlerFailuresRecorded() {
+        // 批量结果中的失败和自定义错误处理器转换的失败同样记录
+        TestLogger output = new TestLogger();
+        FailureLogger logger = new FailureLogger(output, Duration.ofMinutes(1), 5, 64);
+        ExceptionMappingRegistry registry = new ExceptionMappingRegistry().failureLogger(logger);
+        BatchCollectors.process(Flux.just(1, 2), i -> i == 2
+                ? Mono.error(new IllegalArgumentException("batch item failed"))
+                : Mono.just(i), 1, registry).block();
+        new SpringReactiveResponseBuilder(registry)
+                .from(Mono.error(new UnsupportedOperationException("handled")))
+                .onError(e -> ReactiveResponse.failure(1200, "custom"))
+                .build()
+                .block();
+        logger.close();
+
+        String log = output.getErrContent() + output.getOutContent();
+        assertTrue(log.contains("type=java.lang.IllegalArgumentException"), log);
+        assertTrue(log.contains("errorCode=1200 type=java.lang.UnsupportedOperationException"), log);
+    }
+
+    @Test
+    public void testRingBufferBounded() {
+        // 缓冲区满时offer立即返回false，按写入顺序取出
+        FailureLogger.RingBuffer<Integer> buffer = new FailureLogger.RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testRingBufferConcurrentProducers() throws Exception {
+        // 多个生产者并发写入时每个元素恰好取出一次
+        FailureLogger.RingBuffer<Integer> buffer = new FailureLogger.RingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertTrue(seen.add(value), "重复取出 " + value);
+            }
+        }
+        executor.shutdownNow();
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.BatchResult;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.FieldProjection;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.util.DeltaSnapshots;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 字段投影测试类
+ */
+public class FieldProjectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ReactiveResponseModule());
+
+    @Test
+    public void testNestedProjection() throws Exception {
+        // 列表中的每个元素只输出选中的字段，嵌套对象按子路径过滤，不存在的字段忽略
+        ReactiveResponse<List<User>> response = ReactiveResponseBuilder
+                .from(Flux.just(new User(1, "张三", new Address("上海", "浦东")), new User(2, "李四", null)))
+                .fields("id, address.city, unknown")
+                .build()
+                .block();
+
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsBytes(response));
+        assertTrue(node.get("success").asBoolean());
+        assertEquals("{\"id\":1,\"address\":{\"city\":\"上海\"}}", node.get("data").get(0).toString());
+        assertEquals("{\"id\":2,\"address\":null}", node.get("data").get(1).toString());
+    }
+
+    @Test
+    public void testWholeSubtreeAndMaps() throws Exception {
+        // 选中路径本身时输出其下全部字段，保留属性重命名；Map按键过滤
+        ReactiveResponse<User> user = FieldProjection.parse("address,address.city,name")
+                .apply(ReactiveResponse.success(new User(1, "张三", new Address("上海", "浦东"))));
+        assertEquals("{\"name\":\"张三\",\"address\":{\"city\":\"上海\",\"districtName\":\"浦东\"}}",
+                objectMapper.readTree(objectMapper.writeValueAsBytes(user)).get("data").toString());
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("total", 2);
+        map.put("items", Arrays.asList(new User(1, "张三", null), new User(2, "李四", null)));
+        map.put("debug", "内部信息");
+        ReactiveResponse<Map<String, Object>> page = ReactiveResponseBuilder.from(Mono.just(map))
+                .fields("total,items.name")
+                .build()
+                .block();
+        assertEquals("{\"total\":2,\"items\":[{\"name\":\"张三\"},{\"name\":\"李四\"}]}",
+                objectMapper.readTree(objectMapper.writeValueAsBytes(page)).get("data").toString());
+    }
+
+    @Test
+    public void testParseCachedAndValidated() {
+        // 相同表达式复用编译结果，空白表达式不投影，无效表达式构建失败响应且不执行源
+        assertSame(FieldProjection.parse("id,name"), FieldProjection.parse("id,name"));
+        assertNull(FieldProjection.parse(" "));
+        assertNull(FieldProjection.parse(null));
+        assertEquals(Collections.singleton("address"), FieldProjection.parse("address.city").fields());
+        assertThrows(IllegalArgumentException.class, () -> FieldProjection.parse("address..city"));
+
+        AtomicBoolean subscribed = new AtomicBoolean();
+        ReactiveResponse<User> response = ReactiveResponseBuilder
+                .from(Mono.fromCallable(() -> new User(1, "张三", null)).doOnSubscribe(s -> subscribed.set(true)))
+                .fields("id,.name")
+                .build()
+                .block();
+        assertFalse(response.isSuccess());
+        assertEquals(1000, response.getErrorCode());
+        assertFalse(subscribed.get());
+    }
+
+    @Test
+    public void testCachesBoundedAndKeyedByValue() throws Exception {
+        // 大量不同的表达式淘汰旧缓存而不是停止缓存；写法不同但字段相同的投影共用一个属性计划
+        for (int i = 0; i < 2 * FieldProjectionWriter.PlanCache.MAX_PLANS; i++) {
+            FieldProjection.parse("id,f" + i);
+        }
+        assertSame(FieldProjection.parse("name,id"), FieldProjection.parse("name,id"));
+        assertEquals(FieldProjection.parse("id,name"), FieldProjection.parse("name, id,name"));
+
+        FieldProjectionWriter.PlanCache plans = new FieldProjectionWriter.PlanCache();
+        User user = new User(1, "张三", new Address("上海", "浦东"));
+        assertEquals("{\"id\":1,\"name\":\"张三\"}", write(user, FieldProjection.parse("id,name"), plans));
+        assertEquals("{\"id\":1,\"name\":\"张三\"}", write(user, FieldProjection.parse("name,id"), plans));
+        assertEquals(1, plans.size());
+        for (int i = 0; i < 2 * FieldProjectionWriter.PlanCache.MAX_PLANS; i++) {
+            write(user, FieldProjection.parse("id,g" + i), plans);
+        }
+        assertTrue(plans.size() <= FieldProjectionWriter.PlanCache.MAX_PLANS);
+    }
+
+    @Test
+    public void testProjectionPushedDownToResultItems() throws Exception {
+        // 批量和增量响应投影结果中的元素，结果对象的其余字段原样输出
+        Flux<User> users = Flux.just(new User(1, "张三", new Address("上海", "浦东")), new User(2, "李四", null));
+        ReactiveResponse<BatchResult<User>> batch = ReactiveResponseBuilder.from(users)
+                .fields("id,name")
+                .buildBatch()
+                .block();
+        JsonNode batchData = objectMapper.readTree(objectMapper.writeValueAsBytes(batch)).get("data");
+        assertEquals("[{\"id\":1,\"name\":\"张三\"},{\"id\":2,\"name\":\"李四\"}]",
+                batchData.get("items").toString());
+        assertEquals(2, batchData.get("total").asInt());
+        assertEquals(0, batchData.get("failureCount").asInt());
+
+        DeltaSnapshots<User, Integer> snapshots = new DeltaSnapshots<>(User::getId);
+        ReactiveResponse<DeltaResult<User>> full = ReactiveResponseBuilder.from(users)
+                .fields("id,name")
+                .buildDelta(snapshots, "users", null)
+                .block();
+        JsonNode fullData = objectMapper.readTree(objectMapper.writeValueAsBytes(full)).get("data");
+        assertEquals("[{\"id\":1,\"name\":\"张三\"},{\"id\":2,\"name\":\"李四\"}]",
+                fullData.get("items").toString());
+        assertEquals(full.getData().getVersion(), fullData.get("version").asText());
+        assertTrue(fullData.get("full").asBoolean());
+
+        ReactiveResponse<DeltaResult<User>> delta = ReactiveResponseBuilder
+                .from(Flux.just(new User(1, "张三", new Address("上海", "浦西")), new User(3, "王五", null)))
+                .fields("name")
+                .buildDelta(snapshots, "users", full.getData().getVersion())
+                .block();
+        JsonNode deltaData = objectMapper.readTree(objectMapper.writeValueAsBytes(delta)).get("data");
+        assertFalse(deltaData.get("full").asBoolean());
+        assertEquals("[{\"name\":\"王五\"}]", deltaData.get("added").toString());
+        assertEquals("[{\"name\":\"张三\"}]", deltaData.get("changed").toString());
+        assertEquals("[2]", deltaData.get("removed").toString());
+    }
+
+    @Test
+    public void testAggregatesNotProjected() throws Exception {
+        // 聚合结果不是元素，收集和归约响应忽略投影
+        Flux<User> users = Flux.just(new User(1, "张三", null), new User(2, "李四", null));
+        ReactiveResponse<Map<Integer, String>> collected = ReactiveResponseBuilder.from(users)
+                .fields("id,name")
+                .buildCollect(Collectors.toMap(User::getId, User::getName))
+                .block();
+        assertEquals("{\"1\":\"张三\",\"2\":\"李四\"}",
+                objectMapper.readTree(objectMapper.writeValueAsBytes(collected)).get("data").toString());
+
+        ReactiveResponse<LinkedHashMap<String, Integer>> reduced = ReactiveResponseBuilder.from(users)
+                .fields("id,name")
+                .buildReduce(LinkedHashMap<String, Integer>::new, (sums, user) -> {
+                    sums.merge("ids", user.getId(), Integer::sum);
+                    return sums;
+                })
+                .block();
+        assertEquals("{\"ids\":3}",
+                objectMapper.readTree(objectMapper.writeValueAsBytes(reduced)).get("data").toString());
+    }
+
+    @Test
+    public void testWithoutProjection() throws Exception {
+        // 未设置投影时输出与普通响应相同
+        User user = new User(1, "张三", new Address("上海", "浦东"));
+        ReactiveResponse<User> response = ReactiveResponseBuilder.from(Mono.just(user)).fields(null).build().block();
+        assertEquals(objectMapper.writeValueAsString(ReactiveResponse.success(user).getData()),
+                objectMapper.readTree(objectMapper.writeValueAsBytes(response)).get("data").toString());
+    }
+
+    private String write(Object value, FieldProjection projection, FieldProjectionWriter.PlanCache plans)
+            throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            FieldProjectionWriter.write(value, projection, plans, gen, objectMapper.getSerializerProviderInstance());
+        }
+        return out.toString();
+    }
+
+    public static class User {
+        private final int id;
+        private final String name;
+        private final Address address;
+
+        User(int id, String name, Address address) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static class Address {
+        private final String city;
+        private final String district;
+
+        Address(String city, String district) {
+            this.city = city;
+            this.district = district;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        @JsonProperty("districtName")
+        public String getDistrict() {
+            return district;
+        }
+    }
+}
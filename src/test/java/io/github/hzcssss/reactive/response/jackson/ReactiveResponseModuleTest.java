@@ -0,0 +1,118 @@
+package io.github.hzcssss.reactive.response.jackson;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+import io.github.hzcssss.reactive.response.core.ImmutableReactiveResponse;
+import io.github.hzcssss.reactive.response.core.IntArray;
+import io.github.hzcssss.reactive.response.core.LongArray;
+import io.github.hzcssss.reactive.response.core.RawJson;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Jackson模块测试类
+ */
+public class ReactiveResponseModuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ReactiveResponseModule());
+
+    @Test
+    public void testRawJsonSpliced() throws Exception {
+        // 预序列化的数据直接写入data字段
+        ReactiveResponse<RawJson> response = ReactiveResponse.success(RawJson.of("{\"id\":1,\"name\":\"张三\"}"));
+
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsBytes(response));
+
+        assertTrue(node.get("success").asBoolean());
+        assertEquals(1, node.get("data").get("id").asInt());
+        assertEquals("张三", node.get("data").get("name").asText());
+    }
+
+    @Test
+    public void testImmutableResponseSameJson() throws Exception {
+        // 不可修改的响应与原响应序列化结果相同，并可反序列化
+        ReactiveResponse<String> response = ReactiveResponse.failure(1004, "用户不存在");
+        ImmutableReactiveResponse<String> immutable = response.toImmutable();
+        String json = objectMapper.writeValueAsString(immutable);
+        assertEquals(objectMapper.writeValueAsString(response), json);
+
+        ImmutableReactiveResponse<?> read = objectMapper.readValue(json, ImmutableReactiveResponse.class);
+        assertEquals(1004, read.getErrorCode());
+        assertEquals("用户不存在", read.getMessage());
+        assertEquals(response.getTimestamp(), read.getTimestamp());
+    }
+
+    @Test
+    public void testRawJsonSlice() throws Exception {
+        // 只写入数组中指定的片段
+        byte[] bytes = "xx[1,2,3]yy".getBytes(StandardCharsets.UTF_8);
+        ReactiveResponse<RawJson> response = ReactiveResponse.success(RawJson.of(bytes, 2, 7));
+
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        assertEquals(3, node.get("data").size());
+        assertEquals(3, node.get("data").get(2).asInt());
+    }
+
+    @Test
+    public void testLargeRawJsonFromDirectBuffer() throws Exception {
+        // 超过阈值的直接内存数据跳过生成器缓冲区写入
+        char[] chars = new char[RawJsonSerializer.DIRECT_WRITE_THRESHOLD * 2];
+        Arrays.fill(chars, 'a');
+        byte[] json = ("\"" + new String(chars) + "\"").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length);
+        buffer.put(json).flip();
+        ReactiveResponse<RawJson> response = ReactiveResponse.success(RawJson.of(buffer));
+
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsBytes(response));
+
+        assertEquals(chars.length, node.get("data").asText().length());
+        assertEquals("操作成功", node.get("message").asText());
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws Exception {
+        // 基本类型数组写为JSON数字数组，只写有效元素
+        LongArray longs = new LongArray(2);
+        for (long i = 0; i < 5; i++) {
+            longs.add(i * 1_000_000_000_000L);
+        }
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsBytes(ReactiveResponse.success(longs)));
+        assertEquals(5, node.get("data").size());
+        assertEquals(4_000_000_000_000L, node.get("data").get(4).asLong());
+
+        assertEquals("[1,2,3]", objectMapper.writeValueAsString(IntArray.of(1, 2, 3)));
+        assertEquals("[0.5,-1.25]", objectMapper.writeValueAsString(DoubleArray.of(0.5, -1.25)));
+        assertEquals("[]", objectMapper.writeValueAsString(new LongArray()));
+    }
+
+    @Test
+    public void testPrimitiveArraysRoundTrip() throws Exception {
+        // 基本类型数组的响应可以读回
+        ReactiveResponse<LongArray> longs = objectMapper.readValue(
+                objectMapper.writeValueAsBytes(ReactiveResponse.success(LongArray.of(1L, 4_000_000_000_000L))),
+                new TypeReference<ReactiveResponse<LongArray>>() {
+                });
+        assertEquals(LongArray.of(1L, 4_000_000_000_000L), longs.getData());
+
+        ReactiveResponse<IntArray> ints = objectMapper.readValue(
+                objectMapper.writeValueAsBytes(ReactiveResponse.success(IntArray.of(1, 2, 3))),
+                new TypeReference<ReactiveResponse<IntArray>>() {
+                });
+        assertEquals(IntArray.of(1, 2, 3), ints.getData());
+
+        assertEquals(DoubleArray.of(0.5, -1.25, 2), objectMapper.readValue("[0.5,-1.25,2]", DoubleArray.class));
+        assertEquals(new LongArray(), objectMapper.readValue("[]", LongArray.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("[1,\"x\"]", IntArray.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{}", LongArray.class));
+    }
+}
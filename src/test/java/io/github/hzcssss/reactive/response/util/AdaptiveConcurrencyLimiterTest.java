@@ -0,0 +1,154 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.web.ConcurrencyLimitWebFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自适应并发限制测试类
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final SpringReactiveResponseBuilder responseBuilder = new SpringReactiveResponseBuilder();
+
+    @Test
+    public void testRejectOverLimit() {
+        // 超过上限的请求立即返回过载响应，不订阅源
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10);
+        Disposable running = responseBuilder.from(Mono.never()).limit(limiter).build().subscribe();
+        assertEquals(1, limiter.getInFlight());
+
+        AtomicInteger subscribed = new AtomicInteger();
+        Mono<String> source = Mono.fromCallable(() -> {
+            subscribed.incrementAndGet();
+            return "数据";
+        });
+        StepVerifier.create(responseBuilder.from(source).limit(limiter).build())
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(ResponseCode.OVERLOADED.getErrorCode(), response.getErrorCode());
+                })
+                .verifyComplete();
+        assertEquals(0, subscribed.get());
+
+        // 取消后释放名额
+        running.dispose();
+        assertEquals(0, limiter.getInFlight());
+        StepVerifier.create(responseBuilder.from(source).limit(limiter).build())
+                .assertNext(response -> assertEquals("数据", response.getData()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testLimitAdaptsToLatency() {
+        // 耗时稳定且并发饱和时放大上限，耗时明显升高时收缩上限
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+        for (int i = 0; i < 5; i++) {
+            saturate(limiter, 1_000_000L);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 10, limiter.toString());
+
+        for (int i = 0; i < 3; i++) {
+            saturate(limiter, 50_000_000L);
+        }
+        assertTrue(limiter.getLimit() < grown, limiter.toString());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testWebFilterWritesOverloadedEnvelope() {
+        // 过滤器拒绝时按ObjectMapper编码过载响应
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10);
+        ConcurrencyLimitWebFilter filter = new ConcurrencyLimitWebFilter(limiter);
+        assertTrue(limiter.tryAcquire());
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        AtomicInteger chained = new AtomicInteger();
+        StepVerifier.create(filter.filter(exchange, e -> Mono.fromRunnable(chained::incrementAndGet)))
+                .verifyComplete();
+
+        assertEquals(0, chained.get());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertTrue(body.startsWith("{\"errorCode\":1005,\"message\":\"服务繁忙，请稍后重试\",\"success\":false,\"timestamp\":"), body);
+        assertTrue(body.endsWith(",\"data\":null}"), body);
+
+        limiter.release();
+        MockServerWebExchange admitted = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        StepVerifier.create(filter.filter(admitted, e -> Mono.fromRunnable(chained::incrementAndGet)))
+                .verifyComplete();
+        assertEquals(1, chained.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testWebFilterAndBuilderShareOnePermit() {
+        // 过滤器放行的请求再经过同一限制器的limit时不重复占用名额
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 10);
+        ConcurrencyLimitWebFilter filter = new ConcurrencyLimitWebFilter(limiter);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        StepVerifier.create(filter.filter(exchange, e -> responseBuilder
+                        .from(Mono.fromCallable(() -> inFlight.getAndSet(limiter.getInFlight())))
+                        .limit(limiter)
+                        .build()
+                        .doOnNext(response -> {
+                            if (!response.isSuccess()) {
+                                rejected.incrementAndGet();
+                            }
+                        })
+                        .then()))
+                .verifyComplete();
+
+        assertEquals(0, rejected.get());
+        assertEquals(1, inFlight.get());
+        assertEquals(0, limiter.getInFlight());
+
+        // 其他限制器仍然各自占用名额
+        AdaptiveConcurrencyLimiter other = new AdaptiveConcurrencyLimiter(1, 10);
+        assertTrue(other.tryAcquire());
+        MockServerWebExchange limited = MockServerWebExchange.from(MockServerHttpRequest.get("/api/users"));
+        StepVerifier.create(filter.filter(limited, e -> responseBuilder.from(Mono.fromCallable(() -> "数据"))
+                        .limit(other)
+                        .build()
+                        .doOnNext(response -> assertEquals(ResponseCode.OVERLOADED.getErrorCode(),
+                                response.getErrorCode()))
+                        .then()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testOverloadedResponse() {
+        // 过载响应不经过异常映射
+        ReactiveResponse<Object> response = AdaptiveConcurrencyLimiter.overloadedResponse();
+        assertEquals(ResponseCode.OVERLOADED.getMessage(), response.getMessage());
+    }
+
+    /**
+     * 占满上限后以相同耗时释放全部名额
+     */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.DeltaResult;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 增量响应测试类
+ */
+public class DeltaSnapshotsTest {
+
+    @Test
+    public void testDeltaAgainstClientVersion() {
+        // 首次返回全量，之后只返回新增、变化和删除的元素
+        DeltaSnapshots<String, Character> snapshots = new DeltaSnapshots<>(item -> item.charAt(0));
+        DeltaResult<String> first = snapshots.diff("/orders", null, Arrays.asList("a1", "b1", "c1"));
+        assertTrue(first.isFull());
+        assertEquals(Arrays.asList("a1", "b1", "c1"), first.getItems());
+        assertNotNull(first.getVersion());
+
+        // 内容未变时复用版本号，不保存新快照
+        DeltaResult<String> same = snapshots.diff("/orders", first.getVersion(), Arrays.asList("a1", "b1", "c1"));
+        assertFalse(same.hasChanges());
+        assertEquals(first.getVersion(), same.getVersion());
+        assertEquals(1, snapshots.size());
+
+        DeltaResult<String> delta = snapshots.diff("/orders", first.getVersion(), Arrays.asList("a1", "b2", "d1"));
+        assertFalse(delta.isFull());
+        assertNotEquals(first.getVersion(), delta.getVersion());
+        assertEquals(Collections.singletonList("d1"), delta.getAdded());
+        assertEquals(Collections.singletonList("b2"), delta.getChanged());
+        assertEquals(Collections.singletonList('c'), delta.getRemoved());
+        assertTrue(delta.getItems().isEmpty());
+
+        // 落后多个版本的客户端仍与自己的版本比较
+        DeltaResult<String> stale = snapshots.diff("/orders", first.getVersion(), Arrays.asList("a1", "b2", "d1"));
+        assertEquals(delta.getVersion(), stale.getVersion());
+        assertEquals(Collections.singletonList("d1"), stale.getAdded());
+    }
+
+    @Test
+    public void testFullWhenSnapshotMissing() {
+        // 快照被淘汰、版本号未知或属于其他键时返回全量
+        DeltaSnapshots<String, Character> snapshots = new DeltaSnapshots<>(item -> item.charAt(0), 2, 100);
+        String v1 = snapshots.diff("/a", null, Collections.singletonList("a1")).getVersion();
+        snapshots.diff("/b", null, Collections.singletonList("b1"));
+        snapshots.diff("/c", null, Collections.singletonList("c1"));
+        assertEquals(2, snapshots.size());
+        assertTrue(snapshots.diff("/a", v1, Collections.singletonList("a1")).isFull());
+        assertTrue(snapshots.diff("/a", "unknown", Collections.singletonList("a1")).isFull());
+        String vb = snapshots.diff("/b", null, Collections.singletonList("b1")).getVersion();
+        assertTrue(snapshots.diff("/c", vb, Collections.singletonList("c1")).isFull());
+
+        // 元素超过上限时不保存快照
+        DeltaSnapshots<String, Character> small = new DeltaSnapshots<>(item -> item.charAt(0), 2, 1);
+        DeltaResult<String> large = small.diff("/a", null, Arrays.asList("a1", "b1"));
+        assertTrue(large.isFull());
+        assertNull(large.getVersion());
+        assertEquals(0, small.size());
+    }
+
+    @Test
+    public void testBuildDelta() {
+        // 构建器包装增量结果，元素标识重复时返回失败响应
+        DeltaSnapshots<String, Character> snapshots = new DeltaSnapshots<>(item -> item.charAt(0));
+        String version = ReactiveResponseUtil.wrapDelta(snapshots, "/orders", null, Flux.just("a1", "b1"))
+                .block().getData().getVersion();
+
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.just("a1", "b1", "c1"))
+                        .buildDelta(snapshots, "/orders", version))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    List<String> added = response.getData().getAdded();
+                    assertEquals(Collections.singletonList("c1"), added);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.just("a1", "a2"))
+                        .buildDelta(snapshots, "/orders", version))
+                .assertNext(response -> assertFalse(response.isSuccess()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuildDeltaCustomErrorHandler() {
+        // 源失败或元素标识重复时使用自定义错误处理器
+        DeltaSnapshots<String, Character> snapshots = new DeltaSnapshots<>(item -> item.charAt(0));
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.<String>error(new IllegalStateException("源失败")))
+                        .onError(e -> ReactiveResponse.failure(1200, "增量失败: " + e.getMessage()))
+                        .buildDelta(snapshots, "/orders", null))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1200, response.getErrorCode());
+                    assertEquals("增量失败: 源失败", response.getMessage());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.just("a1", "a2"))
+                        .onError(e -> ReactiveResponse.failure(1201, "标识重复"))
+                        .buildDelta(snapshots, "/orders", null))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1201, response.getErrorCode());
+                })
+                .verifyComplete();
+    }
+}
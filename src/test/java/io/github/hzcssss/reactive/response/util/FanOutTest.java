@@ -0,0 +1,97 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 有界并发扩展调用测试类
+ */
+public class FanOutTest {
+
+    @Test
+    public void testBoundedConcurrency() {
+        // 同时执行的调用数不超过并发数
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Flux<Integer> result = FanOut.apply(Flux.range(0, 20), i -> Mono.delay(Duration.ofMillis(5))
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .map(tick -> {
+                    // 在发出结果之前减少计数，下一个调用在此之后才会开始
+                    inFlight.decrementAndGet();
+                    return i;
+                }), 3, false);
+
+        StepVerifier.create(result.count()).expectNext(20L).verifyComplete();
+        assertTrue(maxInFlight.get() <= 3, "最大并发 " + maxInFlight.get());
+    }
+
+    @Test
+    public void testOrdered() {
+        // 有序模式下后完成的元素仍按输入顺序输出
+        StepVerifier.withVirtualTime(() -> FanOut.apply(Flux.just(3, 1, 2),
+                        i -> Mono.delay(Duration.ofSeconds(i)).thenReturn(i), 3, true).collectList())
+                .thenAwait(Duration.ofSeconds(3))
+                .expectNext(Arrays.asList(3, 1, 2))
+                .verifyComplete();
+
+        // 无序模式按完成顺序输出
+        StepVerifier.withVirtualTime(() -> FanOut.apply(Flux.just(3, 1, 2),
+                        i -> Mono.delay(Duration.ofSeconds(i)).thenReturn(i), 3, false).collectList())
+                .thenAwait(Duration.ofSeconds(3))
+                .expectNext(Arrays.asList(1, 2, 3))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSkipFailedAndTimedOutItems() {
+        // 跳过失败和超时的元素，其余元素照常返回
+        StepVerifier.withVirtualTime(() -> ReactiveResponseUtil.wrapFanOut(Flux.range(1, 4), i -> {
+                    if (i == 2) {
+                        return Mono.error(new IllegalStateException("查询失败"));
+                    }
+                    return Mono.delay(Duration.ofSeconds(i == 3 ? 10 : 1)).thenReturn("详情" + i);
+                }, 2, true, Duration.ofSeconds(2), FanOut.ItemErrorMode.SKIP))
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals(Arrays.asList("详情1", "详情4"), response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testFailOnItemError() {
+        // 默认任一调用失败时返回失败响应，构建器保留已设置的成功消息
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.range(1, 3))
+                        .successMessage("查询完成")
+                        .fanOut(i -> i == 2 ? Mono.<String>error(new BusinessException(1004, "用户不存在"))
+                                : Mono.just("用户" + i), 2, true)
+                        .build())
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1004, response.getErrorCode());
+                    assertEquals("用户不存在", response.getMessage());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.range(1, 3))
+                        .successMessage("查询完成")
+                        .fanOut(i -> Mono.just("用户" + i), 2, true)
+                        .build())
+                .assertNext(response -> {
+                    assertEquals("查询完成", response.getMessage());
+                    assertEquals(Arrays.asList("用户1", "用户2", "用户3"), response.getData());
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 对冲请求测试类
+ */
+public class HedgingPolicyTest {
+
+    @Test
+    public void testHedgeWinsOverSlowPrimary() {
+        // 原始请求过慢时对冲请求先返回，原始请求被取消
+        HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ofMillis(50), 4);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        Mono<String> source = Mono.defer(() -> attempts.getAndIncrement() == 0
+                ? Mono.just("慢副本").delayElement(Duration.ofSeconds(5)).doOnCancel(cancelled::incrementAndGet)
+                : Mono.just("快副本"));
+
+        StepVerifier.create(ReactiveResponseBuilder.from(source).hedge(policy).build())
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals("快副本", response.getData());
+                })
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, cancelled.get());
+        assertEquals(1, policy.hedgesIssued());
+        assertEquals(0, policy.hedgesInFlight());
+    }
+
+    @Test
+    public void testNoHedgeForFastPrimary() {
+        // 原始请求在延迟内结束时不发出对冲请求
+        HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ofSeconds(1), 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(policy.apply(() -> Mono.fromCallable(attempts::incrementAndGet)))
+                .expectNext(1)
+                .verifyComplete();
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.hedgesIssued());
+    }
+
+    @Test
+    public void testHedgesInFlightCapped() throws InterruptedException {
+        // 在途对冲数达到上限后只等待原始请求
+        HedgingPolicy policy = HedgingPolicy.fixedDelay(Duration.ofMillis(10), 1);
+        Disposable stuck = policy.apply(Mono::never).subscribe();
+        for (int i = 0; i < 100 && policy.hedgesInFlight() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, policy.hedgesInFlight());
+
+        StepVerifier.create(policy.apply(() -> Mono.delay(Duration.ofMillis(100)).thenReturn("原始")))
+                .expectNext("原始")
+                .verifyComplete();
+        assertEquals(1, policy.hedgesIssued());
+        assertEquals(1, policy.hedgesRejected());
+
+        stuck.dispose();
+        assertEquals(0, policy.hedgesInFlight());
+    }
+
+    @Test
+    public void testAdaptiveDelayFollowsPercentile() {
+        // 自适应延迟跟随最近耗时的分位数，且不低于最小延迟
+        HedgingPolicy policy = HedgingPolicy.adaptive(Duration.ofMillis(1), 1000);
+        assertEquals(Duration.ofMillis(1), policy.currentDelay());
+
+        Flux<Long> calls = Flux.range(0, HedgingPolicy.RECOMPUTE_INTERVAL * 2)
+                .flatMap(i -> policy.apply(() -> Mono.delay(Duration.ofMillis(30))), 64);
+        StepVerifier.create(calls)
+                .expectNextCount(HedgingPolicy.RECOMPUTE_INTERVAL * 2)
+                .verifyComplete();
+
+        assertTrue(policy.currentDelay().compareTo(Duration.ofMillis(1)) > 0, policy.toString());
+    }
+
+    @Test
+    public void testSampleCountBeyondIntRange() {
+        // 样本计数超过int范围后仍正常重新计算分位数
+        HedgingPolicy policy = HedgingPolicy.adaptive(Duration.ofMillis(1), 1000);
+        policy.sampleCount.set(Integer.MAX_VALUE - 5);
+        for (int i = 0; i < HedgingPolicy.RECOMPUTE_INTERVAL * 2; i++) {
+            policy.recordLatency(Duration.ofMillis(20).toNanos());
+        }
+        assertTrue(policy.sampleCount.get() > Integer.MAX_VALUE);
+        assertEquals(Duration.ofMillis(20), policy.currentDelay());
+
+        StepVerifier.create(policy.apply(() -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多路有序归并测试类
+ */
+public class SortedMergeTest {
+
+    @Test
+    public void testMergeSortedSources() {
+        // 多个已排序数据源归并为一个有序列表
+        StepVerifier.create(ReactiveResponseUtil.wrapMergeSorted(Arrays.asList(
+                        Flux.just(1, 4, 7), Flux.just(2, 5, 8), Flux.<Integer>empty(), Flux.just(3, 6, 9)),
+                        Comparator.<Integer>naturalOrder()))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testConcurrentSources() {
+        // 数据源在不同线程上发出元素时结果与整体排序相同
+        Random random = new Random(42);
+        List<Flux<Integer>> sources = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int s = 0; s < 8; s++) {
+            int[] values = random.ints(500, 0, 10_000).sorted().toArray();
+            List<Integer> shard = new ArrayList<>();
+            for (int value : values) {
+                shard.add(value);
+                expected.add(value);
+            }
+            sources.add(Flux.fromIterable(shard).publishOn(Schedulers.parallel(), 16));
+        }
+        expected.sort(Comparator.naturalOrder());
+
+        StepVerifier.create(SortedMerge.collect(sources, Comparator.<Integer>naturalOrder()))
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testLimitCancelsSources() {
+        // 取够前K个后取消所有数据源，不再读取剩余数据
+        AtomicLong requested = new AtomicLong();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Integer> large = Flux.range(0, 1_000_000).map(i -> i * 2)
+                .doOnRequest(requested::addAndGet)
+                .doOnCancel(() -> cancelled.set(true));
+
+        StepVerifier.create(SortedMerge.collect(Arrays.asList(large, Flux.range(0, 1_000_000).map(i -> i * 2 + 1)),
+                        Comparator.<Integer>naturalOrder(), 5))
+                .expectNext(Arrays.asList(0, 1, 2, 3, 4))
+                .verifyComplete();
+        assertTrue(cancelled.get());
+        assertTrue(requested.get() <= SortedMerge.DEFAULT_PREFETCH, "已请求 " + requested.get());
+    }
+
+    @Test
+    public void testSourceError() {
+        // 任一数据源出错时返回失败响应
+        StepVerifier.create(ReactiveResponseUtil.wrapMergeSorted(Arrays.asList(
+                        Flux.just("a", "c"),
+                        Flux.concat(Flux.just("b"), Flux.error(new BusinessException(1004, "分库查询失败")))),
+                        Comparator.<String>naturalOrder(), 10))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals(1004, response.getErrorCode());
+                })
+                .verifyComplete();
+    }
+}
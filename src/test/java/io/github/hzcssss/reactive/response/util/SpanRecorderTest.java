@@ -0,0 +1,100 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.web.SpanTimingWebFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 耗时记录测试类
+ */
+public class SpanRecorderTest {
+
+    @Test
+    public void testMonoSpan() {
+        // 记录订阅到首个信号和响应生成的耗时
+        SpanRecorder recorder = new SpanRecorder();
+        StepVerifier.create(ReactiveResponseBuilder.from(Mono.delay(Duration.ofMillis(50)).thenReturn("用户"))
+                        .span(recorder, "/users/{id}")
+                        .build())
+                .assertNext(response -> assertTrue(response.isSuccess()))
+                .verifyComplete();
+
+        List<SpanRecorder.Span> spans = recorder.recent();
+        assertEquals(1, spans.size());
+        SpanRecorder.Span span = spans.get(0);
+        assertEquals("/users/{id}", span.getLabel());
+        assertTrue(span.getFirstSignalMicros() >= 50_000, span.toString());
+        assertTrue(span.getCompleteMicros() >= span.getFirstSignalMicros());
+        assertEquals(-1, span.getWriteMicros());
+        assertFalse(span.isCancelled());
+    }
+
+    @Test
+    public void testStatisticsPerLabel() {
+        // 按标签统计分位数和失败数，标量源设置标签后同样记录
+        SpanRecorder recorder = new SpanRecorder();
+        for (int i = 0; i < 10; i++) {
+            ReactiveResponseBuilder.from(Flux.range(0, 100)).span(recorder, "list").build().block();
+        }
+        ReactiveResponseBuilder.from(Mono.error(new BusinessException(1004, "用户不存在")))
+                .span(recorder, "detail")
+                .build()
+                .block();
+
+        Map<String, SpanRecorder.LabelStats> stats = recorder.statistics();
+        assertEquals(2, stats.size());
+        assertEquals(10, stats.get("list").getCount());
+        assertEquals(0, stats.get("list").getFailures());
+        assertTrue(stats.get("list").getP50Micros() <= stats.get("list").getP99Micros());
+        assertEquals(1, stats.get("detail").getFailures());
+        assertEquals(1004, recorder.slowest(20).stream()
+                .filter(span -> span.getLabel().equals("detail")).findFirst().get().getErrorCode());
+    }
+
+    @Test
+    public void testRingBufferOverwritesOldest() {
+        // 缓冲区满后新记录覆盖最旧的记录
+        SpanRecorder recorder = new SpanRecorder(3);
+        for (int i = 0; i < 10; i++) {
+            ReactiveResponseBuilder.from(Mono.just(i)).span(recorder, "item" + i).build().block();
+        }
+        List<SpanRecorder.Span> spans = recorder.recent();
+        assertEquals(4, spans.size());
+        assertTrue(spans.stream().allMatch(span -> span.getLabel().compareTo("item6") >= 0));
+        assertEquals(10L, recorder.report(5).get("recorded"));
+        assertEquals(2, recorder.slowest(2).size());
+    }
+
+    @Test
+    public void testWriteTiming() {
+        // 过滤器在响应写出后补上序列化写出耗时
+        SpanRecorder recorder = new SpanRecorder();
+        WebTestClient client = WebTestClient.bindToRouterFunction(RouterFunctions.route(RequestPredicates.GET("/users"),
+                        request -> ServerResponse.ok().body(ReactiveResponseBuilder.from(Flux.just("张三", "李四"))
+                                .span(recorder, "/users")
+                                .build(), Object.class)))
+                .webFilter(new SpanTimingWebFilter())
+                .build();
+
+        client.get().uri("/users").exchange().expectStatus().isOk();
+
+        List<SpanRecorder.Span> spans = recorder.recent();
+        assertEquals(1, spans.size());
+        assertTrue(spans.get(0).getWriteMicros() >= 0, spans.get(0).toString());
+        assertEquals(spans.get(0).getCompleteMicros() + spans.get(0).getWriteMicros(), spans.get(0).getTotalMicros());
+    }
+}
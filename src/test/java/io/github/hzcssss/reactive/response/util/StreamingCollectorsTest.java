@@ -0,0 +1,150 @@
+package io.github.hzcssss.reactive.response.util;
+
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.DoubleArray;
+import io.github.hzcssss.reactive.response.core.LongArray;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.service.SpringReactiveResponseBuilder;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.LongSummaryStatistics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流式聚合测试类
+ */
+public class StreamingCollectorsTest {
+
+    @Test
+    public void testWrapCollectCount() {
+        // 计数不物化元素列表
+        StepVerifier.create(ReactiveResponseUtil.wrapCollect(Flux.range(0, 100_000), StreamingCollectors.counting()))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals(100_000L, response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testWrapCollectStatistics() {
+        // 一次遍历得到数量、总和、最值
+        StepVerifier.create(ReactiveResponseUtil.wrapCollect(Flux.just(3L, 9L, 1L), StreamingCollectors.summarizingLong(Long::longValue)))
+                .assertNext(response -> {
+                    LongSummaryStatistics statistics = response.getData();
+                    assertEquals(3, statistics.getCount());
+                    assertEquals(13, statistics.getSum());
+                    assertEquals(1, statistics.getMin());
+                    assertEquals(9, statistics.getMax());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testEmptyMinIsNull() {
+        // 空流的最小值为null，仍然返回成功响应
+        StepVerifier.create(ReactiveResponseUtil.wrapCollect(Flux.<Long>empty(), StreamingCollectors.minLong(Long::longValue)))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertNull(response.getData());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testApproximateDistinctCount() {
+        // 近似去重计数误差在5%以内
+        Flux<Integer> flux = Flux.range(0, 200_000).map(i -> i % 50_000);
+
+        StepVerifier.create(ReactiveResponseUtil.wrapCollect(flux, StreamingCollectors.approximateDistinctCount()))
+                .assertNext(response -> assertEquals(50_000, response.getData(), 2_500))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testWrapReduce() {
+        // 归约包装
+        StepVerifier.create(ReactiveResponseUtil.wrapReduce(Flux.range(1, 4), () -> 1, (acc, i) -> acc * i))
+                .assertNext(response -> assertEquals(24, response.getData()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuilderCollect() {
+        // 构建器聚合并保留自定义成功消息，错误时转换为失败响应
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.range(1, 10))
+                        .successMessage("统计完成")
+                        .buildCollect(StreamingCollectors.summingLong(Integer::longValue)))
+                .assertNext(response -> {
+                    assertEquals("统计完成", response.getMessage());
+                    assertEquals(55L, response.getData());
+                })
+                .verifyComplete();
+
+        Flux<Integer> failing = Flux.concat(Flux.range(1, 3), Flux.error(new IllegalStateException("读取失败")));
+        StepVerifier.create(ReactiveResponseBuilder.from(failing).buildReduce(() -> 0, Integer::sum))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals("读取失败", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testBuilderCollectCustomErrorHandler() {
+        // 聚合时源失败使用构建器上设置的错误处理器
+        Flux<Integer> failing = Flux.concat(Flux.range(1, 3), Flux.error(new IllegalStateException("读取失败")));
+        StepVerifier.create(ReactiveResponseBuilder.from(failing)
+                        .onError(e -> ReactiveResponse.failure(1201, "聚合失败"))
+                        .buildCollect(StreamingCollectors.summingLong(Integer::longValue)))
+                .assertNext(response -> assertEquals(1201, response.getErrorCode()))
+                .verifyComplete();
+
+        Flux<Integer> businessFailure = Flux.error(new BusinessException(1004, "无权限"));
+        StepVerifier.create(new SpringReactiveResponseBuilder().from(businessFailure)
+                        .onBusinessException(e -> ReactiveResponse.failure(e.getErrorCode(), "自定义: " + e.getMessage()))
+                        .buildReduce(() -> 0, Integer::sum))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals("自定义: 无权限", response.getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testWrapPrimitiveArrays() {
+        // 数值序列收集为基本类型数组
+        StepVerifier.create(ReactiveResponseUtil.wrapLongs(Flux.range(0, 1000).map(Integer::longValue)))
+                .assertNext(response -> {
+                    assertTrue(response.isSuccess());
+                    assertEquals(1000, response.getData().size());
+                    assertEquals(999L, response.getData().get(999));
+                })
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseUtil.wrapDoubleChunks(Flux.just(new double[]{1.5, 2.5}, new double[]{3.5})))
+                .assertNext(response -> assertEquals(DoubleArray.of(1.5, 2.5, 3.5), response.getData()))
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseBuilder.from(Flux.just("a", "bb", "ccc"))
+                        .buildCollect(StreamingCollectors.toIntArray(String::length)))
+                .assertNext(response -> assertArrayEquals(new int[]{1, 2, 3}, response.getData().toArray()))
+                .verifyComplete();
+
+        Flux<Long> failing = Flux.concat(Flux.just(1L), Flux.error(new IllegalStateException("读取失败")));
+        StepVerifier.create(ReactiveResponseUtil.wrapLongs(failing))
+                .assertNext(response -> {
+                    assertFalse(response.isSuccess());
+                    assertEquals("读取失败", response.getMessage());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(ReactiveResponseUtil.wrapLongs(Flux.<Long>empty()))
+                .assertNext(response -> assertEquals(new LongArray(), response.getData()))
+                .verifyComplete();
+    }
+}
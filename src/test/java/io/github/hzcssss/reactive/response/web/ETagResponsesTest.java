@@ -0,0 +1,114 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
+import io.github.hzcssss.reactive.response.util.XxHash64;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ETag响应测试类
+ */
+public class ETagResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ReactiveResponseModule());
+
+    @Test
+    public void testNotModified() throws Exception {
+        // 首次请求返回数据和ETag，带相同If-None-Match的请求返回304且没有响应体
+        ETagResponses responses = new ETagResponses(objectMapper);
+        MockServerHttpRequest first = MockServerHttpRequest.get("/api/users").build();
+
+        String etag = responses.wrapFlux(first, Flux.just("张三", "李四"))
+                .map(entity -> {
+                    assertEquals(HttpStatus.OK, entity.getStatusCode());
+                    return entity.getHeaders().getETag();
+                })
+                .block();
+        assertNotNull(etag);
+        assertEquals(responses.etagOf(Arrays.asList("张三", "李四")), etag);
+
+        MockServerHttpRequest second = MockServerHttpRequest.get("/api/users").ifNoneMatch(etag).build();
+        StepVerifier.create(responses.wrapFlux(second, Flux.just("张三", "李四")))
+                .assertNext(entity -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode());
+                    assertEquals(etag, entity.getHeaders().getETag());
+                    assertNull(entity.getBody());
+                })
+                .verifyComplete();
+
+        // 数据变化后返回新的数据
+        StepVerifier.create(responses.wrapFlux(second, Flux.just("张三")))
+                .assertNext(entity -> {
+                    assertEquals(HttpStatus.OK, entity.getStatusCode());
+                    assertNotEquals(etag, entity.getHeaders().getETag());
+                    try {
+                        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsBytes(entity.getBody()));
+                        assertEquals("张三", node.get("data").get(0).asText());
+                    } catch (Exception e) {
+                        fail(e);
+                    }
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testCachedSkipsLoader() {
+        // 缓存命中时不调用数据源
+        ETagResponses responses = new ETagResponses(objectMapper, Duration.ofMinutes(1), 16);
+        AtomicInteger loads = new AtomicInteger();
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/report").build();
+
+        String etag = responses.wrapCached(request, "report", () -> Mono.fromCallable(loads::incrementAndGet))
+                .map(entity -> entity.getHeaders().getETag())
+                .block();
+        MockServerHttpRequest conditional = MockServerHttpRequest.get("/api/report").ifNoneMatch(etag).build();
+        StepVerifier.create(responses.wrapCached(conditional, "report", () -> Mono.fromCallable(loads::incrementAndGet)))
+                .assertNext(entity -> assertEquals(HttpStatus.NOT_MODIFIED, entity.getStatusCode()))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+
+        responses.invalidate("report");
+        StepVerifier.create(responses.wrapCached(conditional, "report", () -> Mono.fromCallable(loads::incrementAndGet)))
+                .assertNext(entity -> assertEquals(HttpStatus.OK, entity.getStatusCode()))
+                .verifyComplete();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testErrorWithoutETag() {
+        // 错误转换为失败响应，不带ETag，HTTP状态码取自异常映射
+        ETagResponses responses = new ETagResponses(objectMapper);
+        StepVerifier.create(responses.wrapMono(MockServerHttpRequest.get("/").build(),
+                        Mono.error(new IllegalStateException("查询失败"))))
+                .assertNext(entity -> {
+                    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, entity.getStatusCode());
+                    assertNull(entity.getHeaders().getETag());
+                    assertFalse(entity.getBody().isSuccess());
+                    assertEquals("查询失败", entity.getBody().getMessage());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void testXxHash64() {
+        // 与xxHash64参考实现一致，分段计算结果相同
+        assertEquals(0xEF46DB3751D8E999L, XxHash64.hash(new byte[0]));
+        assertEquals(0x44BC2CF5AD770999L, XxHash64.hash("abc".getBytes(StandardCharsets.UTF_8)));
+        byte[] text = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0xFBCEA83C8A378BF1L, XxHash64.hash(text));
+        assertEquals(XxHash64.hash(text), new XxHash64().update(text, 0, 5).update(text, 5, text.length - 5).getValue());
+    }
+}
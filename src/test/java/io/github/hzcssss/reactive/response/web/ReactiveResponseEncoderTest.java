@@ -0,0 +1,126 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import io.github.hzcssss.reactive.response.core.FieldProjection;
+import io.github.hzcssss.reactive.response.core.RawJson;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.jackson.ReactiveResponseModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编码响应头部的编码器测试类
+ */
+public class ReactiveResponseEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new ReactiveResponseModule());
+    private final ReactiveResponseEncoder encoder = new ReactiveResponseEncoder(objectMapper);
+    private final ResolvableType type = ResolvableType.forClass(ReactiveResponse.class);
+
+    @Test
+    public void testSameBytesAsJackson() throws Exception {
+        // 输出与Jackson序列化整个响应的结果逐字节相同
+        assertSameAsJackson(ReactiveResponse.success(Arrays.asList("张三", "李四")));
+        assertSameAsJackson(ReactiveResponse.success(Collections.singletonMap("id", 1)));
+        assertSameAsJackson(ReactiveResponse.success(null));
+        assertSameAsJackson(ReactiveResponse.failure(1004, "用户\"admin\"不存在\n"));
+        assertSameAsJackson(ReactiveResponse.failure(1000, null));
+        assertSameAsJackson(ReactiveResponse.success(RawJson.of("{\"a\":[1,2]}")));
+
+        // 同一消息对应不同错误码时不复用头部
+        assertSameAsJackson(ReactiveResponse.failure(1001, "失败"));
+        assertSameAsJackson(ReactiveResponse.failure(1003, "失败"));
+
+        ReactiveResponse<Integer> negative = ReactiveResponse.success(1);
+        negative.setTimestamp(-42);
+        assertSameAsJackson(negative);
+
+        // 附加了字段投影的响应按投影输出data
+        assertSameAsJackson(FieldProjection.parse("id").apply(ReactiveResponse.success(
+                Arrays.asList(Collections.singletonMap("id", 1), Collections.singletonMap("name", "张三")))));
+    }
+
+    @Test
+    public void testTemplatesEvictedNotFrozen() throws Exception {
+        // 大量不同的失败消息不影响之后的成功响应，缓存数量有上限
+        for (int i = 0; i < ReactiveResponseEncoder.MAX_TEMPLATES * 2; i++) {
+            assertSameAsJackson(ReactiveResponse.failure(1000, "订单" + i + "不存在"));
+        }
+        assertTrue(encoder.cachedTemplates() <= ReactiveResponseEncoder.MAX_TEMPLATES);
+        assertSameAsJackson(ReactiveResponse.success(ResponseCode.SUCCESS.getErrorCode(), "导出完成", 1));
+        assertSameAsJackson(ReactiveResponse.success(1));
+    }
+
+    @Test
+    public void testDelegatesWhenObjectMapperChangesEnvelope() throws Exception {
+        // ObjectMapper改变响应外层格式时整个响应交给ObjectMapper序列化
+        assertTrue(encoder.isPreEncoding());
+        ObjectMapper snakeCase = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        ObjectMapper nonNull = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        for (ObjectMapper mapper : Arrays.asList(snakeCase, nonNull)) {
+            ReactiveResponseEncoder delegating = new ReactiveResponseEncoder(mapper);
+            assertFalse(delegating.isPreEncoding());
+            ReactiveResponse<Object> response = ReactiveResponse.failure(1001, "未授权");
+            DataBuffer buffer = delegating.encodeValue(response, DefaultDataBufferFactory.sharedInstance, type,
+                    MediaType.APPLICATION_JSON, null);
+            assertEquals(mapper.writeValueAsString(response), toString(buffer));
+        }
+
+        // 未注册ReactiveResponseModule时仍按投影输出data
+        ReactiveResponse<?> projected = FieldProjection.parse("id").apply(ReactiveResponse.success(
+                Collections.singletonMap("id", 1)));
+        DataBuffer buffer = new ReactiveResponseEncoder(snakeCase).encodeValue(projected,
+                DefaultDataBufferFactory.sharedInstance, type, MediaType.APPLICATION_JSON, null);
+        assertTrue(toString(buffer).endsWith("\"data\":{\"id\":1}}"));
+    }
+
+    @Test
+    public void testFluxEncodedAsArray() throws Exception {
+        // 多个响应编码为JSON数组
+        ReactiveResponse<Integer> first = ReactiveResponse.success(1);
+        ReactiveResponse<Integer> second = ReactiveResponse.success(2);
+        String json = join(encoder.encode(Flux.just(first, second), DefaultDataBufferFactory.sharedInstance,
+                type, MediaType.APPLICATION_JSON, null));
+        assertEquals(objectMapper.writeValueAsString(Arrays.asList(first, second)), json);
+    }
+
+    @Test
+    public void testCanEncode() {
+        // 只处理JSON格式的ReactiveResponse
+        assertTrue(encoder.canEncode(type, MediaType.APPLICATION_JSON));
+        assertTrue(encoder.canEncode(type, MediaType.valueOf("application/problem+json")));
+        assertFalse(encoder.canEncode(type, MediaType.APPLICATION_XML));
+        assertFalse(encoder.canEncode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON));
+    }
+
+    private void assertSameAsJackson(ReactiveResponse<?> response) throws Exception {
+        DataBuffer buffer = encoder.encodeValue(response, DefaultDataBufferFactory.sharedInstance, type,
+                MediaType.APPLICATION_JSON, null);
+        assertEquals(objectMapper.writeValueAsString(response), toString(buffer));
+    }
+
+    private static String join(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers).map(ReactiveResponseEncoderTest::toString).block();
+    }
+
+    private static String toString(DataBuffer buffer) {
+        String value = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return value;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import io.github.hzcssss.reactive.response.exception.BusinessException;
+import io.github.hzcssss.reactive.response.exception.ExceptionMappingRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 全局异常处理器测试类
+ */
+public class ReactiveResponseWebExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ExceptionMappingRegistry registry = new ExceptionMappingRegistry()
+            .register(IllegalArgumentException.class, ResponseCode.FAILURE, 400)
+            .register(SecurityException.class, ResponseCode.FORBIDDEN, 403);
+
+    private final ReactiveResponseWebExceptionHandler handler =
+            new ReactiveResponseWebExceptionHandler(objectMapper, registry);
+
+    @Test
+    public void testMappedHttpStatus() throws Exception {
+        // 按异常映射设置HTTP状态码，响应体为失败响应
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users").build());
+        StepVerifier.create(handler.handle(exchange, new SecurityException("denied"))).verifyComplete();
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals(ResponseCode.FORBIDDEN.getErrorCode(), body.get("errorCode").asInt());
+        assertFalse(body.get("success").asBoolean());
+
+        // 子类使用父类的映射，业务异常默认200，未注册的异常使用兜底映射
+        assertStatus(new NumberFormatException("bad"), HttpStatus.BAD_REQUEST);
+        assertStatus(new BusinessException(1004, "资源不存在"), HttpStatus.OK);
+        assertStatus(new IllegalStateException("boom"), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    public void testResponseStatusExceptionDelegated() {
+        // 框架的ResponseStatusException交给后续处理器
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/missing").build());
+        ResponseStatusException notFound = new ResponseStatusException(HttpStatus.NOT_FOUND);
+        StepVerifier.create(handler.handle(exchange, notFound))
+                .expectErrorSatisfies(e -> assertSame(notFound, e))
+                .verify();
+    }
+
+    private void assertStatus(Throwable e, HttpStatus expected) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").build());
+        handler.handle(exchange, e).block();
+        assertEquals(expected, exchange.getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.hzcssss.reactive.response.web;
+
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.ResponseCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 可续传SSE事件流测试类
+ */
+public class ResumableEventStreamsTest {
+
+    @Test
+    public void testResumeFromLastEventId() {
+        // 重连时先重放断线期间的事件再接上实时事件，数据源只订阅一次
+        ResumableEventStreams streams = new ResumableEventStreams();
+        Sinks.Many<String> source = Sinks.many().multicast().directBestEffort();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flux<String> flux = source.asFlux().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        // 数据源在第一个客户端订阅后才启动
+        Flux<ServerSentEvent<ReactiveResponse<String>>> orders = streams.stream("orders", null, () -> flux);
+        assertEquals(0, subscriptions.get());
+        List<ServerSentEvent<ReactiveResponse<String>>> first = new ArrayList<>();
+        StepVerifier.create(orders.take(2))
+                .then(() -> {
+                    source.tryEmitNext("a");
+                    source.tryEmitNext("b");
+                })
+                .recordWith(() -> first)
+                .expectNextCount(2)
+                .verifyComplete();
+        assertEquals("b", first.get(1).data().getData());
+        assertTrue(first.get(1).data().isSuccess());
+
+        source.tryEmitNext("c");
+        source.tryEmitNext("d");
+        MockServerHttpRequest reconnect = MockServerHttpRequest.get("/orders/events")
+                .header(ResumableEventStreams.LAST_EVENT_ID_HEADER, first.get(1).id())
+                .build();
+        StepVerifier.create(streams.stream(reconnect, "orders", () -> flux).map(event -> event.data().getData()))
+                .expectNext("c", "d")
+                .then(() -> source.tryEmitNext("e"))
+                .expectNext("e")
+                .then(source::tryEmitComplete)
+                .verifyComplete();
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void testResetWhenEventsLost() {
+        // 需要的事件已被覆盖时先发送reset事件，再重放缓冲区中的事件
+        ResumableEventStreams streams = new ResumableEventStreams(2, Duration.ofMinutes(1), 16);
+        Sinks.Many<Integer> source = Sinks.many().multicast().directBestEffort();
+        List<ServerSentEvent<ReactiveResponse<Integer>>> first = new ArrayList<>();
+        StepVerifier.create(streams.stream("numbers", null, source::asFlux).take(1))
+                .then(() -> source.tryEmitNext(1))
+                .recordWith(() -> first)
+                .expectNextCount(1)
+                .verifyComplete();
+        for (int i = 2; i <= 5; i++) {
+            source.tryEmitNext(i);
+        }
+        StepVerifier.create(streams.stream("numbers", first.get(0).id(), source::asFlux))
+                .assertNext(event -> {
+                    assertEquals(ResumableEventStreams.RESET_EVENT, event.event());
+                    assertNull(event.data());
+                })
+                .assertNext(event -> assertEquals(4, event.data().getData()))
+                .assertNext(event -> assertEquals(5, event.data().getData()))
+                .then(source::tryEmitComplete)
+                .verifyComplete();
+
+        // 流已被清除时编号未知，先发送reset事件，再从新的流开头接收
+        streams.evict("numbers");
+        StepVerifier.create(streams.stream("numbers", first.get(0).id(), () -> Flux.range(1, 3)))
+                .assertNext(event -> assertEquals(ResumableEventStreams.RESET_EVENT, event.event()))
+                .assertNext(event -> assertEquals(1, event.data().getData()))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testEvictionAndFailure() {
+        // 没有客户端连接超过保留时间的流被清除并取消数据源
+        ResumableEventStreams streams = new ResumableEventStreams(16, Duration.ZERO, 1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        StepVerifier.create(streams.stream("ticks", null,
+                        () -> Flux.<String>never().doOnCancel(() -> cancelled.set(true))))
+                .thenCancel()
+                .verify();
+        assertEquals(1, streams.size());
+        streams.evictExpired();
+        assertEquals(0, streams.size());
+        assertTrue(cancelled.get());
+
+        // 数据源失败时发送失败响应后结束
+        StepVerifier.create(streams.stream("failing", null, () -> Flux.<String>error(new RuntimeException("boom"))))
+                .assertNext(event -> assertFalse(event.data().isSuccess()))
+                .verifyComplete();
+
+        // 流数量达到上限且没有空闲的流时返回繁忙响应
+        StepVerifier.create(streams.stream("live", null, Flux::<String>never)
+                        .mergeWith(streams.stream("other", null, Flux::<String>never)))
+                .assertNext(event -> assertEquals(ResponseCode.OVERLOADED.getErrorCode(),
+                        event.data().getErrorCode()))
+                .thenCancel()
+                .verify();
+    }
+}
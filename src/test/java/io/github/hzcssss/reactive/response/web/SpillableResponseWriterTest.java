@@ -0,0 +1,147 @@
+package io.github.hzcssss.reactive.response.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import io.github.hzcssss.reactive.response.builder.ReactiveResponseBuilder;
+import io.github.hzcssss.reactive.response.core.ReactiveResponse;
+import io.github.hzcssss.reactive.response.core.SpillableResponse;
+import io.github.hzcssss.reactive.response.jackson.SpillingCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 溢出到磁盘的列表响应测试类
+ */
+public class SpillableResponseWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSpilledEnvelope() throws Exception {
+        // 超过阈值后写入临时文件，输出格式与内存中的列表响应相同，发送后删除文件
+        SpillingCollector collector = new SpillingCollector(objectMapper, 100, tempDir);
+        SpillableResponse<String> spilled = ReactiveResponseBuilder.from(Flux.range(0, 5000).map(i -> "行" + i))
+                .successMessage("导出完成")
+                .buildSpilling(collector)
+                .block();
+        assertTrue(spilled.isSpilled());
+        assertTrue(Files.exists(spilled.getFile()));
+
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        StepVerifier.create(SpillableResponseWriter.write(response, spilled, objectMapper)).verifyComplete();
+
+        JsonNode node = objectMapper.readTree(response.getBodyAsString().block());
+        assertEquals(0, node.get("errorCode").asInt());
+        assertEquals("导出完成", node.get("message").asText());
+        assertTrue(node.get("success").asBoolean());
+        assertTrue(node.get("timestamp").asLong() > 0);
+        assertEquals(5000, node.get("data").size());
+        assertEquals("行4999", node.get("data").get(4999).asText());
+        assertEquals(spilled.getCount(), response.getHeaders().getContentLength());
+        assertFalse(Files.exists(spilled.getFile()));
+    }
+
+    @Test
+    public void testInMemoryBelowThreshold() throws Exception {
+        // 未超过阈值时不创建临时文件
+        SpillingCollector collector = new SpillingCollector(objectMapper, 100, tempDir);
+        SpillableResponse<Integer> small = ReactiveResponseBuilder.from(Flux.range(0, 10))
+                .buildSpilling(collector)
+                .block();
+        assertFalse(small.isSpilled());
+        assertEquals(10, small.getResponse().getData().size());
+
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        StepVerifier.create(SpillableResponseWriter.write(response, small, objectMapper)).verifyComplete();
+        assertEquals(10, objectMapper.readTree(response.getBodyAsString().block()).get("data").size());
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testErrorDeletesSpillFile() throws Exception {
+        // 上游出错时删除已写入的临时文件并返回失败响应
+        SpillingCollector collector = new SpillingCollector(objectMapper, 10, tempDir);
+        Flux<Integer> failing = Flux.concat(Flux.range(0, 50), Flux.error(new IllegalStateException("读取失败")));
+        StepVerifier.create(ReactiveResponseBuilder.from(failing).buildSpilling(collector))
+                .assertNext(result -> {
+                    assertFalse(result.isSpilled());
+                    assertFalse(result.getResponse().isSuccess());
+                    assertEquals("读取失败", result.getResponse().getMessage());
+                })
+                .verifyComplete();
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testCancelDeletesSpillFile() throws Exception {
+        // 收集过程中取消时删除已写入的临时文件
+        SpillingCollector collector = new SpillingCollector(objectMapper, 10, tempDir);
+        Flux<Integer> endless = Flux.concat(Flux.range(0, 50), Mono.never());
+        StepVerifier.create(ReactiveResponseBuilder.from(endless).buildSpilling(collector))
+                .expectSubscription()
+                .then(() -> assertEquals(1, countFilesUnchecked()))
+                .thenCancel()
+                .verify();
+        assertEquals(0, countFiles());
+    }
+
+    @Test
+    public void testEnvelopeFollowsObjectMapper() throws Exception {
+        // 响应外层与ObjectMapper序列化内存中响应的字段名和顺序一致
+        ObjectMapper mapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE)
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        SpillingCollector collector = new SpillingCollector(mapper, 10, tempDir);
+        SpillableResponse<Integer> spilled = ReactiveResponseBuilder.from(Flux.range(0, 50))
+                .buildSpilling(collector)
+                .block();
+        assertTrue(spilled.isSpilled());
+
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        StepVerifier.create(SpillableResponseWriter.write(response, spilled, mapper)).verifyComplete();
+        JsonNode node = mapper.readTree(response.getBodyAsString().block());
+        JsonNode expected = mapper.valueToTree(ReactiveResponse.success(Collections.emptyList()));
+        assertEquals(fieldNames(expected), fieldNames(node));
+        assertEquals(50, node.get("Data").size());
+        assertTrue(node.get("Success").asBoolean());
+        assertTrue(node.get("Timestamp").asLong() > 0);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private long countFilesUnchecked() {
+        try {
+            return countFiles();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+}